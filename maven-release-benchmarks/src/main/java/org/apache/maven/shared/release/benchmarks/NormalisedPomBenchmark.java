@@ -0,0 +1,198 @@
+package org.apache.maven.shared.release.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.util.NormalisedPom;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.StringUtils;
+import org.jdom.Comment;
+import org.jdom.DefaultJDOMFactory;
+import org.jdom.Document;
+import org.jdom.JDOMException;
+import org.jdom.filter.ContentFilter;
+import org.jdom.input.SAXBuilder;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read a large BOM for rewriting, the way the rewrite phases did with regular expressions and the way they do now
+ * with {@link NormalisedPom}. Both produce the parsed document and the text around its root element. The BOM is
+ * generated with the given number of lines, with extra whitespace in its tags and comments spread through it.
+ * Allocation is measured by running with the GC profiler:
+ *
+ * <pre>
+ * java -jar maven-release-benchmarks/target/benchmarks.jar NormalisedPomBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class NormalisedPomBenchmark
+{
+    private static final String LS = System.getProperty( "line.separator" );
+
+    @Param( { "1000", "10000" } )
+    private int lines;
+
+    private byte[] pom;
+
+    @Setup
+    public void setUp()
+    {
+        StringBuffer buffer = new StringBuffer( lines * 48 );
+        buffer.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+        buffer.append( "<!--\n  A generated bill of materials.\n-->\n" );
+        buffer.append( "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"   " );
+        buffer.append( "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n" );
+        buffer.append( "  <modelVersion>4.0.0</modelVersion>\n" );
+        buffer.append( "  <groupId>org.example</groupId>\n" );
+        buffer.append( "  <artifactId>bom</artifactId>\n" );
+        buffer.append( "  <version>1.0-SNAPSHOT</version>\n" );
+        buffer.append( "  <packaging>pom</packaging>\n" );
+        buffer.append( "  <dependencyManagement>\n    <dependencies>\n" );
+        for ( int i = 0, line = 12; line < lines - 4; i++ )
+        {
+            if ( i % 50 == 0 )
+            {
+                buffer.append( "      <!-- group " ).append( i / 50 ).append( "\n           of managed modules -->\n" );
+                line += 2;
+            }
+            buffer.append( "      <dependency>\n" );
+            buffer.append( "        <groupId>org.example</groupId>\n" );
+            buffer.append( "        <artifactId>module-" ).append( i ).append( "</artifactId>\n" );
+            buffer.append( "        <version>1.0-SNAPSHOT</version>\n" );
+            buffer.append( "        <exclusions  combine=\"append\"/>\n" );
+            buffer.append( "      </dependency>\n" );
+            line += 6;
+        }
+        buffer.append( "    </dependencies>\n  </dependencyManagement>\n</project>\n" );
+        pom = buffer.toString().getBytes();
+    }
+
+    /**
+     * The path the rewrite phases used to take: read the POM into a string, normalise it with two regular
+     * expressions, parse it, convert the line endings of every comment, and render the root element to find the text
+     * around it.
+     */
+    @Benchmark
+    public String regularExpressions()
+        throws IOException, JDOMException
+    {
+        String content;
+        Reader reader = ReaderFactory.newXmlReader( new ByteArrayInputStream( pom ) );
+        try
+        {
+            content = IOUtil.toString( reader );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+        content = content.replaceAll( "<([^!][^>]*?)\\s{2,}([^>]*?)>", "<$1 $2>" );
+        content = content.replaceAll( "(\\s{2,}|[^\\s])/>", "$1 />" );
+
+        Document document = new SAXBuilder().build( new StringReader( content ) );
+        for ( Iterator i = document.getDescendants( new ContentFilter( ContentFilter.COMMENT ) ); i.hasNext(); )
+        {
+            Comment c = (Comment) i.next();
+            c.setText( c.getText().replaceAll( "\n", LS ) );
+        }
+
+        StringWriter w = new StringWriter();
+        createOutputter().output( document.getRootElement(), w );
+
+        int index = content.indexOf( w.toString() );
+        return index >= 0 ? content.substring( 0, index ) : null;
+    }
+
+    /**
+     * The single pass path the rewrite phases take now.
+     */
+    @Benchmark
+    public String streaming()
+        throws IOException, JDOMException
+    {
+        NormalisedPom content;
+        Reader reader = ReaderFactory.newXmlReader( new ByteArrayInputStream( pom ) );
+        try
+        {
+            content = NormalisedPom.read( reader );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+
+        SAXBuilder builder = new SAXBuilder();
+        builder.setFactory( new LineEndingFactory() );
+        Document document = builder.build( content.getReader() );
+
+        NormalisedPom.RootMatcher matcher = content.createRootMatcher();
+        createOutputter().output( document.getRootElement(), matcher );
+
+        return matcher.getIntro();
+    }
+
+    private static XMLOutputter createOutputter()
+    {
+        Format format = Format.getRawFormat();
+        format.setLineSeparator( LS );
+        return new XMLOutputter( format );
+    }
+
+    /**
+     * The same comment line ending conversion as the rewrite phases make while parsing.
+     */
+    private static class LineEndingFactory
+        extends DefaultJDOMFactory
+    {
+        public Comment comment( String text )
+        {
+            if ( !"\n".equals( LS ) && text.indexOf( '\n' ) >= 0 )
+            {
+                text = StringUtils.replace( text, "\n", LS );
+            }
+            return super.comment( text );
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.apache.maven.shared.release.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.model.Scm;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.config.ReleaseDescriptorStore;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and read <code>release.properties</code> for reactors with many projects, each of which has a release
+ * version, a development version and its original SCM details mapped.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ReleaseDescriptorStoreBenchmark
+{
+    @Param( { "100", "1000", "10000" } )
+    private int projects;
+
+    private DefaultPlexusContainer container;
+
+    private ReleaseDescriptorStore store;
+
+    private ReleaseDescriptor releaseDescriptor;
+
+    private File readFile;
+
+    private File writeFile;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws Exception
+    {
+        container = new DefaultPlexusContainer();
+        store = (ReleaseDescriptorStore) container.lookup( ReleaseDescriptorStore.ROLE, "properties" );
+
+        releaseDescriptor = new ReleaseDescriptor();
+        releaseDescriptor.setCompletedPhase( "rewrite-poms-for-release" );
+        releaseDescriptor.setScmSourceUrl( SyntheticReactor.SCM_URL );
+        releaseDescriptor.setScmReleaseLabel( "root-" + SyntheticReactor.RELEASE_VERSION );
+        for ( int i = 0; i < projects; i++ )
+        {
+            String key = SyntheticReactor.GROUP_ID + ":module-" + i;
+            releaseDescriptor.mapReleaseVersion( key, SyntheticReactor.RELEASE_VERSION );
+            releaseDescriptor.mapDevelopmentVersion( key, "1.1-SNAPSHOT" );
+
+            Scm scm = new Scm();
+            scm.setConnection( SyntheticReactor.SCM_URL + "/module-" + i );
+            scm.setDeveloperConnection( SyntheticReactor.SCM_URL + "/module-" + i );
+            releaseDescriptor.mapOriginalScmInfo( key, scm );
+        }
+
+        readFile = File.createTempFile( "release", ".properties" );
+        writeFile = File.createTempFile( "release", ".properties" );
+        store.write( releaseDescriptor, readFile );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        readFile.delete();
+        writeFile.delete();
+        container.dispose();
+    }
+
+    @Benchmark
+    public void write()
+        throws Exception
+    {
+        store.write( releaseDescriptor, writeFile );
+    }
+
+    @Benchmark
+    public ReleaseDescriptor read()
+        throws Exception
+    {
+        return store.read( readFile );
+    }
+}
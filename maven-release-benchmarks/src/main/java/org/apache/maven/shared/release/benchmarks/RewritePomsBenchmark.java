@@ -0,0 +1,112 @@
+package org.apache.maven.shared.release.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.settings.Settings;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.phase.ReleasePhase;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewrite the POMs of a generated reactor for release. The phase is simulated, so that the POMs are rewritten into
+ * <code>pom.xml.tag</code> files and the originals are left as they are for the next invocation.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class RewritePomsBenchmark
+{
+    @Param( { "10", "100", "500", "2000" } )
+    private int modules;
+
+    @Param( { "1", "4" } )
+    private int workerThreads;
+
+    @Param( { ReleaseDescriptor.POM_EDITOR_JDOM, ReleaseDescriptor.POM_EDITOR_LOSSLESS } )
+    private String pomEditor;
+
+    private DefaultPlexusContainer container;
+
+    private ReleasePhase phase;
+
+    private SyntheticReactor reactor;
+
+    private List reactorProjects;
+
+    private ReleaseDescriptor releaseDescriptor;
+
+    private Settings settings;
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws Exception
+    {
+        container = new DefaultPlexusContainer();
+        phase = (ReleasePhase) container.lookup( ReleasePhase.ROLE, "rewrite-poms-for-release" );
+
+        File basedir = File.createTempFile( "rewrite-poms", "" );
+        basedir.delete();
+        reactor = new SyntheticReactor( basedir, modules );
+        reactorProjects = reactor.getReactorProjects();
+
+        releaseDescriptor = reactor.createReleaseDescriptor();
+        releaseDescriptor.setWorkerThreads( workerThreads );
+        releaseDescriptor.setPomEditor( pomEditor );
+
+        settings = new Settings();
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown()
+        throws Exception
+    {
+        phase.clean( reactorProjects );
+        container.dispose();
+        reactor.delete();
+    }
+
+    @Benchmark
+    public ReleaseResult rewritePoms()
+        throws Exception
+    {
+        return phase.simulate( releaseDescriptor, settings, reactorProjects );
+    }
+}
@@ -0,0 +1,124 @@
+package org.apache.maven.shared.release.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.exec.RawStreamPumper;
+import org.apache.maven.shared.release.exec.TeeOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copy the output of a forked build through the stream pumper and the indenting tee. The output is a megabyte of
+ * build log lines, with either a mix of line endings or the carriage return and line feed of a Windows build.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class StreamBenchmark
+{
+    private static final int OUTPUT_SIZE = 1024 * 1024;
+
+    /**
+     * The size of the writes made to the tee.
+     */
+    @Param( { "1", "256", "8192" } )
+    private int chunkSize;
+
+    @Param( { "mixed", "crlf" } )
+    private String lineEndings;
+
+    private byte[] output;
+
+    @Setup
+    public void setUp()
+    {
+        StringBuffer buffer = new StringBuffer( OUTPUT_SIZE + 128 );
+        for ( int i = 0; buffer.length() < OUTPUT_SIZE; i++ )
+        {
+            buffer.append( "[INFO] Compiling " ).append( i ).append( " source files to /tmp/module/target/classes" );
+            buffer.append( "crlf".equals( lineEndings ) || i % 4 == 0 ? "\r\n" : "\n" );
+        }
+        output = buffer.toString().getBytes();
+    }
+
+    @Benchmark
+    public int tee()
+        throws IOException
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        TeeOutputStream tee = new TeeOutputStream( out );
+        for ( int offset = 0; offset < output.length; offset += chunkSize )
+        {
+            if ( chunkSize == 1 )
+            {
+                tee.write( output[offset] );
+            }
+            else
+            {
+                tee.write( output, offset, Math.min( chunkSize, output.length - offset ) );
+            }
+        }
+        tee.flush();
+        return out.count;
+    }
+
+    @Benchmark
+    public int pump()
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        RawStreamPumper pumper = new RawStreamPumper( new ByteArrayInputStream( output ), out );
+        // run on this thread, the pumper stops at the end of the input
+        pumper.run();
+        return out.count;
+    }
+
+    private static class CountingOutputStream
+        extends OutputStream
+    {
+        private int count;
+
+        public void write( int b )
+        {
+            count++;
+        }
+
+        public void write( byte[] b, int off, int len )
+        {
+            count += len;
+        }
+    }
+}
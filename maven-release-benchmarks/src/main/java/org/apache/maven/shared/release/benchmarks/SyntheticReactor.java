@@ -0,0 +1,163 @@
+package org.apache.maven.shared.release.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reactor of generated projects on disk: a root POM with the SCM details, and modules that each depend on the
+ * module before them and on an external dependency.
+ */
+public class SyntheticReactor
+{
+    static final String GROUP_ID = "org.apache.maven.release.benchmarks";
+
+    static final String SNAPSHOT_VERSION = "1.0-SNAPSHOT";
+
+    static final String RELEASE_VERSION = "1.0";
+
+    static final String SCM_URL = "scm:svn:file://localhost/tmp/scm-repo/trunk";
+
+    private final File basedir;
+
+    private final List reactorProjects = new ArrayList();
+
+    /**
+     * Write the POMs of the reactor and read them back in as projects.
+     *
+     * @param basedir the directory to create the reactor in
+     * @param modules the number of modules below the root project
+     */
+    public SyntheticReactor( File basedir, int modules )
+        throws IOException, XmlPullParserException
+    {
+        this.basedir = basedir;
+
+        StringBuffer moduleList = new StringBuffer();
+        for ( int i = 0; i < modules; i++ )
+        {
+            moduleList.append( "    <module>module-" ).append( i ).append( "</module>\n" );
+        }
+
+        MavenProject root = createProject( new File( basedir, "pom.xml" ), "<project>\n" +
+            "  <modelVersion>4.0.0</modelVersion>\n" + "  <groupId>" + GROUP_ID + "</groupId>\n" +
+            "  <artifactId>root</artifactId>\n" + "  <version>" + SNAPSHOT_VERSION + "</version>\n" +
+            "  <packaging>pom</packaging>\n" + "  <modules>\n" + moduleList + "  </modules>\n" + "  <scm>\n" +
+            "    <connection>" + SCM_URL + "</connection>\n" + "    <developerConnection>" + SCM_URL +
+            "</developerConnection>\n" + "  </scm>\n" + "</project>\n" );
+        root.setExecutionRoot( true );
+        reactorProjects.add( root );
+
+        for ( int i = 0; i < modules; i++ )
+        {
+            String dependency = i == 0 ? "" : "    <dependency>\n" + "      <groupId>" + GROUP_ID + "</groupId>\n" +
+                "      <artifactId>module-" + ( i - 1 ) + "</artifactId>\n" + "      <version>" + SNAPSHOT_VERSION +
+                "</version>\n" + "    </dependency>\n";
+
+            MavenProject project = createProject( new File( basedir, "module-" + i + "/pom.xml" ), "<project>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" + "  <parent>\n" + "    <groupId>" + GROUP_ID +
+                "</groupId>\n" + "    <artifactId>root</artifactId>\n" + "    <version>" + SNAPSHOT_VERSION +
+                "</version>\n" + "  </parent>\n" + "  <artifactId>module-" + i + "</artifactId>\n" +
+                "  <name>Module " + i + "</name>\n" + "  <dependencies>\n" + dependency + "    <dependency>\n" +
+                "      <groupId>junit</groupId>\n" + "      <artifactId>junit</artifactId>\n" +
+                "      <version>3.8.1</version>\n" + "      <scope>test</scope>\n" + "    </dependency>\n" +
+                "  </dependencies>\n" + "</project>\n" );
+            project.setParent( root );
+            reactorProjects.add( project );
+        }
+    }
+
+    /**
+     * @return the projects of the reactor, with the root project first
+     */
+    public List getReactorProjects()
+    {
+        return reactorProjects;
+    }
+
+    /**
+     * Create a release descriptor with the release versions of all of the projects mapped.
+     *
+     * @return the release descriptor
+     */
+    public ReleaseDescriptor createReleaseDescriptor()
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        descriptor.setScmSourceUrl( SCM_URL );
+        descriptor.setScmReleaseLabel( "root-" + RELEASE_VERSION );
+        descriptor.setWorkingDirectory( basedir.getAbsolutePath() );
+        for ( int i = 0; i < reactorProjects.size(); i++ )
+        {
+            MavenProject project = (MavenProject) reactorProjects.get( i );
+            descriptor.mapReleaseVersion( GROUP_ID + ":" + project.getArtifactId(), RELEASE_VERSION );
+        }
+        return descriptor;
+    }
+
+    /**
+     * Remove the reactor from disk.
+     */
+    public void delete()
+        throws IOException
+    {
+        FileUtils.deleteDirectory( basedir );
+    }
+
+    private static MavenProject createProject( File pomFile, String content )
+        throws IOException, XmlPullParserException
+    {
+        pomFile.getParentFile().mkdirs();
+        FileUtils.fileWrite( pomFile.getAbsolutePath(), content );
+
+        Reader reader = ReaderFactory.newXmlReader( pomFile );
+        Model model;
+        try
+        {
+            model = new MavenXpp3Reader().read( reader );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+        if ( model.getGroupId() == null )
+        {
+            // inherited from the parent
+            model.setGroupId( GROUP_ID );
+            model.setVersion( SNAPSHOT_VERSION );
+        }
+
+        MavenProject project = new MavenProject( model );
+        project.setFile( pomFile );
+        return project;
+    }
+}
@@ -0,0 +1,98 @@
+package org.apache.maven.shared.release.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.versions.DefaultVersionInfo;
+import org.apache.maven.shared.release.versions.VersionInfo;
+import org.apache.maven.shared.release.versions.VersionParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse, compare and increment the kinds of versions found in a reactor.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class VersionInfoBenchmark
+{
+    private static final String[] VERSIONS = { "1.0-SNAPSHOT", "1.0", "2.0.1-SNAPSHOT", "1.0-alpha-5-SNAPSHOT",
+        "2.0-beta-8", "3.0-RC1", "1.2.3.4-SNAPSHOT", "5", "1.0-20070905.171523-2", "2.1-jdk14-SNAPSHOT",
+        "1.0-alpha-1-20070911.133545-3", "10.2.0.4.1-beta-3-SNAPSHOT" };
+
+    private VersionInfo[] versionInfos;
+
+    @Setup
+    public void setUp()
+        throws VersionParseException
+    {
+        versionInfos = new VersionInfo[VERSIONS.length];
+        for ( int i = 0; i < VERSIONS.length; i++ )
+        {
+            versionInfos[i] = new DefaultVersionInfo( VERSIONS[i] );
+        }
+    }
+
+    @Benchmark
+    public void parse( Blackhole blackhole )
+        throws VersionParseException
+    {
+        for ( int i = 0; i < VERSIONS.length; i++ )
+        {
+            blackhole.consume( new DefaultVersionInfo( VERSIONS[i] ) );
+        }
+    }
+
+    @Benchmark
+    public void compare( Blackhole blackhole )
+    {
+        for ( int i = 0; i < versionInfos.length; i++ )
+        {
+            for ( int j = 0; j < versionInfos.length; j++ )
+            {
+                blackhole.consume( versionInfos[i].compareTo( versionInfos[j] ) );
+            }
+        }
+    }
+
+    @Benchmark
+    public void nextVersion( Blackhole blackhole )
+    {
+        for ( int i = 0; i < versionInfos.length; i++ )
+        {
+            VersionInfo next = versionInfos[i].getNextVersion();
+            blackhole.consume( next != null ? next.getSnapshotVersionString() : null );
+        }
+    }
+}
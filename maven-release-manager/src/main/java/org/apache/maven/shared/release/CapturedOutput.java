@@ -0,0 +1,71 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The output of something run during a release, such as a forked build. Only the end of the output is kept in
+ * memory - the full output can be kept in a file, and read back as a stream.
+ */
+public interface CapturedOutput
+{
+    /**
+     * @return a description of what produced the output
+     */
+    String getName();
+
+    /**
+     * @return the size of the full output, in bytes
+     */
+    long getSize();
+
+    /**
+     * @return the file the full output was written to, or <code>null</code> if it was only kept in memory
+     */
+    File getFile();
+
+    /**
+     * @return whether the stream returned by {@link #openStream()} contains the full output, rather than just the
+     *         end of it
+     */
+    boolean isComplete();
+
+    /**
+     * Read the output back.
+     *
+     * @return the full output if it was written to a file or fits in memory, otherwise the end of it
+     * @throws IOException if the file the output was written to can't be read
+     */
+    InputStream openStream()
+        throws IOException;
+
+    /**
+     * @return the encoding the output was written in, or <code>null</code> if it is the platform encoding
+     */
+    String getEncoding();
+
+    /**
+     * @return the end of the output that was kept in memory, decoded with its encoding
+     */
+    String getTail();
+}
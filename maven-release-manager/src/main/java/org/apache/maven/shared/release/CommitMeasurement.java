@@ -0,0 +1,85 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * What a commit to the SCM took, for one commit of the POMs of one or more projects.
+ */
+public class CommitMeasurement
+{
+    private final int projectCount;
+
+    private final int fileCount;
+
+    private final long startTime;
+
+    private final long wallTime;
+
+    /**
+     * @param projectCount the number of projects whose POMs were committed
+     * @param fileCount    the number of files committed
+     * @param startTime    when the commit started, in milliseconds since the epoch
+     * @param wallTime     the elapsed time, in milliseconds
+     */
+    public CommitMeasurement( int projectCount, int fileCount, long startTime, long wallTime )
+    {
+        this.projectCount = projectCount;
+        this.fileCount = fileCount;
+        this.startTime = startTime;
+        this.wallTime = wallTime;
+    }
+
+    /**
+     * @return the number of projects whose POMs were committed
+     */
+    public int getProjectCount()
+    {
+        return projectCount;
+    }
+
+    /**
+     * @return the number of files committed
+     */
+    public int getFileCount()
+    {
+        return fileCount;
+    }
+
+    /**
+     * @return when the commit started, in milliseconds since the epoch
+     */
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    /**
+     * @return the elapsed time, in milliseconds
+     */
+    public long getWallTime()
+    {
+        return wallTime;
+    }
+
+    public String toString()
+    {
+        return fileCount + " file(s) of " + projectCount + " project(s): " + wallTime + " ms";
+    }
+}
@@ -25,6 +25,10 @@ import org.apache.maven.shared.release.config.ReleaseDescriptorStore;
 import org.apache.maven.shared.release.config.ReleaseDescriptorStoreException;
 import org.apache.maven.shared.release.phase.ReleasePhase;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.util.CoordinateCache;
+import org.apache.maven.shared.release.util.ParallelTaskRunner;
+import org.apache.maven.shared.release.util.PomCache;
+import org.apache.maven.shared.release.util.ThreadUsage;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.util.StringUtils;
 
@@ -34,6 +38,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of the release manager.
@@ -79,6 +84,16 @@ public class DefaultReleaseManager
      */
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * The parsed POMs shared by the phases of a run.
+     */
+    private PomCache pomCache;
+
+    /**
+     * The artifact coordinates shared by the phases of a run.
+     */
+    private CoordinateCache coordinateCache;
+
     private static final int PHASE_SKIP = 0, PHASE_START = 1, PHASE_END = 2, GOAL_START = 11, GOAL_END = 12, ERROR = 99;
 
     public void prepare( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
@@ -169,54 +184,287 @@ public class DefaultReleaseManager
         }
 
         // start from next phase
-        for ( int i = index + 1; i < preparePhases.size(); i++ )
+        clearCaches();
+        try
         {
-            String name = (String) preparePhases.get( i );
+            runPreparePhases( config, settings, reactorProjects, index + 1, dryRun, listener, result );
+        }
+        finally
+        {
+            clearCaches();
+        }
 
-            ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
+        updateListener( listener, "prepare", GOAL_END );
+    }
 
-            if ( phase == null )
-            {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+    private void runPreparePhases( ReleaseDescriptor config, Settings settings, List reactorProjects, int start,
+                                   boolean dryRun, ReleaseManagerListener listener, ReleaseResult result )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        if ( config.getWorkerThreads() > 1 )
+        {
+            runPreparePhasesInParallel( config, settings, reactorProjects, start, dryRun, listener, result );
+            return;
+        }
+
+        for ( int i = start; i < preparePhases.size(); i++ )
+        {
+            String name = (String) preparePhases.get( i );
+
+            ReleasePhase phase = getPhase( name );
 
             updateListener( listener, name, PHASE_START );
 
+            PhaseTimer timer = new PhaseTimer( name );
             ReleaseResult phaseResult = null;
             try
             {
-                if ( dryRun )
+                phaseResult = runPhase( phase, config, settings, reactorProjects, dryRun );
+            }
+            finally
+            {
+                addPhaseResult( result, phaseResult );
+                recordMeasurement( result, listener, timer.stop() );
+            }
+
+            storeCompletedPhase( config, name );
+
+            updateListener( listener, name, PHASE_END );
+        }
+    }
+
+    /**
+     * Run the prepare phases, running those that don't depend on each other at the same time. The phases are run in
+     * steps, with each phase run in the step after the last of the phases it depends on. As the completed phase is
+     * stored as a position in the list, it is only moved past a phase once every phase up to it has completed, so
+     * when resuming, a phase that completed alongside a phase that failed is run again.
+     */
+    private void runPreparePhasesInParallel( final ReleaseDescriptor config, final Settings settings,
+                                             final List reactorProjects, int start, final boolean dryRun,
+                                             ReleaseManagerListener listener, ReleaseResult result )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        List names = preparePhases.subList( start, preparePhases.size() );
+
+        final ReleasePhase[] phases = new ReleasePhase[names.size()];
+        for ( int i = 0; i < phases.length; i++ )
+        {
+            phases[i] = getPhase( (String) names.get( i ) );
+        }
+
+        int[] steps = getPhaseSteps( phases );
+        int lastStep = -1;
+        for ( int i = 0; i < steps.length; i++ )
+        {
+            lastStep = Math.max( lastStep, steps[i] );
+        }
+
+        final ReleaseResult[] phaseResults = new ReleaseResult[phases.length];
+        final PhaseMeasurement[] measurements = new PhaseMeasurement[phases.length];
+        boolean[] completed = new boolean[phases.length];
+        int completedCount = 0;
+
+        ParallelTaskRunner runner = new ParallelTaskRunner( config.getWorkerThreads() );
+        for ( int step = 0; step <= lastStep; step++ )
+        {
+            List indices = new ArrayList();
+            List tasks = new ArrayList();
+            for ( int i = 0; i < phases.length; i++ )
+            {
+                if ( steps[i] == step )
+                {
+                    updateListener( listener, (String) names.get( i ), PHASE_START );
+
+                    final int index = i;
+                    final String name = (String) names.get( i );
+                    indices.add( new Integer( i ) );
+                    tasks.add( new ParallelTaskRunner.Task()
+                    {
+                        public void run()
+                            throws Exception
+                        {
+                            PhaseTimer timer = new PhaseTimer( name );
+                            try
+                            {
+                                phaseResults[index] =
+                                    runPhase( phases[index], config, settings, reactorProjects, dryRun );
+                            }
+                            finally
+                            {
+                                measurements[index] = timer.stop();
+                            }
+                        }
+                    } );
+                }
+            }
+
+            Throwable[] failures = runner.execute( tasks );
+
+            Throwable failure = null;
+            for ( int i = 0; i < failures.length; i++ )
+            {
+                int index = ( (Integer) indices.get( i ) ).intValue();
+
+                addPhaseResult( result, phaseResults[index] );
+                recordMeasurement( result, listener, measurements[index] );
+
+                if ( failures[i] == null )
                 {
-                    phaseResult = phase.simulate( config, settings, reactorProjects );
+                    completed[index] = true;
+                    updateListener( listener, (String) names.get( index ), PHASE_END );
                 }
-                else
+                else if ( failure == null )
                 {
-                    phaseResult = phase.execute( config, settings, reactorProjects );
+                    failure = failures[i];
                 }
             }
-            finally
+
+            int count = completedCount;
+            while ( count < completed.length && completed[count] )
+            {
+                count++;
+            }
+            if ( count > completedCount )
+            {
+                completedCount = count;
+                storeCompletedPhase( config, (String) names.get( completedCount - 1 ) );
+            }
+
+            if ( failure != null )
             {
-                if ( result != null && phaseResult != null )
+                ParallelTaskRunner.rethrow( failure );
+            }
+        }
+    }
+
+    /**
+     * Work out the step in which each phase can be run. A phase depends on each phase before it in the list that
+     * writes state it reads or writes, or reads state it writes, and phases that don't declare their state depend on
+     * all the phases before them and are depended on by all the phases after them.
+     *
+     * @param phases the phases, in the order they are listed in
+     * @return the step of each phase, starting from 0, where a phase's step is one after the last of the steps of
+     *         the phases it depends on
+     */
+    static int[] getPhaseSteps( ReleasePhase[] phases )
+    {
+        int[] steps = new int[phases.length];
+        for ( int i = 0; i < phases.length; i++ )
+        {
+            for ( int j = 0; j < i; j++ )
+            {
+                if ( steps[j] >= steps[i] && dependsOn( phases[i], phases[j] ) )
                 {
-                    result.getOutputBuffer().append( phaseResult.getOutput() );
+                    steps[i] = steps[j] + 1;
                 }
             }
+        }
+        return steps;
+    }
 
-            config.setCompletedPhase( name );
-            try
+    private static boolean dependsOn( ReleasePhase phase, ReleasePhase earlierPhase )
+    {
+        Set inputs = phase.getInputs();
+        Set outputs = phase.getOutputs();
+        Set earlierInputs = earlierPhase.getInputs();
+        Set earlierOutputs = earlierPhase.getOutputs();
+        if ( inputs == null || outputs == null || earlierInputs == null || earlierOutputs == null )
+        {
+            return true;
+        }
+
+        return intersects( inputs, earlierOutputs ) || intersects( outputs, earlierOutputs ) ||
+            intersects( outputs, earlierInputs );
+    }
+
+    private static boolean intersects( Set a, Set b )
+    {
+        for ( Iterator i = a.iterator(); i.hasNext(); )
+        {
+            if ( b.contains( i.next() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ReleasePhase getPhase( String name )
+        throws ReleaseExecutionException
+    {
+        ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
+
+        if ( phase == null )
+        {
+            throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+        }
+        return phase;
+    }
+
+    private static ReleaseResult runPhase( ReleasePhase phase, ReleaseDescriptor config, Settings settings,
+                                           List reactorProjects, boolean dryRun )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        if ( dryRun )
+        {
+            return phase.simulate( config, settings, reactorProjects );
+        }
+        else
+        {
+            return phase.execute( config, settings, reactorProjects );
+        }
+    }
+
+    private static void addPhaseResult( ReleaseResult result, ReleaseResult phaseResult )
+    {
+        if ( result != null && phaseResult != null )
+        {
+            result.getOutputBuffer().append( phaseResult.getOutput() );
+            for ( Iterator i = phaseResult.getCapturedOutputs().iterator(); i.hasNext(); )
             {
-                configStore.write( config );
+                result.addCapturedOutput( (CapturedOutput) i.next() );
             }
-            catch ( ReleaseDescriptorStoreException e )
+            for ( Iterator i = phaseResult.getCommitMeasurements().iterator(); i.hasNext(); )
             {
-                // TODO: rollback?
-                throw new ReleaseExecutionException( "Error writing release properties after completing phase", e );
+                result.addCommitMeasurement( (CommitMeasurement) i.next() );
             }
+            result.setChangedPomCount( result.getChangedPomCount() + phaseResult.getChangedPomCount() );
+            result.setUnchangedPomCount( result.getUnchangedPomCount() + phaseResult.getUnchangedPomCount() );
+        }
+    }
 
-            updateListener( listener, name, PHASE_END );
+    /**
+     * Record the measurement of a phase in the result, and report it to the listener.
+     */
+    private void recordMeasurement( ReleaseResult result, ReleaseManagerListener listener,
+                                    PhaseMeasurement measurement )
+    {
+        getLogger().debug( "Phase '" + measurement.getPhase() + "' took " + measurement.getWallTime() + " ms" );
+
+        if ( result != null )
+        {
+            result.addPhaseMeasurement( measurement );
         }
 
-        updateListener( listener, "prepare", GOAL_END );
+        if ( listener != null )
+        {
+            listener.phaseMeasured( measurement );
+        }
+    }
+
+    private void storeCompletedPhase( ReleaseDescriptor config, String name )
+        throws ReleaseExecutionException
+    {
+        config.setCompletedPhase( name );
+        try
+        {
+            configStore.write( config );
+        }
+        catch ( ReleaseDescriptorStoreException e )
+        {
+            // TODO: rollback?
+            throw new ReleaseExecutionException( "Error writing release properties after completing phase", e );
+        }
     }
 
     public void rollback( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
@@ -233,20 +481,36 @@ public class DefaultReleaseManager
 
         releaseDescriptor = loadReleaseDescriptor( releaseDescriptor, null );
 
-        for ( Iterator phases = rollbackPhases.iterator(); phases.hasNext(); )
+        clearCaches();
+        try
         {
-            String name = (String) phases.next();
+            for ( Iterator phases = rollbackPhases.iterator(); phases.hasNext(); )
+            {
+                String name = (String) phases.next();
 
-            ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
+                ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
 
-            if ( phase == null )
-            {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+                if ( phase == null )
+                {
+                    throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+                }
 
-            updateListener( listener, name, PHASE_START );
-            phase.execute( releaseDescriptor, settings, reactorProjects );
-            updateListener( listener, name, PHASE_END );
+                updateListener( listener, name, PHASE_START );
+                PhaseTimer timer = new PhaseTimer( name );
+                try
+                {
+                    phase.execute( releaseDescriptor, settings, reactorProjects );
+                }
+                finally
+                {
+                    recordMeasurement( null, listener, timer.stop() );
+                }
+                updateListener( listener, name, PHASE_END );
+            }
+        }
+        finally
+        {
+            clearCaches();
         }
 
         //call release:clean so that resume will not be possible anymore after a rollback
@@ -304,20 +568,36 @@ public class DefaultReleaseManager
 
         releaseDescriptor = loadReleaseDescriptor( releaseDescriptor, listener );
 
-        for ( Iterator phases = performPhases.iterator(); phases.hasNext(); )
+        clearCaches();
+        try
         {
-            String name = (String) phases.next();
+            for ( Iterator phases = performPhases.iterator(); phases.hasNext(); )
+            {
+                String name = (String) phases.next();
 
-            ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
+                ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
 
-            if ( phase == null )
-            {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+                if ( phase == null )
+                {
+                    throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+                }
 
-            updateListener( listener, name, PHASE_START );
-            phase.execute( releaseDescriptor, settings, reactorProjects );
-            updateListener( listener, name, PHASE_END );
+                updateListener( listener, name, PHASE_START );
+                PhaseTimer timer = new PhaseTimer( name );
+                try
+                {
+                    phase.execute( releaseDescriptor, settings, reactorProjects );
+                }
+                finally
+                {
+                    recordMeasurement( result, listener, timer.stop() );
+                }
+                updateListener( listener, name, PHASE_END );
+            }
+        }
+        finally
+        {
+            clearCaches();
         }
 
         //call release:clean so that resume will not be possible anymore after a perform
@@ -340,27 +620,36 @@ public class DefaultReleaseManager
 
         releaseDescriptor = loadReleaseDescriptor( releaseDescriptor, listener );
 
-        for ( Iterator phases = branchPhases.iterator(); phases.hasNext(); )
+        clearCaches();
+        try
         {
-            String name = (String) phases.next();
+            for ( Iterator phases = branchPhases.iterator(); phases.hasNext(); )
+            {
+                String name = (String) phases.next();
 
-            ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
+                ReleasePhase phase = (ReleasePhase) releasePhases.get( name );
 
-            if ( phase == null )
-            {
-                throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
-            }
+                if ( phase == null )
+                {
+                    throw new ReleaseExecutionException( "Unable to find phase '" + name + "' to execute" );
+                }
 
-            updateListener( listener, name, PHASE_START );
-            if ( dryRun )
-            {
-                phase.simulate( releaseDescriptor, settings, reactorProjects );
-            }
-            else
-            {
-                phase.execute( releaseDescriptor, settings, reactorProjects );
+                updateListener( listener, name, PHASE_START );
+                PhaseTimer timer = new PhaseTimer( name );
+                try
+                {
+                    runPhase( phase, releaseDescriptor, settings, reactorProjects, dryRun );
+                }
+                finally
+                {
+                    recordMeasurement( null, listener, timer.stop() );
+                }
+                updateListener( listener, name, PHASE_END );
             }
-            updateListener( listener, name, PHASE_END );
+        }
+        finally
+        {
+            clearCaches();
         }
 
         //call release:clean so that resume will not be possible anymore after a perform
@@ -486,6 +775,26 @@ public class DefaultReleaseManager
         return Collections.unmodifiableList( phases );
     }
 
+    /**
+     * Forget the POMs parsed, the coordinates looked up and the SCM repositories configured by the phases, so that
+     * nothing is carried over from one run to the next.
+     */
+    private void clearCaches()
+    {
+        if ( pomCache != null )
+        {
+            pomCache.clear();
+        }
+        if ( coordinateCache != null )
+        {
+            coordinateCache.clear();
+        }
+        if ( scmRepositoryConfigurator != null )
+        {
+            scmRepositoryConfigurator.clear();
+        }
+    }
+
     private void logInfo( ReleaseResult result, String message )
     {
         if ( result != null )
@@ -504,4 +813,40 @@ public class DefaultReleaseManager
 
         result.setResultCode( ReleaseResult.ERROR );
     }
+
+    /**
+     * Measures a phase. It must be started and stopped on the thread that runs the phase.
+     */
+    private static class PhaseTimer
+    {
+        private final String name;
+
+        private final long startTime;
+
+        private final long startCpuTime;
+
+        private final long startAllocatedBytes;
+
+        private PhaseTimer( String name )
+        {
+            this.name = name;
+
+            startTime = System.currentTimeMillis();
+            startCpuTime = ThreadUsage.getCpuTime();
+            startAllocatedBytes = ThreadUsage.getAllocatedBytes();
+        }
+
+        private PhaseMeasurement stop()
+        {
+            long endCpuTime = ThreadUsage.getCpuTime();
+            long endAllocatedBytes = ThreadUsage.getAllocatedBytes();
+
+            long cpuTime = startCpuTime >= 0 && endCpuTime >= 0 ? endCpuTime - startCpuTime : -1;
+            long allocatedBytes =
+                startAllocatedBytes >= 0 && endAllocatedBytes >= 0 ? endAllocatedBytes - startAllocatedBytes : -1;
+
+            return new PhaseMeasurement( name, startTime, System.currentTimeMillis() - startTime, cpuTime,
+                                         allocatedBytes );
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package org.apache.maven.shared.release;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * What a release phase took to run.
+ */
+public class PhaseMeasurement
+{
+    private final String phase;
+
+    private final long startTime;
+
+    private final long wallTime;
+
+    private final long cpuTime;
+
+    private final long allocatedBytes;
+
+    /**
+     * @param phase          the name of the phase
+     * @param startTime      when the phase started, in milliseconds since the epoch
+     * @param wallTime       the elapsed time, in milliseconds
+     * @param cpuTime        the CPU time used by the thread that ran the phase, in nanoseconds, or -1 if unknown
+     * @param allocatedBytes the memory allocated by the thread that ran the phase, in bytes, or -1 if unknown
+     */
+    public PhaseMeasurement( String phase, long startTime, long wallTime, long cpuTime, long allocatedBytes )
+    {
+        this.phase = phase;
+        this.startTime = startTime;
+        this.wallTime = wallTime;
+        this.cpuTime = cpuTime;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return the name of the phase
+     */
+    public String getPhase()
+    {
+        return phase;
+    }
+
+    /**
+     * @return when the phase started, in milliseconds since the epoch
+     */
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    /**
+     * @return the elapsed time, in milliseconds
+     */
+    public long getWallTime()
+    {
+        return wallTime;
+    }
+
+    /**
+     * Get the CPU time used by the phase. Work the phase hands off to worker threads or forked processes is not
+     * included.
+     *
+     * @return the CPU time used by the thread that ran the phase, in nanoseconds, or -1 if the JVM can't measure it
+     */
+    public long getCpuTime()
+    {
+        return cpuTime;
+    }
+
+    /**
+     * Get the memory allocated by the phase. Like the CPU time, this only covers the thread that ran the phase.
+     *
+     * @return the memory allocated by the thread that ran the phase, in bytes, or -1 if the JVM can't measure it
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    public String toString()
+    {
+        return phase + ": " + wallTime + " ms";
+    }
+}
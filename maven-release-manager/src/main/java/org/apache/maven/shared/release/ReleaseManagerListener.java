@@ -32,6 +32,13 @@ public interface ReleaseManagerListener
 
     void phaseEnd();
 
+    /**
+     * Report what a phase took to run, once it has finished, whether it succeeded or not.
+     *
+     * @param measurement the measurement of the phase
+     */
+    void phaseMeasured( PhaseMeasurement measurement );
+
     void phaseSkip( String name );
 
     void goalEnd();
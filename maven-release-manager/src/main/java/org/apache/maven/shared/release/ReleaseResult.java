@@ -21,6 +21,9 @@ package org.apache.maven.shared.release;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Edwin Punzalan
@@ -37,6 +40,16 @@ public class ReleaseResult
 
     private long endTime;
 
+    private int changedPomCount;
+
+    private int unchangedPomCount;
+
+    private final List phaseMeasurements = new ArrayList();
+
+    private final List capturedOutputs = new ArrayList();
+
+    private final List commitMeasurements = new ArrayList();
+
     private final String LS = System.getProperty( "line.separator" );
 
     public void appendInfo( String message )
@@ -120,6 +133,72 @@ public class ReleaseResult
         this.endTime = endTime;
     }
 
+    /**
+     * @return the number of POMs that were rewritten
+     */
+    public int getChangedPomCount()
+    {
+        return changedPomCount;
+    }
+
+    public void setChangedPomCount( int changedPomCount )
+    {
+        this.changedPomCount = changedPomCount;
+    }
+
+    /**
+     * @return the number of POMs that were left alone because rewriting them didn't change anything
+     */
+    public int getUnchangedPomCount()
+    {
+        return unchangedPomCount;
+    }
+
+    public void setUnchangedPomCount( int unchangedPomCount )
+    {
+        this.unchangedPomCount = unchangedPomCount;
+    }
+
+    /**
+     * @return the measurements of the phases that were run, in the order they finished
+     */
+    public List getPhaseMeasurements()
+    {
+        return Collections.unmodifiableList( phaseMeasurements );
+    }
+
+    public void addPhaseMeasurement( PhaseMeasurement measurement )
+    {
+        phaseMeasurements.add( measurement );
+    }
+
+    /**
+     * @return the output captured from the builds that were run, in the order they were run. Only the end of each
+     *         is included in {@link #getOutput()}
+     */
+    public List getCapturedOutputs()
+    {
+        return Collections.unmodifiableList( capturedOutputs );
+    }
+
+    public void addCapturedOutput( CapturedOutput capturedOutput )
+    {
+        capturedOutputs.add( capturedOutput );
+    }
+
+    /**
+     * @return the measurements of the commits of POMs that were done, in the order they were done
+     */
+    public List getCommitMeasurements()
+    {
+        return Collections.unmodifiableList( commitMeasurements );
+    }
+
+    public void addCommitMeasurement( CommitMeasurement measurement )
+    {
+        commitMeasurements.add( measurement );
+    }
+
     private String getStackTrace( Exception e )
     {
         ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
@@ -98,10 +98,16 @@ public class PropertiesReleaseDescriptorStore
         releaseDescriptor.setAdditionalArguments( properties.getProperty( "exec.additionalArguments" ) );
         releaseDescriptor.setPomFileName( properties.getProperty( "exec.pomFileName" ) );
         releaseDescriptor.setPreparationGoals( properties.getProperty( "preparationGoals" ) );
+        releaseDescriptor.setBuildThreads( properties.getProperty( "exec.threads" ) );
+        releaseDescriptor.setParallelBuild( toBoolean( properties.getProperty( "exec.parallel" ) ) );
+        releaseDescriptor.setOfflineBuild( toBoolean( properties.getProperty( "exec.offline" ) ) );
+        releaseDescriptor.setReuseBuildOutputs(
+            Boolean.valueOf( properties.getProperty( "exec.reuseBuildOutputs" ) ).booleanValue() );
+        releaseDescriptor.setTagScmRoots( Boolean.valueOf( properties.getProperty( "scm.tagRoots" ) ).booleanValue() );
 
         loadResolvedDependencies( properties, releaseDescriptor );
 
-        // boolean properties are not written to the properties file because the value from the caller is always used
+        // other boolean properties are not written to the properties file as the value from the caller is always used
 
         for ( Iterator i = properties.keySet().iterator(); i.hasNext(); )
         {
@@ -111,6 +117,11 @@ public class PropertiesReleaseDescriptorStore
                 releaseDescriptor.mapReleaseVersion( property.substring( "project.rel.".length() ),
                                                      properties.getProperty( property ) );
             }
+            else if ( property.startsWith( "scm.createdTag." ) )
+            {
+                releaseDescriptor.getCreatedScmTags().put( property.substring( "scm.createdTag.".length() ),
+                                                           properties.getProperty( property ) );
+            }
             else if ( property.startsWith( "project.dev." ) )
             {
                 releaseDescriptor.mapDevelopmentVersion( property.substring( "project.dev.".length() ),
@@ -214,8 +225,28 @@ public class PropertiesReleaseDescriptorStore
         {
             properties.setProperty( "preparationGoals", config.getPreparationGoals() );
         }
+        if ( config.getBuildThreads() != null )
+        {
+            properties.setProperty( "exec.threads", config.getBuildThreads() );
+        }
+        if ( config.getParallelBuild() != null )
+        {
+            properties.setProperty( "exec.parallel", config.getParallelBuild().toString() );
+        }
+        if ( config.getOfflineBuild() != null )
+        {
+            properties.setProperty( "exec.offline", config.getOfflineBuild().toString() );
+        }
+        if ( config.isReuseBuildOutputs() )
+        {
+            properties.setProperty( "exec.reuseBuildOutputs", "true" );
+        }
+        if ( config.isTagScmRoots() )
+        {
+            properties.setProperty( "scm.tagRoots", "true" );
+        }
 
-        // boolean properties are not written to the properties file because the value from the caller is always used
+        // other boolean properties are not written to the properties file as the value from the caller is always used
 
         for ( Iterator i = config.getReleaseVersions().entrySet().iterator(); i.hasNext(); )
         {
@@ -229,6 +260,12 @@ public class PropertiesReleaseDescriptorStore
             properties.setProperty( "project.dev." + entry.getKey(), (String) entry.getValue() );
         }
 
+        for ( Iterator i = config.getCreatedScmTags().entrySet().iterator(); i.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) i.next();
+            properties.setProperty( "scm.createdTag." + entry.getKey(), (String) entry.getValue() );
+        }
+
         for ( Iterator i = config.getOriginalScmInfo().entrySet().iterator(); i.hasNext(); )
         {
             Map.Entry entry = (Map.Entry) i.next();
@@ -309,6 +346,14 @@ public class PropertiesReleaseDescriptorStore
         return new File( mergeDescriptor.getWorkingDirectory(), "release.properties" );
     }
 
+    /**
+     * @return the boolean in a property, or <code>null</code> if it isn't set
+     */
+    private static Boolean toBoolean( String value )
+    {
+        return value != null ? Boolean.valueOf( value ) : null;
+    }
+
     private void loadResolvedDependencies( Properties prop, ReleaseDescriptor descriptor )
     {
         Map resolvedDependencies = new HashMap();
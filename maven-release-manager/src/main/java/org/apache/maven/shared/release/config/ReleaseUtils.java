@@ -62,19 +62,39 @@ public class ReleaseUtils
             mergeOverride( mergeInto.getPreparationGoals(), toBeMerged.getPreparationGoals() ) );
         mergeInto.setPerformGoals( mergeOverride( mergeInto.getPerformGoals(), toBeMerged.getPerformGoals() ) );
         mergeInto.setPomFileName( mergeOverride( mergeInto.getPomFileName(), toBeMerged.getPomFileName() ) );
+        mergeInto.setPomEditor( mergeOverride( mergeInto.getPomEditor(), toBeMerged.getPomEditor() ) );
+        mergeInto.setMavenExecutorId(
+            mergeOverride( mergeInto.getMavenExecutorId(), toBeMerged.getMavenExecutorId() ) );
+        mergeInto.setCheckoutStrategy(
+            mergeOverride( mergeInto.getCheckoutStrategy(), toBeMerged.getCheckoutStrategy() ) );
+        mergeInto.setCheckoutPaths( mergeOverride( mergeInto.getCheckoutPaths(), toBeMerged.getCheckoutPaths() ) );
+        mergeInto.setCheckoutReference(
+            mergeOverride( mergeInto.getCheckoutReference(), toBeMerged.getCheckoutReference() ) );
         mergeInto.setScmUseEditMode( toBeMerged.isScmUseEditMode() );
         mergeInto.setAddSchema( toBeMerged.isAddSchema() );
         mergeInto.setGenerateReleasePoms( toBeMerged.isGenerateReleasePoms() );
         mergeInto.setInteractive( toBeMerged.isInteractive() );
         mergeInto.setUpdateDependencies( toBeMerged.isUpdateDependencies() );
         mergeInto.setCommitByProject( toBeMerged.isCommitByProject() );
+        mergeInto.setCommitBatchSize( toBeMerged.getCommitBatchSize() );
         mergeInto.setUseReleaseProfile( toBeMerged.isUseReleaseProfile() );
+        mergeInto.setIncrementalCheckout( toBeMerged.isIncrementalCheckout() );
         mergeInto.setBranchCreation( toBeMerged.isBranchCreation() );
         mergeInto.setUpdateBranchVersions( toBeMerged.isUpdateBranchVersions() );
         mergeInto.setUpdateWorkingCopyVersions( toBeMerged.isUpdateWorkingCopyVersions() );
         mergeInto.setUpdateVersionsToSnapshot( toBeMerged.isUpdateVersionsToSnapshot() );
         mergeInto.setAllowTimestampedSnapshots( toBeMerged.isAllowTimestampedSnapshots() );
         mergeInto.setAutoVersionSubmodules( toBeMerged.isAutoVersionSubmodules() );
+        mergeInto.setWorkerThreads( toBeMerged.getWorkerThreads() );
+        mergeInto.setFilteredStatus( toBeMerged.isFilteredStatus() );
+
+        // Stored, so that a resumed release builds the same way even if the caller doesn't ask for it again
+        mergeInto.setBuildThreads( mergeOverride( mergeInto.getBuildThreads(), toBeMerged.getBuildThreads() ) );
+        mergeInto.setParallelBuild( mergeOverride( mergeInto.getParallelBuild(), toBeMerged.getParallelBuild() ) );
+        mergeInto.setOfflineBuild( mergeOverride( mergeInto.getOfflineBuild(), toBeMerged.getOfflineBuild() ) );
+        mergeInto.setReuseBuildOutputs( mergeInto.isReuseBuildOutputs() || toBeMerged.isReuseBuildOutputs() );
+        // and tags the same SCM roots
+        mergeInto.setTagScmRoots( mergeInto.isTagScmRoots() || toBeMerged.isTagScmRoots() );
 
         // These must be overridden, as they are not stored
         mergeInto.setWorkingDirectory(
@@ -93,6 +113,11 @@ public class ReleaseUtils
         return mergeValue != null ? mergeValue : thisValue;
     }
 
+    private static Boolean mergeOverride( Boolean thisValue, Boolean mergeValue )
+    {
+        return mergeValue != null ? mergeValue : thisValue;
+    }
+
     private static String mergeDefault( String thisValue, String mergeValue )
     {
         return thisValue != null ? thisValue : mergeValue;
@@ -0,0 +1,246 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.ReleaseResult;
+import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Base class for the ways of executing Maven, which capture the output of the builds in the same way.
+ */
+public abstract class AbstractMavenExecutor
+    extends AbstractLogEnabled
+    implements MavenExecutor
+{
+    /**
+     * The default for how much of the end of the output of a build is kept in memory, in bytes.
+     */
+    public static final int DEFAULT_OUTPUT_TAIL_SIZE = 256 * 1024;
+
+    /**
+     * How much of the end of the output of each build to keep in memory, in bytes.
+     *
+     * @plexus.configuration default-value="262144"
+     */
+    private int outputTailSize = DEFAULT_OUTPUT_TAIL_SIZE;
+
+    /**
+     * The default for the directory the full output of each build is written to.
+     */
+    public static final String DEFAULT_OUTPUT_DIRECTORY = "target/release-output";
+
+    /**
+     * Whether to write the full output of each build to a file in the output directory.
+     *
+     * @plexus.configuration default-value="true"
+     */
+    private boolean spillOutput = true;
+
+    /**
+     * The directory to write the full output of each build to, relative to the directory the build is run in if it
+     * isn't absolute. The output is only moved there once the build has finished, so the build can clean its own
+     * <code>target</code> directory, but a later <code>mvn clean</code> of the working copy removes the default
+     * directory along with the rest of <code>target</code>.
+     *
+     * @plexus.configuration default-value="target/release-output"
+     */
+    private String outputDirectory = DEFAULT_OUTPUT_DIRECTORY;
+
+    /**
+     * The encoding the builds write their output in, for decoding the end of it into the release result. The
+     * platform encoding is used if it isn't set, which is what the builds write in unless their JVM is started with
+     * a different <code>file.encoding</code>.
+     *
+     * @plexus.configuration
+     */
+    private String outputEncoding;
+
+    public void executeGoals( File workingDirectory, String goals, boolean interactive, String arguments,
+                              ReleaseResult result )
+        throws MavenExecutorException
+    {
+        executeGoals( workingDirectory, goals, interactive, arguments, null, result );
+    }
+
+    public void setOutputTailSize( int outputTailSize )
+    {
+        this.outputTailSize = outputTailSize;
+    }
+
+    public void setSpillOutput( boolean spillOutput )
+    {
+        this.spillOutput = spillOutput;
+    }
+
+    public void setOutputDirectory( String outputDirectory )
+    {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public void setOutputEncoding( String outputEncoding )
+    {
+        this.outputEncoding = outputEncoding;
+    }
+
+    /**
+     * Split the goals to run, accepting both spaces and commas between them.
+     */
+    protected static String[] splitGoals( String goals )
+    {
+        return goals != null ? StringUtils.split( goals, ", " ) : new String[0];
+    }
+
+    /**
+     * Create the command line arguments for running Maven in a JVM that wasn't started in the working directory, which
+     * is pointed at the POM there instead.
+     */
+    protected static String[] createLaunchArguments( File workingDirectory, String goals, boolean interactive,
+                                                     String additionalArguments, String pomFileName )
+        throws MavenExecutorException
+    {
+        List arguments = new ArrayList();
+
+        arguments.add( "-f" );
+        arguments.add( new File( workingDirectory, pomFileName != null ? pomFileName : "pom.xml" ).getAbsolutePath() );
+
+        arguments.addAll( Arrays.asList( splitGoals( goals ) ) );
+
+        arguments.add( "--no-plugin-updates" );
+
+        if ( !interactive )
+        {
+            arguments.add( "--batch-mode" );
+        }
+
+        if ( !StringUtils.isEmpty( additionalArguments ) )
+        {
+            try
+            {
+                arguments.addAll( Arrays.asList( Commandline.translateCommandline( additionalArguments ) ) );
+            }
+            catch ( Exception e )
+            {
+                throw new MavenExecutorException( "Can't parse the arguments " + additionalArguments, e );
+            }
+        }
+
+        return (String[]) arguments.toArray( new String[arguments.size()] );
+    }
+
+    /**
+     * Create the capture for the standard output of a build, which is also written to a file if configured to.
+     */
+    protected BoundedOutputCapture createOutputCapture( File workingDirectory, String goals )
+    {
+        BoundedOutputCapture outputCapture =
+            new BoundedOutputCapture( "mvn " + goals, outputTailSize, outputEncoding );
+        if ( spillOutput )
+        {
+            File logFile = getLogFile( workingDirectory, goals );
+            try
+            {
+                outputCapture.spillTo( logFile );
+            }
+            catch ( IOException e )
+            {
+                getLogger().warn( "Unable to write the output to " + logFile + ": " + e.getMessage() );
+            }
+        }
+        return outputCapture;
+    }
+
+    /**
+     * Create the capture for the error output of a build, which is only kept in memory.
+     */
+    protected BoundedOutputCapture createErrorCapture( String goals )
+    {
+        return new BoundedOutputCapture( "mvn " + goals + " (errors)", outputTailSize, outputEncoding );
+    }
+
+    /**
+     * Finish capturing the standard and error output of a build, and add them to the result.
+     */
+    protected void recordOutput( BoundedOutputCapture outputCapture, BoundedOutputCapture errorCapture,
+                                 ReleaseResult relResult )
+    {
+        recordOutput( outputCapture, "output", relResult );
+
+        // most builds write nothing to it
+        if ( errorCapture.getSize() > 0 )
+        {
+            recordOutput( errorCapture, "error output", relResult );
+        }
+    }
+
+    private void recordOutput( BoundedOutputCapture capture, String description, ReleaseResult relResult )
+    {
+        try
+        {
+            capture.close();
+        }
+        catch ( IOException e )
+        {
+            getLogger().warn( "Unable to write the " + description + " to " + capture.getFile() + ": " +
+                e.getMessage() );
+        }
+
+        relResult.appendOutput( capture.getTail() );
+        relResult.addCapturedOutput( capture );
+
+        if ( !capture.isComplete() )
+        {
+            relResult.appendWarn( "Only the last " + outputTailSize + " bytes of the " + description +
+                " were kept" );
+        }
+        else if ( capture.getFile() != null )
+        {
+            relResult.appendInfo( "The full " + description + " was written to " + capture.getFile() );
+        }
+    }
+
+    /**
+     * Find a file to write the output of a build to that doesn't overwrite the output of the builds before it.
+     */
+    private File getLogFile( File workingDirectory, String goals )
+    {
+        StringBuffer name = new StringBuffer( "mvn" );
+        String[] tokens = splitGoals( goals );
+        for ( int i = 0; i < tokens.length; i++ )
+        {
+            name.append( '-' ).append( tokens[i].replaceAll( "[^A-Za-z0-9._-]", "_" ) );
+        }
+        name.append( '-' ).append( System.currentTimeMillis() ).append( ".log" );
+
+        File directory = new File( outputDirectory );
+        if ( !directory.isAbsolute() )
+        {
+            directory = new File( workingDirectory, outputDirectory );
+        }
+        return new File( directory, name.toString() );
+    }
+}
@@ -0,0 +1,294 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.CapturedOutput;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Captures output, keeping only a bounded tail of it in memory. The full output can also be spilled to a file. The
+ * file is written in the temporary directory while the output is captured, so that a build cleaning its own target
+ * directory doesn't remove it, and is moved to where it was asked for once the capture is closed.
+ */
+public class BoundedOutputCapture
+    extends OutputStream
+    implements CapturedOutput
+{
+    private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+
+    private final String encoding;
+
+    private final byte[] tail;
+
+    // where the next byte goes in the tail, which wraps around once it is full
+    private int tailEnd;
+
+    private long size;
+
+    private File file;
+
+    private File target;
+
+    private OutputStream spill;
+
+    /**
+     * @param name     a description of what produces the output
+     * @param tailSize how much of the end of the output to keep in memory, in bytes
+     */
+    public BoundedOutputCapture( String name, int tailSize )
+    {
+        this( name, tailSize, null );
+    }
+
+    /**
+     * @param name     a description of what produces the output
+     * @param tailSize how much of the end of the output to keep in memory, in bytes
+     * @param encoding the encoding the output is written in, or <code>null</code> for the platform encoding
+     */
+    public BoundedOutputCapture( String name, int tailSize, String encoding )
+    {
+        this.name = name;
+        this.tail = new byte[tailSize];
+        this.encoding = encoding;
+    }
+
+    /**
+     * Write the full output to a file, as well as keeping its end in memory.
+     *
+     * @param target the file to put the output in once the capture is closed
+     * @throws IOException if the file to spill the output to can't be created
+     */
+    public synchronized void spillTo( File target )
+        throws IOException
+    {
+        file = File.createTempFile( "release-output", ".log" );
+        spill = new BufferedOutputStream( new FileOutputStream( file ), SPILL_BUFFER_SIZE );
+        this.target = target;
+    }
+
+    public synchronized void write( int b )
+        throws IOException
+    {
+        if ( spill != null )
+        {
+            try
+            {
+                spill.write( b );
+            }
+            catch ( IOException e )
+            {
+                abandonSpill();
+            }
+        }
+
+        size++;
+        if ( tail.length > 0 )
+        {
+            tail[tailEnd] = (byte) b;
+            tailEnd = ( tailEnd + 1 ) % tail.length;
+        }
+    }
+
+    public synchronized void write( byte[] b, int off, int len )
+        throws IOException
+    {
+        if ( spill != null )
+        {
+            try
+            {
+                spill.write( b, off, len );
+            }
+            catch ( IOException e )
+            {
+                abandonSpill();
+            }
+        }
+
+        size += len;
+        if ( len >= tail.length )
+        {
+            System.arraycopy( b, off + len - tail.length, tail, 0, tail.length );
+            tailEnd = 0;
+        }
+        else
+        {
+            int first = Math.min( len, tail.length - tailEnd );
+            System.arraycopy( b, off, tail, tailEnd, first );
+            System.arraycopy( b, off + first, tail, 0, len - first );
+            tailEnd = ( tailEnd + len ) % tail.length;
+        }
+    }
+
+    public synchronized void flush()
+        throws IOException
+    {
+        if ( spill != null )
+        {
+            spill.flush();
+        }
+    }
+
+    /**
+     * Stop capturing, and move the file the output was spilled to into place. If it can't be moved, it is left where
+     * it is.
+     */
+    public synchronized void close()
+        throws IOException
+    {
+        if ( spill == null )
+        {
+            return;
+        }
+
+        try
+        {
+            spill.close();
+        }
+        catch ( IOException e )
+        {
+            abandonSpill();
+            return;
+        }
+        spill = null;
+
+        if ( target.getParentFile() != null )
+        {
+            target.getParentFile().mkdirs();
+        }
+        target.delete();
+        if ( !file.renameTo( target ) )
+        {
+            try
+            {
+                FileUtils.copyFile( file, target );
+            }
+            catch ( IOException e )
+            {
+                // leave the output where it is
+                return;
+            }
+            file.delete();
+        }
+        file = target;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getEncoding()
+    {
+        return encoding;
+    }
+
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    public synchronized File getFile()
+    {
+        return file;
+    }
+
+    public synchronized boolean isComplete()
+    {
+        return file != null || size <= tail.length;
+    }
+
+    public synchronized InputStream openStream()
+        throws IOException
+    {
+        if ( file != null )
+        {
+            flush();
+            return new FileInputStream( file );
+        }
+        return new ByteArrayInputStream( getTailBytes() );
+    }
+
+    public synchronized String getTail()
+    {
+        byte[] bytes = getTailBytes();
+        if ( encoding != null )
+        {
+            try
+            {
+                return new String( bytes, encoding );
+            }
+            catch ( UnsupportedEncodingException e )
+            {
+                // fall back to the platform encoding, as the build most likely used it too
+            }
+        }
+        return new String( bytes );
+    }
+
+    public String toString()
+    {
+        return getTail();
+    }
+
+    private byte[] getTailBytes()
+    {
+        if ( size <= tail.length )
+        {
+            byte[] bytes = new byte[(int) size];
+            System.arraycopy( tail, 0, bytes, 0, bytes.length );
+            return bytes;
+        }
+
+        byte[] bytes = new byte[tail.length];
+        System.arraycopy( tail, tailEnd, bytes, 0, tail.length - tailEnd );
+        System.arraycopy( tail, 0, bytes, tail.length - tailEnd, tailEnd );
+        return bytes;
+    }
+
+    /**
+     * Stop spilling after the file couldn't be written, rather than failing the build whose output is captured.
+     */
+    private void abandonSpill()
+    {
+        try
+        {
+            spill.close();
+        }
+        catch ( IOException e )
+        {
+            // already failed
+        }
+        spill = null;
+        file.delete();
+        file = null;
+    }
+}
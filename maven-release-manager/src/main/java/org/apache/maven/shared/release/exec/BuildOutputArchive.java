@@ -0,0 +1,68 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Keeps the outputs of the build run while preparing a release, so that performing the release can reuse them rather
+ * than build the same sources again. The outputs are only reused for a checkout of the same tag with exactly the same
+ * sources as the build they came from.
+ */
+public interface BuildOutputArchive
+{
+    /**
+     * The Plexus role.
+     */
+    String ROLE = BuildOutputArchive.class.getName();
+
+    /**
+     * Where the archive is kept, relative to the working directory of the release.
+     */
+    String DIRECTORY = "target/release-build-outputs";
+
+    /**
+     * Copy the build directories of a working copy into the archive, along with a hash of the sources they were built
+     * from. Anything already archived for the tag is replaced.
+     *
+     * @param sourceDirectory  the working copy the build was run in
+     * @param buildDirectories the build directories of the projects in the working copy, as files
+     * @param tag              the tag the working copy is released as
+     * @param archiveDirectory the directory to keep the archive in
+     * @throws IOException if the outputs can't be archived
+     */
+    void archive( File sourceDirectory, List buildDirectories, String tag, File archiveDirectory )
+        throws IOException;
+
+    /**
+     * Copy the archived build directories into a checkout of a tag, if its sources are the same as when they were
+     * archived. The restored files are made newer than the sources, so that they aren't built again.
+     *
+     * @param archiveDirectory the directory the archive is kept in
+     * @param tag              the tag that was checked out
+     * @param sourceDirectory  the checkout to restore the build directories into
+     * @return the reason the outputs weren't restored, or <code>null</code> if they were
+     * @throws IOException if the outputs can't be restored
+     */
+    String restore( File archiveDirectory, String tag, File sourceDirectory )
+        throws IOException;
+}
@@ -0,0 +1,453 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.ReleaseResult;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URL;
+import java.util.Properties;
+
+/**
+ * Run Maven in a daemon JVM that is kept running between executions, rather than forking a new one for every
+ * execution. The daemon is started on first use, and its port is written to a file so that later releases on the same
+ * machine use it as well. A new daemon is started when the one in the file can't be reached, or is busy. The daemon
+ * exits by itself once it has been idle for the configured timeout.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.exec.MavenExecutor" role-hint="daemon"
+ * @see MavenDaemon
+ */
+public class DaemonMavenExecutor
+    extends AbstractMavenExecutor
+{
+    /**
+     * How long to wait for a daemon to accept a connection and answer, in milliseconds.
+     */
+    private static final int CONNECT_TIMEOUT = 10000;
+
+    /**
+     * The Maven installation to run. Defaults to the installation running the release.
+     */
+    private File mavenHome;
+
+    /**
+     * How long the daemon stays running without executing anything, in milliseconds.
+     *
+     * @plexus.configuration default-value="600000"
+     */
+    private long idleTimeout = 600000;
+
+    /**
+     * The file the port of the daemon and the secret for connecting to it are kept in. Defaults to
+     * <code>.m2/release-daemon.properties</code> in the home directory of the user.
+     */
+    private File daemonFile;
+
+    /**
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    public synchronized void executeGoals( File workingDirectory, String goals, boolean interactive,
+                                           String additionalArguments, String pomFileName, ReleaseResult relResult )
+        throws MavenExecutorException
+    {
+        String[] arguments =
+            createLaunchArguments( workingDirectory, goals, interactive, additionalArguments, pomFileName );
+
+        File home = MavenLauncher.getMavenHome( mavenHome );
+
+        BoundedOutputCapture outputCapture = createOutputCapture( workingDirectory, goals );
+
+        TeeOutputStream stdOut = new TeeOutputStream( System.out, "    ", outputCapture );
+
+        BoundedOutputCapture errorCapture = createErrorCapture( goals );
+
+        TeeOutputStream stdErr = new TeeOutputStream( System.err, "    ", errorCapture );
+
+        try
+        {
+            String commandLine = "mvn " + StringUtils.join( arguments, " " );
+            relResult.appendInfo( "Executing in daemon: " + commandLine );
+            getLogger().info( "Executing in daemon: " + commandLine );
+
+            Socket socket = connect();
+            try
+            {
+                DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+                out.writeUTF( home.getAbsolutePath() );
+                out.writeInt( arguments.length );
+                for ( int i = 0; i < arguments.length; i++ )
+                {
+                    out.writeUTF( arguments[i] );
+                }
+                out.flush();
+
+                // the build takes as long as it takes
+                socket.setSoTimeout( 0 );
+
+                DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+                int result = receive( in, stdOut, stdErr );
+
+                if ( result != 0 )
+                {
+                    throw new MavenExecutorException( "Maven execution failed, exit code: \'" + result + "\'", result,
+                                                      stdOut.toString(), stdErr.toString() );
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new MavenExecutorException( "Lost the connection to the Maven daemon", e );
+            }
+            finally
+            {
+                close( socket );
+            }
+        }
+        finally
+        {
+            recordOutput( outputCapture, errorCapture, relResult );
+        }
+    }
+
+    public void setMavenHome( File mavenHome )
+    {
+        this.mavenHome = mavenHome;
+    }
+
+    public void setIdleTimeout( long idleTimeout )
+    {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public void setDaemonFile( File daemonFile )
+    {
+        this.daemonFile = daemonFile;
+    }
+
+    /**
+     * Copy the output of the execution until it finishes.
+     *
+     * @return the exit code of the execution
+     */
+    private static int receive( DataInputStream in, OutputStream stdOut, OutputStream stdErr )
+        throws IOException, MavenExecutorException
+    {
+        byte[] buffer = new byte[8192];
+        while ( true )
+        {
+            int type = in.readByte();
+            switch ( type )
+            {
+                case MavenDaemon.OUT:
+                case MavenDaemon.ERR:
+                    int length = in.readInt();
+                    if ( length > buffer.length )
+                    {
+                        buffer = new byte[Math.max( length, buffer.length * 2 )];
+                    }
+                    in.readFully( buffer, 0, length );
+                    ( type == MavenDaemon.OUT ? stdOut : stdErr ).write( buffer, 0, length );
+                    break;
+                case MavenDaemon.EXIT:
+                    return in.readInt();
+                case MavenDaemon.FAILED:
+                    throw new MavenExecutorException( in.readUTF() );
+                default:
+                    throw new IOException( "Unexpected frame from the Maven daemon: " + type );
+            }
+        }
+    }
+
+    /**
+     * Connect to the daemon in the daemon file, or start a new one if it can't be reached.
+     */
+    private Socket connect()
+        throws MavenExecutorException
+    {
+        File file = getDaemonFile();
+
+        Properties daemon = readDaemonFile( file );
+        if ( daemon != null )
+        {
+            Socket socket = handshake( daemon );
+            if ( socket != null )
+            {
+                return socket;
+            }
+        }
+
+        daemon = startDaemon();
+        writeDaemonFile( file, daemon );
+
+        Socket socket = handshake( daemon );
+        if ( socket == null )
+        {
+            throw new MavenExecutorException( "Unable to connect to the Maven daemon that was just started" );
+        }
+        return socket;
+    }
+
+    /**
+     * Connect to a daemon and prove that this client is allowed to use it.
+     *
+     * @return the connection, ready for a request, or <code>null</code> if the daemon isn't running or is busy
+     */
+    private Socket handshake( Properties daemon )
+    {
+        Socket socket = new Socket();
+        try
+        {
+            int port = Integer.parseInt( daemon.getProperty( "port" ) );
+            socket.connect( new InetSocketAddress( "127.0.0.1", port ), CONNECT_TIMEOUT );
+            socket.setSoTimeout( CONNECT_TIMEOUT );
+
+            DataOutputStream out = new DataOutputStream( socket.getOutputStream() );
+            out.writeUTF( daemon.getProperty( "secret" ) );
+            out.flush();
+
+            if ( socket.getInputStream().read() == MavenDaemon.READY )
+            {
+                return socket;
+            }
+        }
+        catch ( IOException e )
+        {
+            getLogger().debug( "Unable to connect to the Maven daemon: " + e.getMessage() );
+        }
+        catch ( RuntimeException e )
+        {
+            getLogger().debug( "Unable to connect to the Maven daemon: " + e.getMessage() );
+        }
+        close( socket );
+        return null;
+    }
+
+    /**
+     * Start a daemon JVM, with the release manager as its class path, and wait for it to say where it listens.
+     */
+    private Properties startDaemon()
+        throws MavenExecutorException
+    {
+        String java = new File( System.getProperty( "java.home" ), "bin/java" ).getAbsolutePath();
+        String[] command = {java, "-cp", getClassPath(), MavenDaemon.class.getName(), String.valueOf( idleTimeout )};
+
+        getLogger().info( "Starting a Maven daemon" );
+
+        Process process;
+        try
+        {
+            process = Runtime.getRuntime().exec( command );
+        }
+        catch ( IOException e )
+        {
+            throw new MavenExecutorException( "Unable to start the Maven daemon", e );
+        }
+
+        InputStream processOut = process.getInputStream();
+        InputStream processErr = process.getErrorStream();
+        try
+        {
+            process.getOutputStream().close();
+
+            String line = new BufferedReader( new InputStreamReader( processOut ) ).readLine();
+            if ( line == null )
+            {
+                throw new MavenExecutorException(
+                    "The Maven daemon failed to start: " + IOUtil.toString( processErr ) );
+            }
+
+            String[] tokens = StringUtils.split( line, " " );
+            if ( tokens.length != 2 )
+            {
+                process.destroy();
+                throw new MavenExecutorException( "Unexpected output from the Maven daemon: " + line );
+            }
+
+            Properties daemon = new Properties();
+            daemon.setProperty( "port", tokens[0] );
+            daemon.setProperty( "secret", tokens[1] );
+            return daemon;
+        }
+        catch ( IOException e )
+        {
+            process.destroy();
+            throw new MavenExecutorException( "Unable to start the Maven daemon", e );
+        }
+        finally
+        {
+            // the daemon doesn't write anything more, and must outlive this JVM
+            IOUtil.close( processOut );
+            IOUtil.close( processErr );
+        }
+    }
+
+    private File getDaemonFile()
+    {
+        if ( daemonFile != null )
+        {
+            return daemonFile;
+        }
+        return new File( System.getProperty( "user.home" ), ".m2/release-daemon.properties" );
+    }
+
+    private Properties readDaemonFile( File file )
+    {
+        if ( !file.exists() )
+        {
+            return null;
+        }
+
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            Properties daemon = new Properties();
+            daemon.load( in );
+            return daemon;
+        }
+        catch ( IOException e )
+        {
+            getLogger().warn( "Unable to read " + file + ": " + e.getMessage() );
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Write the port and secret of a new daemon to the daemon file. The secret lets anyone who reads it run builds as
+     * this user, so the file is created readable by its owner only, and isn't written at all if that fails - the
+     * daemon will then only be used by this release.
+     */
+    private void writeDaemonFile( File file, Properties daemon )
+    {
+        OutputStream out = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+
+            // start from a new empty file, as an existing one may be readable by others
+            file.delete();
+            if ( !file.createNewFile() || !restrictToOwner( file ) )
+            {
+                getLogger().warn( "Unable to make " + file + " readable by its owner only - not writing the daemon" );
+                file.delete();
+                return;
+            }
+
+            out = new FileOutputStream( file );
+            daemon.store( out, "Maven release daemon" );
+        }
+        catch ( IOException e )
+        {
+            // the daemon will only be used by this release
+            getLogger().warn( "Unable to write " + file + ": " + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    /**
+     * Make a file readable and writable by its owner only. Files in the user's profile on Windows are already private
+     * to the user, elsewhere this needs <code>chmod</code>, as the JDK can't change the permissions of a file.
+     *
+     * @return whether the permissions were changed
+     */
+    private boolean restrictToOwner( File file )
+    {
+        if ( System.getProperty( "os.name" ).toLowerCase().startsWith( "windows" ) )
+        {
+            return true;
+        }
+
+        Commandline cl = new Commandline();
+        cl.setExecutable( "chmod" );
+        cl.createArgument().setValue( "600" );
+        cl.createArgument().setValue( file.getAbsolutePath() );
+
+        CommandLineUtils.StringStreamConsumer stdout = new CommandLineUtils.StringStreamConsumer();
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+        try
+        {
+            int exitCode = CommandLineUtils.executeCommandLine( cl, stdout, stderr );
+            if ( exitCode != 0 )
+            {
+                getLogger().debug( "chmod failed: " + stderr.getOutput() );
+            }
+            return exitCode == 0;
+        }
+        catch ( CommandLineException e )
+        {
+            getLogger().debug( "Unable to run chmod: " + e.getMessage() );
+            return false;
+        }
+    }
+
+    /**
+     * Find the release manager, which is all the daemon needs on its class path.
+     */
+    private static String getClassPath()
+        throws MavenExecutorException
+    {
+        URL location = MavenDaemon.class.getProtectionDomain().getCodeSource().getLocation();
+        try
+        {
+            return new File( new URI( location.toExternalForm() ) ).getAbsolutePath();
+        }
+        catch ( Exception e )
+        {
+            throw new MavenExecutorException( "Unable to find the release manager in " + location, e );
+        }
+    }
+
+    private static void close( Socket socket )
+    {
+        try
+        {
+            socket.close();
+        }
+        catch ( IOException e )
+        {
+            // ignore
+        }
+    }
+}
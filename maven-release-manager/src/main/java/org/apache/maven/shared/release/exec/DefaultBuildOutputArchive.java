@@ -0,0 +1,264 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Keeps the archived build directories of each tag in a directory of their own, next to a manifest with the hash of
+ * the sources. The sources are every file in the working copy except the build directories, SCM metadata and the
+ * files the release itself leaves behind, so any file that isn't in the tag means the outputs are built again.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.exec.BuildOutputArchive"
+ */
+public class DefaultBuildOutputArchive
+    extends AbstractLogEnabled
+    implements BuildOutputArchive
+{
+    private static final String MANIFEST = "build-outputs.properties";
+
+    private static final String OUTPUTS = "outputs";
+
+    /**
+     * The files the release leaves in the working copy, which aren't in the tag.
+     */
+    private static final String[] RELEASE_FILES = {"**/release.properties", "**/pom.xml.backup", "**/pom.xml.tag",
+        "**/pom.xml.next", "**/pom.xml.releaseBackup"};
+
+    public void archive( File sourceDirectory, List buildDirectories, String tag, File archiveDirectory )
+        throws IOException
+    {
+        File tagDirectory = getTagDirectory( archiveDirectory, tag );
+        FileUtils.deleteDirectory( tagDirectory );
+
+        List relativePaths = new ArrayList();
+        for ( Iterator i = buildDirectories.iterator(); i.hasNext(); )
+        {
+            File buildDirectory = (File) i.next();
+            String path = getRelativePath( sourceDirectory, buildDirectory );
+            if ( path == null )
+            {
+                getLogger().warn( "Not archiving " + buildDirectory + " as it is outside " + sourceDirectory );
+            }
+            else if ( buildDirectory.isDirectory() )
+            {
+                relativePaths.add( path );
+                File target = new File( tagDirectory, OUTPUTS + "/" + path );
+                copy( buildDirectory, target, archiveDirectory.getAbsoluteFile(), false );
+            }
+        }
+
+        Properties manifest = new Properties();
+        manifest.setProperty( "tag", tag );
+        manifest.setProperty( "buildDirectories", StringUtils.join( relativePaths.iterator(), "," ) );
+        manifest.setProperty( "sourceHash", hashSources( sourceDirectory, relativePaths ) );
+
+        // the manifest is written last, so that a partial archive is never used
+        OutputStream out = null;
+        try
+        {
+            out = new FileOutputStream( new File( tagDirectory, MANIFEST ) );
+            manifest.store( out, "Build outputs for " + tag );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    public String restore( File archiveDirectory, String tag, File sourceDirectory )
+        throws IOException
+    {
+        File tagDirectory = getTagDirectory( archiveDirectory, tag );
+        File manifestFile = new File( tagDirectory, MANIFEST );
+        if ( !manifestFile.exists() )
+        {
+            return "no build outputs were archived for " + tag;
+        }
+
+        Properties manifest = new Properties();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( manifestFile );
+            manifest.load( in );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+
+        if ( !tag.equals( manifest.getProperty( "tag" ) ) )
+        {
+            return "the build outputs were archived for " + manifest.getProperty( "tag" );
+        }
+
+        List relativePaths = Arrays.asList( StringUtils.split( manifest.getProperty( "buildDirectories", "" ), "," ) );
+        if ( !hashSources( sourceDirectory, relativePaths ).equals( manifest.getProperty( "sourceHash" ) ) )
+        {
+            return "the sources of " + tag + " are not the same as the sources the build outputs came from";
+        }
+
+        for ( Iterator i = relativePaths.iterator(); i.hasNext(); )
+        {
+            String path = (String) i.next();
+            copy( new File( tagDirectory, OUTPUTS + "/" + path ), new File( sourceDirectory, path ), null, true );
+        }
+        return null;
+    }
+
+    /**
+     * Hash the paths and content of the sources, in a fixed order.
+     */
+    private static String hashSources( File sourceDirectory, List buildDirectories )
+        throws IOException
+    {
+        List excludes = new ArrayList( Arrays.asList( RELEASE_FILES ) );
+        for ( Iterator i = buildDirectories.iterator(); i.hasNext(); )
+        {
+            excludes.add( i.next() + "/**" );
+        }
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir( sourceDirectory );
+        scanner.setExcludes( (String[]) excludes.toArray( new String[excludes.size()] ) );
+        scanner.addDefaultExcludes();
+        scanner.scan();
+
+        String[] files = scanner.getIncludedFiles();
+        for ( int i = 0; i < files.length; i++ )
+        {
+            files[i] = files[i].replace( File.separatorChar, '/' );
+        }
+        Arrays.sort( files );
+
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "SHA-1 is not available: " + e.getMessage() );
+        }
+
+        byte[] buffer = new byte[8192];
+        for ( int i = 0; i < files.length; i++ )
+        {
+            digest.update( files[i].getBytes( "UTF-8" ) );
+            digest.update( (byte) 0 );
+
+            InputStream in = new FileInputStream( new File( sourceDirectory, files[i] ) );
+            try
+            {
+                int n;
+                while ( ( n = in.read( buffer ) ) > 0 )
+                {
+                    digest.update( buffer, 0, n );
+                }
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+            digest.update( (byte) 0 );
+        }
+
+        byte[] hash = digest.digest();
+        StringBuffer hex = new StringBuffer( hash.length * 2 );
+        for ( int i = 0; i < hash.length; i++ )
+        {
+            hex.append( Integer.toHexString( ( hash[i] & 0xff ) | 0x100 ).substring( 1 ) );
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Copy a directory recursively.
+     *
+     * @param skip  a directory not to copy, such as the archive inside a build directory
+     * @param touch whether to make the copies newer than everything else, rather than keep their times
+     */
+    private static void copy( File from, File to, File skip, boolean touch )
+        throws IOException
+    {
+        File[] files = from.listFiles();
+        if ( files == null )
+        {
+            return;
+        }
+
+        to.mkdirs();
+        for ( int i = 0; i < files.length; i++ )
+        {
+            File target = new File( to, files[i].getName() );
+            if ( files[i].isDirectory() )
+            {
+                if ( !files[i].getAbsoluteFile().equals( skip ) )
+                {
+                    copy( files[i], target, skip, touch );
+                }
+            }
+            else
+            {
+                FileUtils.copyFile( files[i], target );
+                target.setLastModified( touch ? System.currentTimeMillis() : files[i].lastModified() );
+            }
+        }
+    }
+
+    private static File getTagDirectory( File archiveDirectory, String tag )
+    {
+        return new File( archiveDirectory, tag.replaceAll( "[^A-Za-z0-9._-]", "_" ) );
+    }
+
+    /**
+     * @return the path of the file relative to the directory, with forward slashes, or <code>null</code> if it isn't
+     *         inside the directory
+     */
+    private static String getRelativePath( File directory, File file )
+    {
+        String base = directory.getAbsolutePath();
+        String path = file.getAbsolutePath();
+        if ( !path.startsWith( base + File.separator ) )
+        {
+            return null;
+        }
+        return path.substring( base.length() + 1 ).replace( File.separatorChar, '/' );
+    }
+}
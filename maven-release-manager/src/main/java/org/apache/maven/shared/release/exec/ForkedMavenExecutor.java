@@ -20,7 +20,6 @@ package org.apache.maven.shared.release.exec;
  */
 
 import org.apache.maven.shared.release.ReleaseResult;
-import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.cli.CommandLineException;
 import org.codehaus.plexus.util.cli.CommandLineUtils;
@@ -41,8 +40,7 @@ import java.io.OutputStream;
  * @plexus.component role="org.apache.maven.shared.release.exec.MavenExecutor"
  */
 public class ForkedMavenExecutor
-    extends AbstractLogEnabled
-    implements MavenExecutor
+    extends AbstractMavenExecutor
 {
     /**
      * Command line factory.
@@ -51,6 +49,11 @@ public class ForkedMavenExecutor
      */
     private CommandLineFactory commandLineFactory;
 
+    /**
+     * How long to wait for the rest of the output once the process has exited, in milliseconds.
+     */
+    private static final long DRAIN_TIMEOUT = 10000;
+
     /**
      * @noinspection UseOfSystemOutOrSystemErr
      */
@@ -69,15 +72,12 @@ public class ForkedMavenExecutor
             cl.createArgument().setLine( "-f " + pomFileName );
         }
 
-        if ( goals != null )
-        {
-            // accept both space and comma, so the old way still work
-            String[] tokens = StringUtils.split( goals, ", " );
+        // accept both space and comma, so the old way still work
+        String[] tokens = splitGoals( goals );
 
-            for ( int i = 0; i < tokens.length; ++i )
-            {
-                cl.createArgument().setValue( tokens[i] );
-            }
+        for ( int i = 0; i < tokens.length; ++i )
+        {
+            cl.createArgument().setValue( tokens[i] );
         }
 
         cl.createArgument().setValue( "--no-plugin-updates" );
@@ -92,16 +92,21 @@ public class ForkedMavenExecutor
             cl.createArgument().setLine( additionalArguments );
         }
 
-        TeeOutputStream stdOut = new TeeOutputStream( System.out );
+        BoundedOutputCapture outputCapture = createOutputCapture( workingDirectory, goals );
+
+        TeeOutputStream stdOut = new TeeOutputStream( System.out, "    ", outputCapture );
 
-        TeeOutputStream stdErr = new TeeOutputStream( System.err );
+        BoundedOutputCapture errorCapture = createErrorCapture( goals );
+
+        TeeOutputStream stdErr = new TeeOutputStream( System.err, "    ", errorCapture );
 
         try
         {
             relResult.appendInfo( "Executing: " + cl.toString() );
             getLogger().info( "Executing: " + cl.toString() );
             
-            int result = executeCommandLine( cl, System.in, stdOut, stdErr );
+            // input is only forwarded when the build can prompt for it
+            int result = executeCommandLine( cl, interactive ? System.in : null, stdOut, stdErr );
 
             if ( result != 0 )
             {
@@ -115,108 +120,111 @@ public class ForkedMavenExecutor
         }
         finally
         {
-            relResult.appendOutput( stdOut.toString() );
+            recordOutput( outputCapture, errorCapture, relResult );
         }
     }
 
-    public void executeGoals( File workingDirectory, String goals, boolean interactive, String arguments,
-                              ReleaseResult result )
-        throws MavenExecutorException
-    {
-        executeGoals( workingDirectory, goals, interactive, arguments, null, result );
-    }
-
     public void setCommandLineFactory( CommandLineFactory commandLineFactory )
     {
         this.commandLineFactory = commandLineFactory;
     }
-    
-    
-    
-    
-    public static int executeCommandLine( Commandline cl, InputStream systemIn, 
-                                          OutputStream systemOut, OutputStream systemErr )
+
+    /**
+     * Run a command line, copying its output and error streams as it runs.
+     *
+     * @param cl        the command line to run
+     * @param systemIn  the input to forward to the process, or <code>null</code> to give the process no input
+     * @param systemOut where to copy the output of the process
+     * @param systemErr where to copy the error output of the process
+     * @return the exit code of the process
+     * @throws CommandLineException if the process can't be started, or is interrupted
+     */
+    public static int executeCommandLine( Commandline cl, InputStream systemIn, OutputStream systemOut,
+                                          OutputStream systemErr )
         throws CommandLineException
     {
         if ( cl == null )
         {
             throw new IllegalArgumentException( "cl cannot be null." );
         }
-    
+
         Process p = cl.execute();
-    
-        //processes.put( new Long( cl.getPid() ), p );
-    
+
+        OutputStream processIn = p.getOutputStream();
+        InputStream processOut = p.getInputStream();
+        InputStream processErr = p.getErrorStream();
+
         RawStreamPumper inputFeeder = null;
-    
+
         if ( systemIn != null )
         {
-            inputFeeder = new RawStreamPumper( systemIn, p.getOutputStream(), true );
+            inputFeeder = new RawStreamPumper( systemIn, processIn, true );
+            inputFeeder.start();
         }
-    
-        RawStreamPumper outputPumper = new RawStreamPumper( p.getInputStream(), systemOut );
-        RawStreamPumper errorPumper = new RawStreamPumper( p.getErrorStream(), systemErr );
-    
-        if ( inputFeeder != null )
+        else
         {
-            inputFeeder.start();
+            // the process sees the end of its input straight away, rather than waiting for input that never comes
+            close( processIn );
         }
-    
+
+        RawStreamPumper outputPumper = new RawStreamPumper( processOut, systemOut );
+        RawStreamPumper errorPumper = new RawStreamPumper( processErr, systemErr );
+
         outputPumper.start();
-    
+
         errorPumper.start();
-    
+
         try
         {
             int returnValue = p.waitFor();
-    
-            if ( inputFeeder != null )
-            {
-                inputFeeder.setDone();
-            }
-            outputPumper.setDone();
-            errorPumper.setDone();
-    
-            //processes.remove( new Long( cl.getPid() ) );
-    
+
+            // the output the process wrote before it exited may not have been copied yet. The pumpers stop at the
+            // end of the streams, unless something the process started is still holding them open
+            outputPumper.join( DRAIN_TIMEOUT );
+            errorPumper.join( DRAIN_TIMEOUT );
+
             return returnValue;
         }
         catch ( InterruptedException ex )
         {
-            //killProcess( cl.getPid() );
+            p.destroy();
             throw new CommandLineException( "Error while executing external command, process killed.", ex );
-        } 
+        }
         finally
         {
-            try
-            {
-                errorPumper.closeInput();
-            } 
-            catch ( IOException e )
-            {
-                //ignore
-            }
-            try
-            {
-                outputPumper.closeInput();
-            } 
-            catch ( IOException e )
-            {
-                //ignore
-            }
             if ( inputFeeder != null )
             {
-                try
-                {
-                    inputFeeder.closeOutput();
-                }
-                catch ( IOException e )
-                {
-                    //ignore
-                }
+                inputFeeder.setDone();
+                close( processIn );
             }
+            outputPumper.setDone();
+            errorPumper.setDone();
+            close( processOut );
+            close( processErr );
         }
     }
 
+    private static void close( InputStream stream )
+    {
+        try
+        {
+            stream.close();
+        }
+        catch ( IOException e )
+        {
+            //ignore
+        }
+    }
 
+    private static void close( OutputStream stream )
+    {
+        try
+        {
+            stream.close();
+        }
+        catch ( IOException e )
+        {
+            //ignore
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.ReleaseResult;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Run Maven inside the current JVM, rather than forking a new one for every execution. The Maven installation is
+ * started through its own launcher in a class loader of its own, so that it doesn't share any classes with the
+ * release. The launcher of each installation is kept, so that later executions find its classes already loaded. The
+ * standard output and error streams of the JVM are redirected while Maven runs, so only one execution can run at a
+ * time.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.exec.MavenExecutor" role-hint="in-process"
+ */
+public class InProcessMavenExecutor
+    extends AbstractMavenExecutor
+{
+    /**
+     * The Maven installation to run. Defaults to the installation running the release.
+     */
+    private File mavenHome;
+
+    /**
+     * The launchers for each Maven installation that has been run, by directory.
+     */
+    private final Map launchers = new HashMap();
+
+    /**
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    public void executeGoals( File workingDirectory, String goals, boolean interactive, String additionalArguments,
+                              String pomFileName, ReleaseResult relResult )
+        throws MavenExecutorException
+    {
+        String[] arguments =
+            createLaunchArguments( workingDirectory, goals, interactive, additionalArguments, pomFileName );
+
+        BoundedOutputCapture outputCapture = createOutputCapture( workingDirectory, goals );
+
+        TeeOutputStream stdOut = new TeeOutputStream( System.out, "    ", outputCapture );
+
+        BoundedOutputCapture errorCapture = createErrorCapture( goals );
+
+        TeeOutputStream stdErr = new TeeOutputStream( System.err, "    ", errorCapture );
+
+        try
+        {
+            String commandLine = "mvn " + StringUtils.join( arguments, " " );
+            relResult.appendInfo( "Executing in-process: " + commandLine );
+            getLogger().info( "Executing in-process: " + commandLine );
+
+            MavenLauncher launcher = getLauncher( MavenLauncher.getMavenHome( mavenHome ) );
+            int result = launcher.launch( arguments, stdOut, stdErr );
+
+            if ( result != 0 )
+            {
+                throw new MavenExecutorException( "Maven execution failed, exit code: \'" + result + "\'", result,
+                                                  stdOut.toString(), stdErr.toString() );
+            }
+        }
+        finally
+        {
+            recordOutput( outputCapture, errorCapture, relResult );
+        }
+    }
+
+    /**
+     * Find the launcher for a Maven installation, creating it on first use.
+     */
+    synchronized MavenLauncher getLauncher( File mavenHome )
+        throws MavenExecutorException
+    {
+        MavenLauncher launcher = (MavenLauncher) launchers.get( mavenHome );
+        if ( launcher == null )
+        {
+            launcher = new MavenLauncher( mavenHome );
+            launchers.put( mavenHome, launcher );
+        }
+        return launcher;
+    }
+
+    public void setMavenHome( File mavenHome )
+    {
+        this.mavenHome = mavenHome;
+    }
+}
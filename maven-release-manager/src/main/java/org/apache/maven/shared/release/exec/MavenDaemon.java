@@ -0,0 +1,243 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A JVM that stays running between Maven executions, so that they don't each pay for starting a JVM and loading the
+ * classes of Maven. Requests are accepted on a socket bound to the loopback address and run one at a time, with the
+ * output of Maven streamed back to the client as it is written. The daemon exits once it has been idle for the timeout
+ * given on its command line.
+ * <p/>
+ * On startup, the daemon prints the port it listens on and a secret to its standard output, on one line. A client
+ * connects and sends the secret, to which the daemon answers {@link #READY}. The client then sends the Maven
+ * installation to run and the arguments for Maven, and the daemon answers with {@link #OUT} and {@link #ERR} frames
+ * holding output, followed by either an {@link #EXIT} frame with the exit code or a {@link #FAILED} frame with the
+ * reason Maven couldn't be run.
+ * <p/>
+ * This class only depends on the JDK and the release manager, so that the daemon can be started with the release
+ * manager as its only class path entry.
+ */
+public class MavenDaemon
+{
+    static final int READY = 0;
+
+    static final int OUT = 1;
+
+    static final int ERR = 2;
+
+    static final int EXIT = 3;
+
+    static final int FAILED = 4;
+
+    private final ServerSocket serverSocket;
+
+    private final String secret;
+
+    /**
+     * The launchers for each Maven installation that has been run, by directory.
+     */
+    private final Map launchers = new HashMap();
+
+    private MavenDaemon( long idleTimeout )
+        throws IOException
+    {
+        serverSocket = new ServerSocket( 0, 50, InetAddress.getByName( "127.0.0.1" ) );
+        serverSocket.setSoTimeout( (int) Math.min( idleTimeout, Integer.MAX_VALUE ) );
+
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes( bytes );
+        StringBuffer buffer = new StringBuffer();
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            buffer.append( Integer.toHexString( ( bytes[i] & 0xff ) | 0x100 ).substring( 1 ) );
+        }
+        secret = buffer.toString();
+    }
+
+    /**
+     * Start the daemon.
+     *
+     * @param args the idle timeout in milliseconds
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    public static void main( String[] args )
+        throws IOException
+    {
+        MavenDaemon daemon = new MavenDaemon( Long.parseLong( args[0] ) );
+
+        System.out.println( daemon.serverSocket.getLocalPort() + " " + daemon.secret );
+        System.out.flush();
+
+        daemon.run();
+
+        // Maven may have left threads running
+        System.exit( 0 );
+    }
+
+    private void run()
+        throws IOException
+    {
+        try
+        {
+            while ( true )
+            {
+                Socket socket;
+                try
+                {
+                    socket = serverSocket.accept();
+                }
+                catch ( SocketTimeoutException e )
+                {
+                    return;
+                }
+
+                try
+                {
+                    // a client that stops sending doesn't keep the daemon from timing out
+                    socket.setSoTimeout( serverSocket.getSoTimeout() );
+
+                    serve( socket );
+                }
+                catch ( IOException e )
+                {
+                    // the client went away - carry on with the next one
+                }
+                finally
+                {
+                    socket.close();
+                }
+            }
+        }
+        finally
+        {
+            serverSocket.close();
+        }
+    }
+
+    private void serve( Socket socket )
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+
+        if ( !secret.equals( in.readUTF() ) )
+        {
+            return;
+        }
+        out.writeByte( READY );
+        out.flush();
+
+        File mavenHome = new File( in.readUTF() );
+        String[] arguments = new String[in.readInt()];
+        for ( int i = 0; i < arguments.length; i++ )
+        {
+            arguments[i] = in.readUTF();
+        }
+
+        try
+        {
+            MavenLauncher launcher = (MavenLauncher) launchers.get( mavenHome );
+            if ( launcher == null )
+            {
+                launcher = new MavenLauncher( mavenHome );
+                launchers.put( mavenHome, launcher );
+            }
+
+            int exitCode =
+                launcher.launch( arguments, new FrameOutputStream( out, OUT ), new FrameOutputStream( out, ERR ) );
+
+            synchronized ( out )
+            {
+                out.writeByte( EXIT );
+                out.writeInt( exitCode );
+            }
+        }
+        catch ( MavenExecutorException e )
+        {
+            synchronized ( out )
+            {
+                out.writeByte( FAILED );
+                out.writeUTF( String.valueOf( e.getMessage() ) );
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes output to the client in frames of one type.
+     */
+    private static class FrameOutputStream
+        extends OutputStream
+    {
+        private final DataOutputStream out;
+
+        private final int type;
+
+        private FrameOutputStream( DataOutputStream out, int type )
+        {
+            this.out = out;
+            this.type = type;
+        }
+
+        public void write( int b )
+            throws IOException
+        {
+            write( new byte[]{(byte) b}, 0, 1 );
+        }
+
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            if ( len > 0 )
+            {
+                synchronized ( out )
+                {
+                    out.writeByte( type );
+                    out.writeInt( len );
+                    out.write( b, off, len );
+                }
+            }
+        }
+
+        public void flush()
+            throws IOException
+        {
+            synchronized ( out )
+            {
+                out.flush();
+            }
+        }
+    }
+}
@@ -50,6 +50,11 @@ public class MavenExecutorException
         this.stdErr = stdErr;
     }
 
+    public MavenExecutorException( String message )
+    {
+        super( message );
+    }
+
     public MavenExecutorException( String message, Throwable cause )
     {
         super( message, cause );
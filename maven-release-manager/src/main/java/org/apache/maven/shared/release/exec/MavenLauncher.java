@@ -0,0 +1,221 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Starts a Maven installation in the current JVM with its own launcher, as the <code>mvn</code> script does, in a
+ * class loader that doesn't share any classes with the caller. The launcher is configured on first use and kept, so
+ * that later executions find the classes of the installation already loaded. This class only depends on the JDK, so
+ * that it can also be used by the {@link MavenDaemon}.
+ */
+class MavenLauncher
+{
+    private static final String LAUNCHER_CLASS = "org.codehaus.classworlds.Launcher";
+
+    private final File mavenHome;
+
+    private final ClassLoader bootLoader;
+
+    private Object launcher;
+
+    /**
+     * @param mavenHome the Maven installation to run
+     * @throws MavenExecutorException if there is no Maven installation in the directory
+     */
+    MavenLauncher( File mavenHome )
+        throws MavenExecutorException
+    {
+        this.mavenHome = mavenHome;
+        this.bootLoader = createBootLoader( mavenHome );
+    }
+
+    /**
+     * Run Maven. The standard output and error streams of the JVM are redirected while Maven runs, so only one
+     * execution can run at a time in each JVM. Maven sets the <code>-D</code> arguments as system properties, so the
+     * system properties are restored afterwards to keep them from leaking into later executions in the same JVM.
+     *
+     * @param arguments the command line arguments for Maven
+     * @param out       where to write the standard output of Maven
+     * @param err       where to write the error output of Maven
+     * @return the exit code of the execution
+     * @throws MavenExecutorException if Maven can't be started, or fails with an exception
+     * @noinspection UseOfSystemOutOrSystemErr
+     */
+    int launch( String[] arguments, OutputStream out, OutputStream err )
+        throws MavenExecutorException
+    {
+        synchronized ( MavenLauncher.class )
+        {
+            PrintStream systemOut = System.out;
+            PrintStream systemErr = System.err;
+            Properties systemProperties = (Properties) System.getProperties().clone();
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+
+            try
+            {
+                // the launcher configuration refers to the installation through the system property
+                System.setProperty( "maven.home", mavenHome.getAbsolutePath() );
+                System.setOut( new PrintStream( out, true ) );
+                System.setErr( new PrintStream( err, true ) );
+                thread.setContextClassLoader( bootLoader );
+
+                if ( launcher == null )
+                {
+                    launcher = createLauncher();
+                }
+
+                invoke( launcher, "launch", String[].class, arguments );
+
+                Method getExitCode = launcher.getClass().getMethod( "getExitCode", new Class[0] );
+                return ( (Integer) getExitCode.invoke( launcher, new Object[0] ) ).intValue();
+            }
+            catch ( InvocationTargetException e )
+            {
+                throw new MavenExecutorException( "Maven execution failed: " + e.getTargetException().getMessage(),
+                                                  e.getTargetException() );
+            }
+            catch ( IOException e )
+            {
+                throw new MavenExecutorException( "Unable to read the launcher configuration in " + mavenHome, e );
+            }
+            catch ( Exception e )
+            {
+                throw new MavenExecutorException( "Unable to start the Maven installation in " + mavenHome, e );
+            }
+            finally
+            {
+                System.out.flush();
+                System.err.flush();
+                System.setOut( systemOut );
+                System.setErr( systemErr );
+                System.setProperties( systemProperties );
+                thread.setContextClassLoader( contextClassLoader );
+            }
+        }
+    }
+
+    /**
+     * Find the Maven installation to run.
+     *
+     * @param mavenHome the configured installation, or <code>null</code> for the installation running this JVM
+     * @return the directory of the installation
+     * @throws MavenExecutorException if no installation is configured and this JVM isn't run by one
+     */
+    static File getMavenHome( File mavenHome )
+        throws MavenExecutorException
+    {
+        if ( mavenHome != null )
+        {
+            return mavenHome;
+        }
+
+        String property = System.getProperty( "maven.home" );
+        if ( property == null )
+        {
+            throw new MavenExecutorException( "The Maven installation to run is not known - set maven.home" );
+        }
+        return new File( property );
+    }
+
+    private Object createLauncher()
+        throws Exception
+    {
+        Object launcher = bootLoader.loadClass( LAUNCHER_CLASS ).newInstance();
+
+        invoke( launcher, "setSystemClassLoader", ClassLoader.class, bootLoader );
+
+        InputStream configuration = new FileInputStream( new File( mavenHome, "bin/m2.conf" ) );
+        try
+        {
+            invoke( launcher, "configure", InputStream.class, configuration );
+        }
+        finally
+        {
+            try
+            {
+                configuration.close();
+            }
+            catch ( IOException e )
+            {
+                // ignore
+            }
+        }
+        return launcher;
+    }
+
+    /**
+     * Create a class loader for the launcher of the installation. Its parent is the parent of the system class loader,
+     * so that none of the classes on the class path of the caller are visible to it.
+     */
+    private static ClassLoader createBootLoader( File home )
+        throws MavenExecutorException
+    {
+        File[] files = new File( home, "boot" ).listFiles();
+        List urls = new ArrayList();
+        if ( files != null )
+        {
+            for ( int i = 0; i < files.length; i++ )
+            {
+                if ( files[i].getName().endsWith( ".jar" ) )
+                {
+                    try
+                    {
+                        urls.add( files[i].toURI().toURL() );
+                    }
+                    catch ( MalformedURLException e )
+                    {
+                        throw new MavenExecutorException( "Unable to load " + files[i], e );
+                    }
+                }
+            }
+        }
+
+        if ( urls.isEmpty() )
+        {
+            throw new MavenExecutorException( "No Maven installation found in " + home );
+        }
+
+        return new URLClassLoader( (URL[]) urls.toArray( new URL[urls.size()] ),
+                                   ClassLoader.getSystemClassLoader().getParent() );
+    }
+
+    private static void invoke( Object target, String name, Class parameterType, Object argument )
+        throws Exception
+    {
+        Method method = target.getClass().getMethod( name, new Class[]{parameterType} );
+        method.invoke( target, new Object[]{argument} );
+    }
+}
@@ -23,92 +23,84 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+/**
+ * Copies a stream to another on its own thread. Output is copied with blocking reads into a large buffer, and is
+ * only flushed once everything that is ready has been written. Input from the console is polled instead, so that a
+ * read doesn't take input meant for whatever runs after the process has ended.
+ */
 public class RawStreamPumper
-    extends Thread 
+    extends Thread
 {
-    private InputStream in;
+    /**
+     * The default size of the buffer, large enough to copy the output of a busy build in a few reads.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * How long to wait between checks for input when polling, in milliseconds.
+     */
+    private static final long POLL_INTERVAL = 50;
+
+    private final InputStream in;
 
-    private OutputStream out;
+    private final OutputStream out;
 
-    boolean done;
-    
-    boolean poll;
-    
-    byte buffer[] = new byte[256];
+    private volatile boolean done;
 
-    public RawStreamPumper( InputStream in , OutputStream out, boolean poll )
+    private final boolean poll;
+
+    private final byte[] buffer;
+
+    public RawStreamPumper( InputStream in, OutputStream out, boolean poll, int bufferSize )
     {
         this.in = in;
         this.out = out;
         this.poll = poll;
+        this.buffer = new byte[bufferSize];
+        setDaemon( true );
+    }
+
+    public RawStreamPumper( InputStream in, OutputStream out, boolean poll )
+    {
+        this( in, out, poll, DEFAULT_BUFFER_SIZE );
     }
-    public RawStreamPumper( InputStream in , OutputStream out )
+
+    public RawStreamPumper( InputStream in, OutputStream out )
     {
-        this.in = in;
-        this.out = out;
-        this.poll = false;
+        this( in, out, false );
     }
-    
+
+    /**
+     * Stop copying. A pumper that isn't polling only stops once a read returns, so the input should also be closed.
+     */
     public void setDone()
     {
         done = true;
     }
-    
-    public void closeInput() 
-        throws IOException 
+
+    public void closeInput()
+        throws IOException
     {
         in.close();
     }
-    
-    public void closeOutput() 
-        throws IOException 
+
+    public void closeOutput()
+        throws IOException
     {
         out.close();
     }
-    
+
     public void run()
     {
         try
         {
             if ( poll )
             {
-                while ( !done )
-                {
-                    if ( in.available() > 0 )
-                    {
-                        int i = in.read( buffer );
-                        if (i != -1) 
-                        {
-                            out.write( buffer, 0, i );
-                            out.flush();
-                        } 
-                        else
-                        {
-                            done = true;
-                        }
-                    } 
-                    else
-                    {
-                        Thread.sleep( 1 );  
-                    }
-                }
+                poll();
             }
             else
             {
-                int i = in.read( buffer );
-                while ( i != -1 && !done )
-                {
-                    if ( i != -1 ) 
-                    {
-                        out.write( buffer, 0, i );
-                        out.flush();
-                    } 
-                    else
-                    {
-                        done = true;
-                    }
-                    i = in.read( buffer );
-                }                
+                pump();
             }
         }
         catch ( Throwable e )
@@ -120,4 +112,59 @@ public class RawStreamPumper
             done = true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Copy everything until the end of the input is reached.
+     */
+    private void pump()
+        throws IOException
+    {
+        try
+        {
+            int count;
+            while ( !done && ( count = in.read( buffer ) ) != -1 )
+            {
+                out.write( buffer, 0, count );
+
+                // flushing after every read would write busy output a few bytes at a time
+                if ( in.available() == 0 )
+                {
+                    out.flush();
+                }
+            }
+        }
+        finally
+        {
+            out.flush();
+        }
+    }
+
+    /**
+     * Copy what is available until stopped, never blocking on a read.
+     */
+    private void poll()
+        throws IOException, InterruptedException
+    {
+        while ( !done )
+        {
+            int available = in.available();
+            if ( available > 0 )
+            {
+                int count = in.read( buffer, 0, Math.min( available, buffer.length ) );
+                if ( count == -1 )
+                {
+                    done = true;
+                }
+                else
+                {
+                    out.write( buffer, 0, count );
+                    out.flush();
+                }
+            }
+            else
+            {
+                Thread.sleep( POLL_INTERVAL );
+            }
+        }
+    }
+}
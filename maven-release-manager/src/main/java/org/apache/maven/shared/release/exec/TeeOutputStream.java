@@ -19,68 +19,128 @@ package org.apache.maven.shared.release.exec;
  * under the License.
  */
 
+
 import java.io.ByteArrayOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+/**
+ * Copies output to a stream, indenting each line, and captures the indented output as well. A line ends with a
+ * line feed, a carriage return, or a carriage return followed by a line feed - even if the two are written
+ * separately. Each write is indented into a single buffer, which is then written to the stream and to the capture in
+ * one go.
+ */
 public class TeeOutputStream 
     extends FilterOutputStream 
 {
-    ByteArrayOutputStream bout = new ByteArrayOutputStream( 1024 );
-    byte indent[];
-    
+    private final OutputStream bout;
+
+    private final byte[] indent;
+
+    private byte[] buffer = new byte[8192];
+
+    private final byte[] single = new byte[1];
+
+    // the last line ended with a carriage return that may yet be followed by a line feed
+    private boolean pendingIndent;
+
     public TeeOutputStream( OutputStream out )
     {
         this( out, "    " );
     }
     
     public TeeOutputStream( OutputStream out, String i )
+    {
+        this( out, i, new ByteArrayOutputStream( 1024 ) );
+    }
+
+    /**
+     * @param out     the stream to write the indented output to
+     * @param i       the indent
+     * @param capture the stream to capture the indented output in, which {@link #toString()} returns
+     */
+    public TeeOutputStream( OutputStream out, String i, OutputStream capture )
     {
         super( out );
         indent = i.getBytes();
+        bout = capture;
     }
     
     public void write( byte[] b, int off, int len ) 
         throws IOException
     {
-        for ( int x = 0; x < len; x++ )
+        if ( len == 0 )
         {
-            if ( b[off + x] == '\r' 
-                && x < (len - 1)
-                && b[off + x + 1] == '\n' )
+            return;
+        }
+
+        int count = 0;
+        for ( int x = off; x < off + len; x++ )
+        {
+            byte c = b[x];
+
+            if ( pendingIndent )
             {
-                x++;
+                pendingIndent = false;
+                if ( c == '\n' )
+                {
+                    count = append( count, c );
+                    count = appendIndent( count );
+                    continue;
+                }
+                count = appendIndent( count );
             }
-            
-            if ( b[off + x] == '\n' 
-                || b[off + x] == '\r' )
+
+            count = append( count, c );
+            if ( c == '\n' )
+            {
+                count = appendIndent( count );
+            }
+            else if ( c == '\r' )
             {
-                super.write( b, off, x + 1);
-                bout.write( b, off, x + 1);
-                super.write( indent );
-                bout.write( indent );
-                off += ( x + 1 );
-                len -= ( x + 1 );
-                x = 0;
+                if ( x + 1 < off + len )
+                {
+                    if ( b[x + 1] == '\n' )
+                    {
+                        count = append( count, b[++x] );
+                    }
+                    count = appendIndent( count );
+                }
+                else
+                {
+                    // wait for the next write, to see whether a line feed follows
+                    pendingIndent = true;
+                }
             }
         }
-        super.write( b, off, len );
-        bout.write( b, off, len );
+
+        out.write( buffer, 0, count );
+        bout.write( buffer, 0, count );
     }
 
     public void write( int b )
         throws IOException
     {
-        super.write( b );
-        bout.write( b );
-        if ( b == '\n' )
+        single[0] = (byte) b;
+        write( single, 0, 1 );
+    }
+
+    /**
+     * Write the indent of a line ended by a carriage return at the end of the output, and close the stream.
+     */
+    public void close()
+        throws IOException
+    {
+        if ( pendingIndent )
         {
-            super.write( indent );
+            pendingIndent = false;
+            out.write( indent );
             bout.write( indent );
         }
+        super.close();
     }
-    
+
     public String toString() 
     {
         return bout.toString();
@@ -91,4 +151,30 @@ public class TeeOutputStream
         return bout.toString();
     }
 
+    private int append( int count, byte c )
+    {
+        if ( count == buffer.length )
+        {
+            grow( count + 1 );
+        }
+        buffer[count] = c;
+        return count + 1;
+    }
+
+    private int appendIndent( int count )
+    {
+        if ( count + indent.length > buffer.length )
+        {
+            grow( count + indent.length );
+        }
+        System.arraycopy( indent, 0, buffer, count, indent.length );
+        return count + indent.length;
+    }
+
+    private void grow( int minimum )
+    {
+        byte[] larger = new byte[Math.max( buffer.length * 2, minimum )];
+        System.arraycopy( buffer, 0, larger, 0, buffer.length );
+        buffer = larger;
+    }
 }
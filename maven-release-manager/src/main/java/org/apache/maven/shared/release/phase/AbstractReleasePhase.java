@@ -22,7 +22,11 @@ package org.apache.maven.shared.release.phase;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Base class for all phases.
@@ -40,6 +44,31 @@ public abstract class AbstractReleasePhase
         return getReleaseResultSuccess();
     }
 
+    public Set getInputs()
+    {
+        // unknown by default
+
+        return null;
+    }
+
+    public Set getOutputs()
+    {
+        // unknown by default
+
+        return null;
+    }
+
+    /**
+     * Create a set of state names, for phases to declare their inputs and outputs with.
+     *
+     * @param names the state names
+     * @return an unmodifiable set of the names
+     */
+    protected static Set states( String[] names )
+    {
+        return Collections.unmodifiableSet( new HashSet( Arrays.asList( names ) ) );
+    }
+
     protected void logInfo( ReleaseResult result, String message )
     {
         result.appendInfo( message );
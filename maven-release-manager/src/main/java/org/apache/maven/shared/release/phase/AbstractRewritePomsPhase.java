@@ -40,33 +40,49 @@ import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.util.LosslessPomEditor;
+import org.apache.maven.shared.release.util.NormalisedPom;
+import org.apache.maven.shared.release.util.CoordinateCache;
+import org.apache.maven.shared.release.util.ParallelTaskRunner;
+import org.apache.maven.shared.release.util.PomCache;
+import org.apache.maven.shared.release.util.PomSnapshot;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.WriterFactory;
 import org.jdom.Comment;
+import org.jdom.DefaultJDOMFactory;
 import org.jdom.Document;
 import org.jdom.Element;
 import org.jdom.JDOMException;
+import org.jdom.JDOMFactory;
 import org.jdom.Namespace;
 import org.jdom.Text;
-import org.jdom.filter.ContentFilter;
 import org.jdom.filter.ElementFilter;
 import org.jdom.input.SAXBuilder;
 import org.jdom.output.Format;
 import org.jdom.output.XMLOutputter;
-import org.jdom.xpath.XPath;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.StringReader;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Base class for rewriting phases.
@@ -81,11 +97,28 @@ public abstract class AbstractRewritePomsPhase
      */
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * The parsed POMs shared by the phases of a run, so that a POM written by one phase doesn't have to be parsed
+     * again by the next. May be <code>null</code>, in which case every POM is parsed when it is read.
+     */
+    private PomCache pomCache;
+
+    /**
+     * The coordinates shared by the phases of a run, so that the keys of the dependencies of every project are only
+     * built once. May be <code>null</code>, in which case the keys are built each time they are needed.
+     */
+    private CoordinateCache coordinateCache;
+
     /**
      * The line separator to use.
      */
     private static final String LS = System.getProperty( "line.separator" );
 
+    /**
+     * Builds the POM with comment line endings converted to the platform line separator.
+     */
+    private static final JDOMFactory LINE_ENDING_FACTORY = new LineEndingFactory();
+
     /**
      * Configuration item for the suffix to add to rewritten POMs when simulating.
      */
@@ -107,54 +140,207 @@ public abstract class AbstractRewritePomsPhase
                             boolean simulate, ReleaseResult result )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        for ( Iterator it = reactorProjects.iterator(); it.hasNext(); )
+        String pomEditor = releaseDescriptor.getPomEditor();
+        if ( pomEditor != null && !ReleaseDescriptor.POM_EDITOR_JDOM.equals( pomEditor ) &&
+            !ReleaseDescriptor.POM_EDITOR_LOSSLESS.equals( pomEditor ) )
         {
-            MavenProject project = (MavenProject) it.next();
+            throw new ReleaseFailureException( "Unknown POM editor '" + pomEditor + "', expected '" +
+                ReleaseDescriptor.POM_EDITOR_JDOM + "' or '" + ReleaseDescriptor.POM_EDITOR_LOSSLESS + "'" );
+        }
 
-            logInfo( result, "Transforming '" + project.getName() + "'..." );
+        if ( releaseDescriptor.getWorkerThreads() > 1 && reactorProjects.size() > 1 )
+        {
+            transformInParallel( releaseDescriptor, settings, reactorProjects, simulate, result );
+        }
+        else
+        {
+            for ( Iterator it = reactorProjects.iterator(); it.hasNext(); )
+            {
+                MavenProject project = (MavenProject) it.next();
 
-            transformProject( project, releaseDescriptor, settings, reactorProjects, simulate, result );
+                logInfo( result, "Transforming '" + project.getName() + "'..." );
+
+                transformProject( project, releaseDescriptor, settings, reactorProjects, simulate, result );
+            }
         }
+
+        logInfo( result, "Rewrote " + result.getChangedPomCount() + " POM(s), " + result.getUnchangedPomCount() +
+            " POM(s) were unchanged" );
     }
 
-    private static String readXmlFile( File file )
-        throws IOException
+    /**
+     * Reading and writing the POMs of the reactor is independent for each project, so it is done on a pool of worker
+     * threads. The transformation itself records information in the release descriptor that later projects rely on
+     * (such as the original SCM information of their parent), so it is done on the calling thread in reactor order,
+     * which also keeps the logged output in reactor order.
+     */
+    private void transformInParallel( final ReleaseDescriptor releaseDescriptor, Settings settings,
+                                      List reactorProjects, final boolean simulate, ReleaseResult result )
+        throws ReleaseExecutionException, ReleaseFailureException
     {
-        return IOUtil.toString( ReaderFactory.newXmlReader( file ) );
+        ParallelTaskRunner runner = new ParallelTaskRunner( releaseDescriptor.getWorkerThreads() );
+
+        final PomDocument[] poms = new PomDocument[reactorProjects.size()];
+
+        List readTasks = new ArrayList( reactorProjects.size() );
+        for ( int i = 0; i < poms.length; i++ )
+        {
+            final int index = i;
+            final MavenProject project = (MavenProject) reactorProjects.get( i );
+            readTasks.add( new ParallelTaskRunner.Task()
+            {
+                public void run()
+                    throws Exception
+                {
+                    poms[index] = readPom( project, releaseDescriptor );
+                }
+            } );
+        }
+        runner.run( readTasks );
+
+        ScmRepository scmRepository = getScmRepository( releaseDescriptor, settings );
+        ScmProvider provider = getScmProvider( scmRepository );
+
+        List writeTasks = new ArrayList( reactorProjects.size() );
+        for ( int i = 0; i < poms.length; i++ )
+        {
+            final MavenProject project = (MavenProject) reactorProjects.get( i );
+            final PomDocument pom = poms[i];
+
+            logInfo( result, "Transforming '" + project.getName() + "'..." );
+
+            transformDocument( project, pom.document.getRootElement(), releaseDescriptor, reactorProjects,
+                               scmRepository, result );
+
+            addSchema( pom.document, releaseDescriptor, project.getModelVersion() );
+
+            if ( !isChanged( project, pom, result ) && !simulate )
+            {
+                cachePom( project, pom.content, pom );
+                continue;
+            }
+
+            final File pomFile = getOutputPom( project, simulate );
+            if ( !simulate )
+            {
+                enableEditMode( pomFile, releaseDescriptor, scmRepository, provider );
+            }
+
+            writeTasks.add( new ParallelTaskRunner.Task()
+            {
+                public void run()
+                    throws Exception
+                {
+                    byte[] content = writePom( pomFile, pom );
+                    if ( !simulate )
+                    {
+                        cachePom( project, content, pom );
+                    }
+                }
+            } );
+        }
+        runner.run( writeTasks );
     }
 
     private void transformProject( MavenProject project, ReleaseDescriptor releaseDescriptor, Settings settings,
                                    List reactorProjects, boolean simulate, ReleaseResult result )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        Document document;
-        String intro = null;
-        String outtro = null;
+        PomDocument pom = readPom( project, releaseDescriptor );
+
+        ScmRepository scmRepository = getScmRepository( releaseDescriptor, settings );
+        ScmProvider provider = getScmProvider( scmRepository );
+
+        transformDocument( project, pom.document.getRootElement(), releaseDescriptor, reactorProjects, scmRepository,
+                           result );
+
+        addSchema( pom.document, releaseDescriptor, project.getModelVersion() );
+
+        boolean changed = isChanged( project, pom, result );
+
+        File pomFile = getOutputPom( project, simulate );
+
+        if ( simulate )
+        {
+            // the simulated POM is always written so that there is a complete set to inspect
+            writePom( pomFile, pom );
+        }
+        else if ( changed )
+        {
+            byte[] content = writePom( pomFile, pom, releaseDescriptor, scmRepository, provider );
+            cachePom( project, content, pom );
+        }
+        else
+        {
+            cachePom( project, pom.content, pom );
+        }
+    }
+
+    /**
+     * Check whether the transformation changed the POM, recording the outcome in the result. POMs that weren't
+     * changed don't need to be written back out, or edited in the SCM.
+     */
+    private boolean isChanged( MavenProject project, PomDocument pom, ReleaseResult result )
+    {
+        if ( pom.snapshot.isChanged() )
+        {
+            result.setChangedPomCount( result.getChangedPomCount() + 1 );
+            return true;
+        }
+
+        logInfo( result, "No changes to '" + project.getName() + "', leaving the POM as it is" );
+        result.setUnchangedPomCount( result.getUnchangedPomCount() + 1 );
+        return false;
+    }
+
+    /**
+     * Read a POM, borrowing a copy of its parsed form from the cache if it hasn't changed since it was cached.
+     */
+    private PomDocument readPom( MavenProject project, ReleaseDescriptor releaseDescriptor )
+        throws ReleaseExecutionException
+    {
+        File pomFile = ReleaseUtil.getStandardPom( project );
+        PomDocument pom;
         try
         {
-            String content = readXmlFile( ReleaseUtil.getStandardPom( project ) );
-            // we need to eliminate any extra whitespace inside elements, as JDOM will nuke it
-            content = content.replaceAll( "<([^!][^>]*?)\\s{2,}([^>]*?)>", "<$1 $2>" );
-            content = content.replaceAll( "(\\s{2,}|[^\\s])/>", "$1 />" );
+            byte[] content = readPomContent( pomFile );
 
-            SAXBuilder builder = new SAXBuilder();
-            document = builder.build( new StringReader( content ) );
+            String text = null;
+            if ( ReleaseDescriptor.POM_EDITOR_LOSSLESS.equals( releaseDescriptor.getPomEditor() ) )
+            {
+                // keep the original text to splice the changes into
+                text = IOUtil.toString( ReaderFactory.newXmlReader( new ByteArrayInputStream( content ) ) );
+            }
 
-            // Normalize line endings. For some reason, JDOM replaces \r\n inside a comment with \n.
-            normaliseLineEndings( document );
+            PomDocument cached = pomCache != null ? (PomDocument) pomCache.get( pomFile, content ) : null;
+            if ( cached != null )
+            {
+                getLogger().debug( "Reusing the parsed POM " + pomFile );
 
-            // rewrite DOM as a string to find differences, since text outside the root element is not tracked
-            StringWriter w = new StringWriter();
-            Format format = Format.getRawFormat();
-            format.setLineSeparator( LS );
-            XMLOutputter out = new XMLOutputter( format );
-            out.output( document.getRootElement(), w );
+                pom = new PomDocument();
+                pom.document = (Document) cached.document.clone();
+                pom.intro = cached.intro;
+                pom.outtro = cached.outtro;
+            }
+            else
+            {
+                Reader reader;
+                if ( text != null )
+                {
+                    reader = new StringReader( text );
+                }
+                else
+                {
+                    reader = ReaderFactory.newXmlReader( new ByteArrayInputStream( content ) );
+                }
+                pom = parsePom( reader );
+            }
 
-            int index = content.indexOf( w.toString() );
-            if ( index >= 0 )
+            pom.content = content;
+            pom.snapshot = new PomSnapshot( pom.document );
+            if ( text != null )
             {
-                intro = content.substring( 0, index );
-                outtro = content.substring( index + w.toString().length() );
+                pom.editor = new LosslessPomEditor( text, pom.snapshot );
             }
         }
         catch ( JDOMException e )
@@ -165,14 +351,80 @@ public abstract class AbstractRewritePomsPhase
         {
             throw new ReleaseExecutionException( "Error reading POM: " + e.getMessage(), e );
         }
+        return pom;
+    }
 
-        ScmRepository scmRepository;
-        ScmProvider provider;
+    private static byte[] readPomContent( File pomFile )
+        throws IOException
+    {
+        InputStream is = null;
         try
         {
-            scmRepository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+            is = new FileInputStream( pomFile );
+            return IOUtil.toByteArray( is );
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    private static PomDocument parsePom( Reader reader )
+        throws JDOMException, IOException
+    {
+        PomDocument pom = new PomDocument();
+
+        NormalisedPom content;
+        try
+        {
+            // we need to eliminate any extra whitespace inside elements, as JDOM will nuke it
+            content = NormalisedPom.read( reader );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+
+        SAXBuilder builder = new SAXBuilder();
+        // Normalize line endings. For some reason, JDOM replaces \r\n inside a comment with \n.
+        builder.setFactory( LINE_ENDING_FACTORY );
+        pom.document = builder.build( content.getReader() );
+
+        // compare the DOM with the original text, since text outside the root element is not tracked
+        NormalisedPom.RootMatcher matcher = content.createRootMatcher();
+        Format format = Format.getRawFormat();
+        format.setLineSeparator( LS );
+        XMLOutputter out = new XMLOutputter( format );
+        out.output( pom.document.getRootElement(), matcher );
+
+        if ( matcher.isMatch() )
+        {
+            pom.intro = matcher.getIntro();
+            pom.outtro = matcher.getOuttro();
+        }
+        return pom;
+    }
+
+    /**
+     * Hand the POM of a project to the phases that follow, once this phase is finished with it. The document is
+     * only ever copied from then on, so it is shared as it is.
+     *
+     * @param content the content of the POM file, as it was read or written by this phase
+     */
+    private void cachePom( MavenProject project, byte[] content, PomDocument pom )
+    {
+        if ( pomCache != null )
+        {
+            pomCache.put( ReleaseUtil.getStandardPom( project ), content, pom );
+        }
+    }
 
-            provider = scmRepositoryConfigurator.getRepositoryProvider( scmRepository );
+    private ScmRepository getScmRepository( ReleaseDescriptor releaseDescriptor, Settings settings )
+        throws ReleaseFailureException, ReleaseExecutionException
+    {
+        try
+        {
+            return scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
         }
         catch ( ScmRepositoryException e )
         {
@@ -182,32 +434,30 @@ public abstract class AbstractRewritePomsPhase
         {
             throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
         }
+    }
 
-        transformDocument( project, document.getRootElement(), releaseDescriptor, reactorProjects, scmRepository,
-                           result );
-
-        File pomFile = ReleaseUtil.getStandardPom( project );
-
-        if ( simulate )
+    private ScmProvider getScmProvider( ScmRepository scmRepository )
+        throws ReleaseExecutionException
+    {
+        try
         {
-            File outputFile =
-                new File( pomFile.getParentFile(), pomFile.getName() + "." + pomSuffix );
-            writePom( outputFile, document, releaseDescriptor, project.getModelVersion(), intro, outtro );
+            return scmRepositoryConfigurator.getRepositoryProvider( scmRepository );
         }
-        else
+        catch ( NoSuchScmProviderException e )
         {
-            writePom( pomFile, document, releaseDescriptor, project.getModelVersion(), intro, outtro,
-                      scmRepository, provider );
+            throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
         }
     }
 
-    private void normaliseLineEndings( Document document )
+    private File getOutputPom( MavenProject project, boolean simulate )
     {
-        for ( Iterator i = document.getDescendants( new ContentFilter( ContentFilter.COMMENT ) ); i.hasNext(); )
+        File pomFile = ReleaseUtil.getStandardPom( project );
+
+        if ( simulate )
         {
-            Comment c = (Comment) i.next();
-            c.setText( c.getText().replaceAll( "\n", LS ) );
+            pomFile = new File( pomFile.getParentFile(), pomFile.getName() + "." + pomSuffix );
         }
+        return pomFile;
     }
 
     private void transformDocument( MavenProject project, Element rootElement, ReleaseDescriptor releaseDescriptor,
@@ -222,7 +472,7 @@ public abstract class AbstractRewritePomsPhase
 
         String parentVersion = rewriteParent( project, rootElement, namespace, mappedVersions, originalVersions );
 
-        String projectId = ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() );
+        String projectId = versionlessKey( project.getGroupId(), project.getArtifactId() );
 
         rewriteVersion( rootElement, namespace, mappedVersions, projectId, project, parentVersion );
 
@@ -319,7 +569,7 @@ public abstract class AbstractRewritePomsPhase
             Element parentElement = rootElement.getChild( "parent", namespace );
             Element versionElement = parentElement.getChild( "version", namespace );
             MavenProject parent = project.getParent();
-            String key = ArtifactUtils.versionlessKey( parent.getGroupId(), parent.getArtifactId() );
+            String key = versionlessKey( parent.getGroupId(), parent.getArtifactId() );
             parentVersion = (String) mappedVersions.get( key );
             if ( parentVersion == null )
             {
@@ -343,11 +593,12 @@ public abstract class AbstractRewritePomsPhase
     {
         if ( dependencies != null )
         {
-            List dependenciesAlreadyChanged = new ArrayList();
+            Map index = indexElements( dependencyRoot, "dependencies", "dependency" );
+            Set dependenciesAlreadyChanged = new HashSet();
             for ( Iterator i = dependencies.iterator(); i.hasNext(); )
             {
                 Dependency dep = (Dependency) i.next();
-                String depId = ArtifactUtils.versionlessKey( dep.getGroupId(), dep.getArtifactId() );
+                String depId = versionlessKey( dep.getGroupId(), dep.getArtifactId() );
                 if ( !dependenciesAlreadyChanged.contains( depId ) )
                 {
                     //This check is required because updateDomVersion update all dependencies with the current groupId/artifactId
@@ -356,7 +607,7 @@ public abstract class AbstractRewritePomsPhase
                     dependenciesAlreadyChanged.add( depId );
 
                     updateDomVersion( dep.getGroupId(), dep.getArtifactId(), mappedVersions,
-                                      resolvedSnapshotDependencies, dep.getVersion(), originalVersions, "dependencies",
+                                      resolvedSnapshotDependencies, dep.getVersion(), originalVersions, index,
                                       "dependency", dependencyRoot, projectId, properties, result, releaseDescriptor );
                 }
             }
@@ -370,6 +621,7 @@ public abstract class AbstractRewritePomsPhase
     {
         if ( plugins != null )
         {
+            Map index = indexElements( pluginRoot, "plugins", "plugin" );
             for ( Iterator i = plugins.iterator(); i.hasNext(); )
             {
                 Plugin plugin = (Plugin) i.next();
@@ -378,7 +630,7 @@ public abstract class AbstractRewritePomsPhase
                 if ( plugin.getVersion() != null )
                 {
                     updateDomVersion( plugin.getGroupId(), plugin.getArtifactId(), mappedVersions,
-                                      resolvedSnapshotDependencies, plugin.getVersion(), originalVersions, "plugins",
+                                      resolvedSnapshotDependencies, plugin.getVersion(), originalVersions, index,
                                       "plugin", pluginRoot, projectId, properties, result, releaseDescriptor );
                 }
             }
@@ -392,6 +644,7 @@ public abstract class AbstractRewritePomsPhase
     {
         if ( extensions != null )
         {
+            Map index = indexElements( extensionRoot, "extensions", "extension" );
             for ( Iterator i = extensions.iterator(); i.hasNext(); )
             {
                 Extension extension = (Extension) i.next();
@@ -400,7 +653,7 @@ public abstract class AbstractRewritePomsPhase
                 {
                     updateDomVersion( extension.getGroupId(), extension.getArtifactId(), mappedVersions,
                                       resolvedSnapshotDependencies, extension.getVersion(), originalVersions,
-                                      "extensions", "extension", extensionRoot, projectId, properties, result,
+                                      index, "extension", extensionRoot, projectId, properties, result,
                                       releaseDescriptor );
                 }
             }
@@ -414,6 +667,7 @@ public abstract class AbstractRewritePomsPhase
     {
         if ( plugins != null )
         {
+            Map index = indexElements( pluginRoot, "plugins", "plugin" );
             for ( Iterator i = plugins.iterator(); i.hasNext(); )
             {
                 ReportPlugin plugin = (ReportPlugin) i.next();
@@ -422,53 +676,80 @@ public abstract class AbstractRewritePomsPhase
                 if ( plugin.getVersion() != null )
                 {
                     updateDomVersion( plugin.getGroupId(), plugin.getArtifactId(), mappedVersions,
-                                      resolvedSnapshotDependencies, plugin.getVersion(), originalVersions, "plugins",
+                                      resolvedSnapshotDependencies, plugin.getVersion(), originalVersions, index,
                                       "plugin", pluginRoot, projectId, properties, result, releaseDescriptor );
                 }
             }
         }
     }
 
-    private List getDependencies( String groupId, String artifactId, String groupTagName, String tagName,
-                                  Element dependencyRoot )
-        throws JDOMException
+    /**
+     * Index the elements under the grouping element of the given root by their <code>groupId:artifactId</code>, so
+     * that looking up each dependency, plugin or extension doesn't need to search the document again.
+     *
+     * @param root         the element containing the grouping element
+     * @param groupTagName the name of the grouping element, eg <code>dependencies</code>
+     * @param tagName      the name of the elements to index, eg <code>dependency</code>
+     * @return a map of versionless keys to lists of elements
+     */
+    private Map indexElements( Element root, String groupTagName, String tagName )
     {
-        XPath xpath;
-        if ( !StringUtils.isEmpty( dependencyRoot.getNamespaceURI() ) )
-        {
-            xpath = XPath.newInstance( "./pom:" + groupTagName + "/pom:" + tagName + "[pom:groupId='" + groupId +
-                "' and pom:artifactId='" + artifactId + "']" );
-            xpath.addNamespace( "pom", dependencyRoot.getNamespaceURI() );
-        }
-        else
+        Map index = new HashMap();
+
+        Namespace namespace = root.getNamespace();
+        for ( Iterator i = root.getChildren( groupTagName, namespace ).iterator(); i.hasNext(); )
         {
-            xpath = XPath.newInstance( "./" + groupTagName + "/" + tagName + "[groupId='" + groupId +
-                "' and artifactId='" + artifactId + "']" );
+            Element group = (Element) i.next();
+
+            for ( Iterator j = group.getChildren( tagName, namespace ).iterator(); j.hasNext(); )
+            {
+                Element element = (Element) j.next();
+
+                String groupId = element.getChildTextTrim( "groupId", namespace );
+                String artifactId = element.getChildTextTrim( "artifactId", namespace );
+                if ( groupId != null && artifactId != null )
+                {
+                    String key = versionlessKey( groupId, artifactId );
+
+                    List elements = (List) index.get( key );
+                    if ( elements == null )
+                    {
+                        elements = new ArrayList( 1 );
+                        index.put( key, elements );
+                    }
+                    elements.add( element );
+                }
+            }
         }
 
-        List dependencies = xpath.selectNodes( dependencyRoot );
+        return index;
+    }
+
+    private List getDependencies( String groupId, String artifactId, Map index )
+    {
+        List dependencies = (List) index.get( versionlessKey( groupId, artifactId ) );
 
         //MRELEASE-147
-        if ( ( dependencies == null || dependencies.isEmpty() ) && groupId.indexOf( "${" ) == -1 )
+        if ( dependencies == null && groupId.indexOf( "${" ) == -1 )
         {
-            dependencies = getDependencies( "${project.groupId}", artifactId, groupTagName, tagName, dependencyRoot );
+            dependencies = (List) index.get( versionlessKey( "${project.groupId}", artifactId ) );
 
-            if ( dependencies == null || dependencies.isEmpty() )
+            if ( dependencies == null )
             {
-                dependencies = getDependencies( "${pom.groupId}", artifactId, groupTagName, tagName, dependencyRoot );
+                dependencies = (List) index.get( versionlessKey( "${pom.groupId}", artifactId ) );
             }
         }
 
-        return dependencies;
+        return dependencies != null ? dependencies : Collections.EMPTY_LIST;
     }
 
     private void updateDomVersion( String groupId, String artifactId, Map mappedVersions,
                                    Map resolvedSnapshotDepedencies, String version, Map originalVersions,
-                                   String groupTagName, String tagName, Element dependencyRoot, String projectId,
+                                   Map index, String tagName, Element dependencyRoot, String projectId,
                                    Element properties, ReleaseResult result, ReleaseDescriptor releaseDescriptor )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        String key = ArtifactUtils.versionlessKey( groupId, artifactId );
+        String key = versionlessKey( groupId, artifactId );
         String mappedVersion = (String) mappedVersions.get( key );
         String resolvedSnapshotVersion = getResolvedSnapshotVersion( key, resolvedSnapshotDepedencies );
         Object originalVersion = originalVersions.get( key );
@@ -479,140 +760,133 @@ public abstract class AbstractRewritePomsPhase
             originalVersion = getOriginalResolvedSnapshotVersion( key, resolvedSnapshotDepedencies );
         }
 
-        try
+        List dependencies = getDependencies( groupId, artifactId, index );
+
+        for ( Iterator i = dependencies.iterator(); i.hasNext(); )
         {
-            List dependencies = getDependencies( groupId, artifactId, groupTagName, tagName, dependencyRoot );
+            Element dependency = (Element) i.next();
+            String dependencyVersion = "";
+            Element versionElement = dependency.getChild( "version", dependencyRoot.getNamespace() );
+            if ( versionElement != null )
+            {
+                dependencyVersion = versionElement.getTextTrim();
+            }
 
-            for ( Iterator i = dependencies.iterator(); i.hasNext(); )
+            //MRELEASE-220
+            if ( mappedVersion != null && mappedVersion.endsWith( "SNAPSHOT" ) &&
+                !dependencyVersion.endsWith( "SNAPSHOT" ) && !releaseDescriptor.isUpdateDependencies() )
             {
-                Element dependency = (Element) i.next();
-                String dependencyVersion = "";
-                Element versionElement = null;
+                return;
+            }
 
-                if ( dependency != null )
+            if ( version.equals( originalVersion ) || dependencyVersion.equals( originalVersion ) )
+            {
+                if ( ( mappedVersion != null ) || ( resolvedSnapshotVersion != null ) )
                 {
-                    versionElement = dependency.getChild( "version", dependencyRoot.getNamespace() );
+                    logInfo( result, "Updating " + artifactId + " to " +
+                        ( ( mappedVersion != null ) ? mappedVersion : resolvedSnapshotVersion ) );
+
+                    // avoid if in management
                     if ( versionElement != null )
                     {
-                        dependencyVersion = versionElement.getTextTrim();
-                    }
-                }
-
-                //MRELEASE-220
-                if ( mappedVersion != null && mappedVersion.endsWith( "SNAPSHOT" ) &&
-                    !dependencyVersion.endsWith( "SNAPSHOT" ) && !releaseDescriptor.isUpdateDependencies() )
-                {
-                    return;
-                }
+                        if ( mappedVersion == null )
+                        {
+                            versionElement.setText( resolvedSnapshotVersion );
+                            return;
+                        }
 
-                if ( version.equals( originalVersion ) || dependencyVersion.equals( originalVersion ) )
-                {
-                    if ( ( mappedVersion != null ) || ( resolvedSnapshotVersion != null ) )
-                    {
-                        logInfo( result, "Updating " + artifactId + " to " +
-                            ( ( mappedVersion != null ) ? mappedVersion : resolvedSnapshotVersion ) );
+                        String versionText = versionElement.getTextTrim();
 
-                        // If it was inherited, nothing to do
-                        if ( dependency != null )
+                        // avoid if it was not originally set to the original value (it may be an expression), unless mapped version differs
+                        if ( originalVersion.equals( versionText ) ||
+                            !mappedVersion.equals( mappedVersions.get( projectId ) ) )
+                        {
+                            versionElement.setText( mappedVersion );
+                        }
+                        else if ( versionText.matches( "\\$\\{project.+\\}" ) ||
+                            versionText.matches( "\\$\\{pom.+\\}" ) || "${version}".equals( versionText ) )
                         {
-                            // avoid if in management
-                            if ( versionElement != null )
+                            logInfo( result,
+                                     "Ignoring artifact version update for expression: " + versionText );
+                            //ignore... we cannot update this expression
+                        }
+                        else if ( versionText.matches( "\\$\\{.+\\}" ) && properties != null )
+                        {
+                            //version is an expression, check for properties to update instead
+                            String expression = versionText.substring( 2, versionText.length() - 1 );
+                            Element property = properties.getChild( expression, properties.getNamespace() );
+                            if ( property != null )
                             {
-                                if ( mappedVersion == null )
-                                {
-                                    versionElement.setText( resolvedSnapshotVersion );
-                                    return;
-                                }
+                                String propertyValue = property.getTextTrim();
 
-                                String versionText = versionElement.getTextTrim();
-
-                                // avoid if it was not originally set to the original value (it may be an expression), unless mapped version differs
-                                if ( originalVersion.equals( versionText ) ||
-                                    !mappedVersion.equals( mappedVersions.get( projectId ) ) )
+                                if ( originalVersion.equals( propertyValue ) )
                                 {
-                                    versionElement.setText( mappedVersion );
+                                    // change the property only if the property is the same as what's in the reactor
+                                    property.setText( mappedVersion );
                                 }
-                                else if ( versionText.matches( "\\$\\{project.+\\}" ) ||
-                                    versionText.matches( "\\$\\{pom.+\\}" ) || "${version}".equals( versionText ) )
+                                else if ( mappedVersion.equals( propertyValue ))
                                 {
-                                    logInfo( result,
-                                             "Ignoring artifact version update for expression: " + versionText );
-                                    //ignore... we cannot update this expression
+                                   //this property may have been updated during processing a sibling.
+                                    logInfo( result, "Ignoring artifact version update for expression: " +
+                                             mappedVersion+" because it is already updated." );
                                 }
-                                else if ( versionText.matches( "\\$\\{.+\\}" ) && properties != null )
+                                else if ( !mappedVersion.equals( versionText ) )
                                 {
-                                    //version is an expression, check for properties to update instead
-                                    String expression = versionText.substring( 2, versionText.length() - 1 );
-                                    Element property = properties.getChild( expression, properties.getNamespace() );
-                                    if ( property != null )
+                                    if ( mappedVersion.matches( "\\$\\{project.+\\}" ) ||
+                                        mappedVersion.matches( "\\$\\{pom.+\\}" ) ||
+                                        "${version}".equals( mappedVersion ) )
                                     {
-                                        String propertyValue = property.getTextTrim();
-
-                                        if ( originalVersion.equals( propertyValue ) )
-                                        {
-                                            // change the property only if the property is the same as what's in the reactor
-                                            property.setText( mappedVersion );
-                                        }
-                                        else if ( mappedVersion.equals( propertyValue ))
-                                        {
-                                           //this property may have been updated during processing a sibling.
-                                            logInfo( result, "Ignoring artifact version update for expression: " +
-                                                     mappedVersion+" because it is already updated." );
-                                        }
-                                        else if ( !mappedVersion.equals( versionText ) )
-                                        {
-                                            if ( mappedVersion.matches( "\\$\\{project.+\\}" ) ||
-                                                mappedVersion.matches( "\\$\\{pom.+\\}" ) ||
-                                                "${version}".equals( mappedVersion ) )
-                                            {
-                                                logInfo( result, "Ignoring artifact version update for expression: " +
-                                                    mappedVersion );
-                                                //ignore... we cannot update this expression
-                                            }
-                                            else
-                                            {
-                                                // the value of the expression conflicts with what the user wanted to release
-                                                throw new ReleaseFailureException( "The artifact (" + key +
-                                                    ") requires a " + "different version (" + mappedVersion +
-                                                    ") than what is found (" + propertyValue +
-                                                    ") for the expression (" + expression + ") in the " + "project (" +
-                                                    projectId + ")." );
-                                            }
-                                        }
+                                        logInfo( result, "Ignoring artifact version update for expression: " +
+                                            mappedVersion );
+                                        //ignore... we cannot update this expression
                                     }
                                     else
                                     {
-                                        // the expression used to define the version of this artifact may be inherited
-                                        // TODO needs a better error message, what pom? what dependency?
-                                        throw new ReleaseFailureException(
-                                            "The version could not be updated: " + versionText );
+                                        // the value of the expression conflicts with what the user wanted to release
+                                        throw new ReleaseFailureException( "The artifact (" + key +
+                                            ") requires a " + "different version (" + mappedVersion +
+                                            ") than what is found (" + propertyValue +
+                                            ") for the expression (" + expression + ") in the " + "project (" +
+                                            projectId + ")." );
                                     }
                                 }
-                                else
-                                {
-                                    // the version for this artifact could not be updated.
-                                    throw new ReleaseFailureException(
-                                        "The version could not be updated: " + versionText );
-                                }
+                            }
+                            else
+                            {
+                                // the expression used to define the version of this artifact may be inherited
+                                // TODO needs a better error message, what pom? what dependency?
+                                throw new ReleaseFailureException(
+                                    "The version could not be updated: " + versionText );
                             }
                         }
+                        else
+                        {
+                            // the version for this artifact could not be updated.
+                            throw new ReleaseFailureException(
+                                "The version could not be updated: " + versionText );
+                        }
                     }
-                    else
-                    {
-                        throw new ReleaseFailureException(
-                            "Version '" + version + "' for " + tagName + " '" + key + "' was not mapped" );
-                    }
+                }
+                else
+                {
+                    throw new ReleaseFailureException(
+                        "Version '" + version + "' for " + tagName + " '" + key + "' was not mapped" );
                 }
             }
         }
-        catch ( JDOMException e )
-        {
-            throw new ReleaseExecutionException( "Unable to locate " + tagName + " to process in document", e );
-        }
     }
 
-    private void writePom( File pomFile, Document document, ReleaseDescriptor releaseDescriptor, String modelVersion,
-                           String intro, String outtro, ScmRepository repository, ScmProvider provider )
+    private byte[] writePom( File pomFile, PomDocument pom, ReleaseDescriptor releaseDescriptor,
+                             ScmRepository repository, ScmProvider provider )
+        throws ReleaseExecutionException, ReleaseScmCommandException
+    {
+        enableEditMode( pomFile, releaseDescriptor, repository, provider );
+
+        return writePom( pomFile, pom );
+    }
+
+    private void enableEditMode( File pomFile, ReleaseDescriptor releaseDescriptor, ScmRepository repository,
+                                 ScmProvider provider )
         throws ReleaseExecutionException, ReleaseScmCommandException
     {
         try
@@ -632,13 +906,9 @@ public abstract class AbstractRewritePomsPhase
         {
             throw new ReleaseExecutionException( "An error occurred enabling edit mode: " + e.getMessage(), e );
         }
-
-        writePom( pomFile, document, releaseDescriptor, modelVersion, intro, outtro );
     }
 
-    private void writePom( File pomFile, Document document, ReleaseDescriptor releaseDescriptor, String modelVersion,
-                           String intro, String outtro )
-        throws ReleaseExecutionException
+    private void addSchema( Document document, ReleaseDescriptor releaseDescriptor, String modelVersion )
     {
         Element rootElement = document.getRootElement();
 
@@ -647,7 +917,10 @@ public abstract class AbstractRewritePomsPhase
             Namespace pomNamespace = Namespace.getNamespace( "", "http://maven.apache.org/POM/" + modelVersion );
             rootElement.setNamespace( pomNamespace );
             Namespace xsiNamespace = Namespace.getNamespace( "xsi", "http://www.w3.org/2001/XMLSchema-instance" );
-            rootElement.addNamespaceDeclaration( xsiNamespace );
+            if ( !xsiNamespace.equals( rootElement.getNamespace( xsiNamespace.getPrefix() ) ) )
+            {
+                rootElement.addNamespaceDeclaration( xsiNamespace );
+            }
 
             if ( rootElement.getAttribute( "schemaLocation", xsiNamespace ) == null )
             {
@@ -663,26 +936,58 @@ public abstract class AbstractRewritePomsPhase
                 e.setNamespace( pomNamespace );
             }
         }
+    }
+
+    /**
+     * Write a POM out to a file.
+     *
+     * @return the content written to the file
+     */
+    private byte[] writePom( File pomFile, PomDocument pom )
+        throws ReleaseExecutionException
+    {
+        String text = null;
+        if ( pom.editor != null )
+        {
+            text = pom.editor.edit();
+            if ( text == null )
+            {
+                getLogger().debug( "Unable to splice the changes into " + pomFile + ", writing the whole document" );
+            }
+        }
 
+        ByteArrayOutputStream content = new ByteArrayOutputStream( pom.content.length + 256 );
         Writer writer = null;
+        OutputStream os = null;
         try
         {
-            writer = WriterFactory.newXmlWriter( pomFile );
+            writer = WriterFactory.newXmlWriter( content );
 
-            if ( intro != null )
+            if ( text != null )
             {
-                writer.write( intro );
+                writer.write( text );
             }
+            else
+            {
+                if ( pom.intro != null )
+                {
+                    writer.write( pom.intro );
+                }
 
-            Format format = Format.getRawFormat();
-            format.setLineSeparator( LS );
-            XMLOutputter out = new XMLOutputter( format );
-            out.output( document.getRootElement(), writer );
+                Format format = Format.getRawFormat();
+                format.setLineSeparator( LS );
+                XMLOutputter out = new XMLOutputter( format );
+                out.output( pom.document.getRootElement(), writer );
 
-            if ( outtro != null )
-            {
-                writer.write( outtro );
+                if ( pom.outtro != null )
+                {
+                    writer.write( pom.outtro );
+                }
             }
+            writer.close();
+
+            os = new FileOutputStream( pomFile );
+            content.writeTo( os );
         }
         catch ( IOException e )
         {
@@ -691,7 +996,9 @@ public abstract class AbstractRewritePomsPhase
         finally
         {
             IOUtil.close( writer );
+            IOUtil.close( os );
         }
+        return content.toByteArray();
     }
 
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
@@ -796,4 +1103,45 @@ public abstract class AbstractRewritePomsPhase
         }
         return tagElement;
     }
+
+    private String versionlessKey( String groupId, String artifactId )
+    {
+        return coordinateCache != null ? coordinateCache.versionlessKey( groupId, artifactId )
+            : ArtifactUtils.versionlessKey( groupId, artifactId );
+    }
+
+    /**
+     * Creates comments with their line endings converted to the platform line separator.
+     */
+    private static class LineEndingFactory
+        extends DefaultJDOMFactory
+    {
+        public Comment comment( String text )
+        {
+            if ( !"\n".equals( LS ) && text.indexOf( '\n' ) >= 0 )
+            {
+                text = StringUtils.replace( text, "\n", LS );
+            }
+            return super.comment( text );
+        }
+    }
+
+    /**
+     * A parsed POM, along with the text surrounding the root element that JDOM doesn't preserve. When it is cached,
+     * only the document and the surrounding text are borrowed from it.
+     */
+    private static class PomDocument
+    {
+        private byte[] content;
+
+        private Document document;
+
+        private String intro;
+
+        private String outtro;
+
+        private PomSnapshot snapshot;
+
+        private LosslessPomEditor editor;
+    }
 }
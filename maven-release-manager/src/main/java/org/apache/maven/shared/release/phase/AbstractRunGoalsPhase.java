@@ -24,9 +24,11 @@ import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.exec.MavenExecutor;
 import org.apache.maven.shared.release.exec.MavenExecutorException;
+import org.apache.maven.shared.release.trace.ActivityTracer;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.util.Map;
 
 /**
  * Run the integration tests for the project to verify that it builds before committing.
@@ -43,6 +45,20 @@ public abstract class AbstractRunGoalsPhase
      */
     private MavenExecutor mavenExecutor;
 
+    /**
+     * The Maven executors that can be chosen in the release descriptor, by role hint.
+     *
+     * @plexus.requirement role="org.apache.maven.shared.release.exec.MavenExecutor"
+     */
+    private Map mavenExecutors;
+
+    /**
+     * Reports the Maven executions while tracing.
+     *
+     * @plexus.requirement
+     */
+    private ActivityTracer activityTracer;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, File workingDirectory,
                                   String additionalArguments )
         throws ReleaseExecutionException
@@ -56,9 +72,26 @@ public abstract class AbstractRunGoalsPhase
             {
                 logInfo( result, "Executing goals '" + goals + "'..." );
 
-                mavenExecutor.executeGoals( determineWorkingDirectory( workingDirectory,
-                                                                       releaseDescriptor.getScmRelativePathProjectDirectory() ),
-                                            goals, releaseDescriptor.isInteractive(), additionalArguments, result );
+                String relativePath = releaseDescriptor.getScmRelativePathProjectDirectory();
+                File executionDirectory = determineWorkingDirectory( workingDirectory, relativePath );
+
+                long startTime = System.currentTimeMillis();
+                try
+                {
+                    getMavenExecutor( releaseDescriptor ).executeGoals( executionDirectory, goals,
+                                                                        releaseDescriptor.isInteractive(),
+                                                                        getArguments( releaseDescriptor,
+                                                                                      additionalArguments ),
+                                                                        result );
+                }
+                finally
+                {
+                    if ( activityTracer != null )
+                    {
+                        activityTracer.activityFinished( ActivityTracer.MAVEN, "mvn " + goals, startTime,
+                                                         System.currentTimeMillis() - startTime );
+                    }
+                }
             }
         }
         catch ( MavenExecutorException e )
@@ -78,6 +111,51 @@ public abstract class AbstractRunGoalsPhase
 
     protected abstract String getGoals( ReleaseDescriptor releaseDescriptor );
 
+    /**
+     * Add the arguments for how the build is run that the release descriptor asks for to the additional arguments.
+     */
+    private static String getArguments( ReleaseDescriptor releaseDescriptor, String additionalArguments )
+    {
+        StringBuffer arguments = new StringBuffer();
+        String threads = releaseDescriptor.getBuildThreads();
+        // a number of threads asks for a parallel build on its own
+        if ( releaseDescriptor.isParallelBuild() || !StringUtils.isEmpty( threads ) )
+        {
+            arguments.append( "-T " ).append( StringUtils.isEmpty( threads ) ? "1C" : threads ).append( ' ' );
+        }
+        if ( releaseDescriptor.isOfflineBuild() )
+        {
+            arguments.append( "--offline " );
+        }
+
+        if ( arguments.length() == 0 )
+        {
+            return additionalArguments;
+        }
+        if ( !StringUtils.isEmpty( additionalArguments ) )
+        {
+            arguments.append( additionalArguments );
+        }
+        return arguments.toString().trim();
+    }
+
+    private MavenExecutor getMavenExecutor( ReleaseDescriptor releaseDescriptor )
+        throws ReleaseExecutionException
+    {
+        String id = releaseDescriptor.getMavenExecutorId();
+        if ( id == null )
+        {
+            return mavenExecutor;
+        }
+
+        MavenExecutor executor = mavenExecutors != null ? (MavenExecutor) mavenExecutors.get( id ) : null;
+        if ( executor == null )
+        {
+            throw new ReleaseExecutionException( "Unknown Maven executor '" + id + "'" );
+        }
+        return executor;
+    }
+
     /**
      * Determines the path of the working directory. By default, this is the
      * checkout directory. For some SCMs, the project root directory is not the
@@ -0,0 +1,138 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.exec.BuildOutputArchive;
+import org.apache.maven.shared.release.util.ReleaseUtil;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Archive the outputs of the build run with the preparation goals, so that performing the release can reuse them
+ * instead of building the same sources again.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.phase.ReleasePhase" role-hint="archive-build-outputs"
+ */
+public class ArchiveBuildOutputsPhase
+    extends AbstractReleasePhase
+{
+    /**
+     * @plexus.requirement
+     */
+    private BuildOutputArchive buildOutputArchive;
+
+    public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
+    {
+        ReleaseResult result = new ReleaseResult();
+
+        if ( isArchiving( releaseDescriptor ) )
+        {
+            String tag = releaseDescriptor.getScmReleaseLabel();
+            logInfo( result, "Archiving the build outputs for " + tag + "..." );
+
+            List buildDirectories = new ArrayList();
+            for ( Iterator i = reactorProjects.iterator(); i.hasNext(); )
+            {
+                MavenProject project = (MavenProject) i.next();
+                buildDirectories.add( new File( project.getBuild().getDirectory() ) );
+            }
+
+            File workingDirectory = new File( releaseDescriptor.getWorkingDirectory() );
+            try
+            {
+                buildOutputArchive.archive( workingDirectory, buildDirectories, tag,
+                                            new File( workingDirectory, BuildOutputArchive.DIRECTORY ) );
+            }
+            catch ( IOException e )
+            {
+                // performing the release builds them again instead
+                logWarn( result, "Unable to archive the build outputs: " + e.getMessage() );
+            }
+        }
+        else
+        {
+            logInfo( result, "Not archiving the build outputs" );
+        }
+
+        result.setResultCode( ReleaseResult.SUCCESS );
+
+        return result;
+    }
+
+    public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
+    {
+        ReleaseResult result = new ReleaseResult();
+
+        if ( isArchiving( releaseDescriptor ) )
+        {
+            logInfo( result, "Full run would be archiving the build outputs for " +
+                releaseDescriptor.getScmReleaseLabel() );
+        }
+
+        result.setResultCode( ReleaseResult.SUCCESS );
+
+        return result;
+    }
+
+    public ReleaseResult clean( List reactorProjects )
+    {
+        ReleaseResult result = new ReleaseResult();
+
+        if ( !reactorProjects.isEmpty() )
+        {
+            MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+            File archiveDirectory = new File( rootProject.getBasedir(), BuildOutputArchive.DIRECTORY );
+            try
+            {
+                FileUtils.deleteDirectory( archiveDirectory );
+            }
+            catch ( IOException e )
+            {
+                logWarn( result, "Unable to delete " + archiveDirectory + ": " + e.getMessage() );
+            }
+        }
+
+        result.setResultCode( ReleaseResult.SUCCESS );
+
+        return result;
+    }
+
+    public void setBuildOutputArchive( BuildOutputArchive buildOutputArchive )
+    {
+        this.buildOutputArchive = buildOutputArchive;
+    }
+
+    private static boolean isArchiving( ReleaseDescriptor releaseDescriptor )
+    {
+        return releaseDescriptor.isReuseBuildOutputs() &&
+            !StringUtils.isEmpty( releaseDescriptor.getPreparationGoals() ) &&
+            releaseDescriptor.getScmReleaseLabel() != null;
+    }
+}
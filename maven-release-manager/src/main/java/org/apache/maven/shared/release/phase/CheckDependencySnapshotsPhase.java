@@ -29,6 +29,8 @@ import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.util.CoordinateCache;
+import org.apache.maven.shared.release.util.ParallelTaskRunner;
 import org.apache.maven.shared.release.versions.DefaultVersionInfo;
 import org.apache.maven.shared.release.versions.VersionInfo;
 import org.apache.maven.shared.release.versions.VersionParseException;
@@ -56,6 +58,14 @@ import java.util.Set;
 public class CheckDependencySnapshotsPhase
     extends AbstractReleasePhase
 {
+    /**
+     * The resolved snapshots are written to the same release descriptor as the SCM configuration, and it isn't safe for
+     * concurrent updates, so this phase isn't run alongside those that change the SCM configuration.
+     */
+    private static final Set INPUTS = states( new String[]{STATE_POMS, STATE_SCM_CONFIGURATION} );
+
+    private static final Set OUTPUTS = states( new String[]{STATE_SNAPSHOT_RESOLUTION, STATE_PROMPTER} );
+
     public static final String RESOLVE_SNAPSHOT_MESSAGE = "There are still some remaining snapshot dependencies.";
 
     public static final String RESOLVE_SNAPSHOT_PROMPT = "Do you want to resolve them now?";
@@ -90,6 +100,15 @@ public class CheckDependencySnapshotsPhase
      */
     private ArtifactFactory artifactFactory;
 
+    /**
+     * The coordinates shared by the phases of a run, so that the keys of the artifacts each project shares with the
+     * others are only built once. May be <code>null</code>, in which case the keys are built each time they are
+     * needed.
+     *
+     * @plexus.requirement
+     */
+    private CoordinateCache coordinateCache;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
@@ -97,13 +116,37 @@ public class CheckDependencySnapshotsPhase
 
         logInfo( result, "Checking dependencies and plugins for snapshots ..." );
 
-        Map originalVersions = releaseDescriptor.getOriginalVersions( reactorProjects );
+        final Map originalVersions = releaseDescriptor.getOriginalVersions( reactorProjects );
+        final ReleaseDescriptor descriptor = releaseDescriptor;
 
-        for ( Iterator i = reactorProjects.iterator(); i.hasNext(); )
+        // finding the snapshots only reads the projects, so it is done for all of them at once, while prompting
+        // about them is done afterwards, a project at a time in reactor order
+        final ProjectSnapshots[] snapshots = new ProjectSnapshots[reactorProjects.size()];
+        List tasks = new ArrayList();
+        for ( int i = 0; i < snapshots.length; i++ )
         {
-            MavenProject project = (MavenProject) i.next();
+            final int index = i;
+            final MavenProject project = (MavenProject) reactorProjects.get( i );
+            tasks.add( new ParallelTaskRunner.Task()
+            {
+                public void run()
+                    throws Exception
+                {
+                    snapshots[index] = findSnapshots( project, originalVersions, descriptor );
+                }
+            } );
+        }
+
+        Throwable[] failures = new ParallelTaskRunner( releaseDescriptor.getWorkerThreads() ).execute( tasks );
+
+        for ( int i = 0; i < snapshots.length; i++ )
+        {
+            if ( failures[i] != null )
+            {
+                ParallelTaskRunner.rethrow( failures[i] );
+            }
 
-            checkProject( project, originalVersions, releaseDescriptor );
+            checkProject( snapshots[i], releaseDescriptor );
         }
 
         result.setResultCode( ReleaseResult.SUCCESS );
@@ -111,21 +154,26 @@ public class CheckDependencySnapshotsPhase
         return result;
     }
 
-    private void checkProject( MavenProject project, Map originalVersions, ReleaseDescriptor releaseDescriptor )
-        throws ReleaseFailureException, ReleaseExecutionException
+    private ProjectSnapshots findSnapshots( MavenProject project, Map originalVersions,
+                                            ReleaseDescriptor releaseDescriptor )
+        throws ReleaseExecutionException
     {
-        Map artifactMap = ArtifactUtils.artifactMapByVersionlessId( project.getArtifacts() );
-        
-        Set snapshotDependencies = new HashSet();
-        Set snapshotReportDependencies = new HashSet();
-        Set snapshotExtensionsDependencies = new HashSet();
-        Set snapshotPluginDependencies = new HashSet();
+        // the resolved artifacts by versionless key, as ArtifactUtils.artifactMapByVersionlessId would map them
+        Map artifactMap = new HashMap();
+        for ( Iterator i = project.getArtifacts().iterator(); i.hasNext(); )
+        {
+            Artifact artifact = (Artifact) i.next();
+
+            artifactMap.put( versionlessKey( artifact.getGroupId(), artifact.getArtifactId() ), artifact );
+        }
+
+        ProjectSnapshots snapshots = new ProjectSnapshots( project );
 
         if ( project.getParentArtifact() != null )
         {
             if ( checkArtifact( project.getParentArtifact(), originalVersions, artifactMap, releaseDescriptor ) )
             {
-                snapshotDependencies.add( project.getParentArtifact() );
+                snapshots.dependencies.add( project.getParentArtifact() );
             }
         }
 
@@ -139,7 +187,7 @@ public class CheckDependencySnapshotsPhase
 
                 if ( checkArtifact( artifact, originalVersions, artifactMap, releaseDescriptor ) )
                 {
-                    snapshotDependencies.add( artifact );
+                    snapshots.dependencies.add( artifact );
                 }
             }
         }
@@ -154,46 +202,14 @@ public class CheckDependencySnapshotsPhase
 
             if ( checkArtifact( artifact, originalVersions, artifactMap, releaseDescriptor ) )
             {
-                boolean addToFailures = true;
-
                 if ( "org.apache.maven.plugins".equals( artifact.getGroupId() ) &&
                     "maven-release-plugin".equals( artifact.getArtifactId() ) )
                 {
-                    // It's a snapshot of the release plugin. Maybe just testing - ask
-                    // By default, we fail as for any other plugin
-                    if ( releaseDescriptor.isInteractive() )
-                    {
-                        try
-                        {
-                            String result = "no";
-                            if ( !releaseDescriptor.isSnapshotReleasePluginAllowed() )
-                            {
-                                prompter.showMessage(
-                                    "This project relies on a SNAPSHOT of the release plugin. This may be necessary during testing." );
-                                result = prompter.prompt( "Do you want to continue with the release?",
-                                                          Arrays.asList( new String[]{"yes", "no"} ), "no" );
-                            }
-                            else
-                            {
-                                result = "yes";
-                            }
-
-                            if ( result.toLowerCase().startsWith( "y" ) )
-                            {
-                                addToFailures = false;
-                                releaseDescriptor.setSnapshotReleasePluginAllowed( true );
-                            }
-                        }
-                        catch ( PrompterException e )
-                        {
-                            throw new ReleaseExecutionException( e.getMessage(), e );
-                        }
-                    }
+                    snapshots.releasePlugins.add( artifact );
                 }
-
-                if ( addToFailures )
+                else
                 {
-                    snapshotPluginDependencies.add( artifact );
+                    snapshots.plugins.add( artifact );
                 }
             }
         }
@@ -204,8 +220,7 @@ public class CheckDependencySnapshotsPhase
 
             if ( checkArtifact( artifact, originalVersions, artifactMap, releaseDescriptor ) )
             {
-                //snapshotDependencies.add( artifact );
-                snapshotReportDependencies.add( artifact );
+                snapshots.reports.add( artifact );
             }
         }
 
@@ -215,7 +230,61 @@ public class CheckDependencySnapshotsPhase
 
             if ( checkArtifact( artifact, originalVersions, artifactMap, releaseDescriptor ) )
             {
-                snapshotExtensionsDependencies.add( artifact );
+                snapshots.extensions.add( artifact );
+            }
+        }
+
+        return snapshots;
+    }
+
+    private void checkProject( ProjectSnapshots snapshots, ReleaseDescriptor releaseDescriptor )
+        throws ReleaseFailureException, ReleaseExecutionException
+    {
+        Set snapshotDependencies = snapshots.dependencies;
+        Set snapshotReportDependencies = snapshots.reports;
+        Set snapshotExtensionsDependencies = snapshots.extensions;
+        Set snapshotPluginDependencies = snapshots.plugins;
+
+        for ( Iterator i = snapshots.releasePlugins.iterator(); i.hasNext(); )
+        {
+            Artifact artifact = (Artifact) i.next();
+
+            boolean addToFailures = true;
+
+            // It's a snapshot of the release plugin. Maybe just testing - ask
+            // By default, we fail as for any other plugin
+            if ( releaseDescriptor.isInteractive() )
+            {
+                try
+                {
+                    String result = "no";
+                    if ( !releaseDescriptor.isSnapshotReleasePluginAllowed() )
+                    {
+                        prompter.showMessage(
+                            "This project relies on a SNAPSHOT of the release plugin. This may be necessary during testing." );
+                        result = prompter.prompt( "Do you want to continue with the release?",
+                                                  Arrays.asList( new String[]{"yes", "no"} ), "no" );
+                    }
+                    else
+                    {
+                        result = "yes";
+                    }
+
+                    if ( result.toLowerCase().startsWith( "y" ) )
+                    {
+                        addToFailures = false;
+                        releaseDescriptor.setSnapshotReleasePluginAllowed( true );
+                    }
+                }
+                catch ( PrompterException e )
+                {
+                    throw new ReleaseExecutionException( e.getMessage(), e );
+                }
+            }
+
+            if ( addToFailures )
+            {
+                snapshotPluginDependencies.add( artifact );
             }
         }
 
@@ -231,6 +300,8 @@ public class CheckDependencySnapshotsPhase
             if ( !snapshotDependencies.isEmpty() || !snapshotReportDependencies.isEmpty() ||
                 !snapshotExtensionsDependencies.isEmpty() || !snapshotPluginDependencies.isEmpty() )
             {
+                MavenProject project = snapshots.project;
+
                 StringBuffer message = new StringBuffer();
 
                 printSnapshotDependencies( snapshotDependencies, message );
@@ -245,9 +316,10 @@ public class CheckDependencySnapshotsPhase
         }
     }
 
-    private static boolean checkArtifact( Artifact artifact, Map originalVersions, Map artifactMapByVersionlessId, ReleaseDescriptor releaseDescriptor )
+    private boolean checkArtifact( Artifact artifact, Map originalVersions, Map artifactMapByVersionlessId,
+                                   ReleaseDescriptor releaseDescriptor )
     {
-        String versionlessId = ArtifactUtils.versionlessKey( artifact );
+        String versionlessId = versionlessKey( artifact.getGroupId(), artifact.getArtifactId() );
         Artifact checkArtifact = (Artifact) artifactMapByVersionlessId.get( versionlessId );
         
         if ( checkArtifact == null)
@@ -258,9 +330,9 @@ public class CheckDependencySnapshotsPhase
         return checkArtifact( checkArtifact, originalVersions, releaseDescriptor );
     }
     
-    private static boolean checkArtifact( Artifact artifact, Map originalVersions, ReleaseDescriptor releaseDescriptor )
+    private boolean checkArtifact( Artifact artifact, Map originalVersions, ReleaseDescriptor releaseDescriptor )
     {
-        String versionlessArtifactKey = ArtifactUtils.versionlessKey( artifact.getGroupId(), artifact.getArtifactId() );
+        String versionlessArtifactKey = versionlessKey( artifact.getGroupId(), artifact.getArtifactId() );
 
         // We are only looking at dependencies external to the project - ignore anything found in the reactor as
         // it's version will be updated
@@ -425,4 +497,44 @@ public class CheckDependencySnapshotsPhase
 
         return resolvedSnapshots;
     }
+
+    public Set getInputs()
+    {
+        return INPUTS;
+    }
+
+    public Set getOutputs()
+    {
+        return OUTPUTS;
+    }
+
+    private String versionlessKey( String groupId, String artifactId )
+    {
+        return coordinateCache != null ? coordinateCache.versionlessKey( groupId, artifactId )
+            : ArtifactUtils.versionlessKey( groupId, artifactId );
+    }
+
+    /**
+     * The snapshots found in a project, before the user is asked about them.
+     */
+    private static class ProjectSnapshots
+    {
+        private final MavenProject project;
+
+        private final Set dependencies = new HashSet();
+
+        private final Set reports = new HashSet();
+
+        private final Set extensions = new HashSet();
+
+        private final Set plugins = new HashSet();
+
+        // snapshots of the release plugin, which the user may allow
+        private final Set releasePlugins = new HashSet();
+
+        private ProjectSnapshots( MavenProject project )
+        {
+            this.project = project;
+        }
+    }
 }
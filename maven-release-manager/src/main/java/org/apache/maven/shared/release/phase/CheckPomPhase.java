@@ -35,6 +35,7 @@ import org.codehaus.plexus.util.StringUtils;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Phase that checks the validity of the POM before release.
@@ -45,6 +46,10 @@ import java.util.List;
 public class CheckPomPhase
     extends AbstractReleasePhase
 {
+    private static final Set INPUTS = states( new String[]{STATE_POMS, STATE_SCM_CONFIGURATION} );
+
+    private static final Set OUTPUTS = states( new String[]{STATE_SCM_CONFIGURATION} );
+
     /**
      * Retrieve an SCM repository, useful for validating an URL.
      *
@@ -122,4 +127,14 @@ public class CheckPomPhase
         // It makes no modifications, so simulate is the same as execute
         return execute( releaseDescriptor, settings, reactorProjects );
     }
+
+    public Set getInputs()
+    {
+        return INPUTS;
+    }
+
+    public Set getOutputs()
+    {
+        return OUTPUTS;
+    }
 }
@@ -19,10 +19,15 @@ package org.apache.maven.shared.release.phase;
  * under the License.
  */
 
+import org.apache.maven.scm.NoSuchCommandScmException;
 import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmFileStatus;
 import org.apache.maven.scm.ScmTag;
 import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.repository.ScmRepository;
@@ -32,16 +37,27 @@ import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.scm.CheckoutStrategy;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
 import org.apache.maven.shared.release.util.ReleaseUtil;
+import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 /**
  * @author <a href="mailto:evenisse@apache.org">Emmanuel Venisse</a>
@@ -51,6 +67,11 @@ import java.util.List;
 public class CheckoutProjectFromScm
     extends AbstractReleasePhase
 {
+    /**
+     * The property of the checkout record that holds the directory of the project within the checkout.
+     */
+    private static final String RELATIVE_PATH = "relativePathProjectDirectory";
+
     /**
      * Tool that gets a configured SCM repository from release configuration.
      *
@@ -58,6 +79,13 @@ public class CheckoutProjectFromScm
      */
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * The ways of checking out the tag, by role hint.
+     *
+     * @plexus.requirement role="org.apache.maven.shared.release.scm.CheckoutStrategy"
+     */
+    private Map checkoutStrategies;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
@@ -102,50 +130,321 @@ public class CheckoutProjectFromScm
             checkoutDirectory = new File( releaseDescriptor.getCheckoutDirectory() );
         }
 
-        if ( checkoutDirectory.exists() )
+        // before an earlier checkout is removed, so that a misspelt strategy doesn't cost it
+        CheckoutStrategy strategy = getCheckoutStrategy( releaseDescriptor );
+
+        if ( !releaseDescriptor.isIncrementalCheckout() ||
+            !updateCheckout( releaseDescriptor, provider, repository, checkoutDirectory, result ) )
         {
+            getCheckoutRecord( checkoutDirectory ).delete();
+            clearCheckoutDirectory( checkoutDirectory, result );
+
+            CheckOutScmResult scmResult;
+
             try
             {
-                FileUtils.deleteDirectory( checkoutDirectory );
+                scmResult = checkOut( releaseDescriptor, strategy, provider, repository, checkoutDirectory, result );
             }
-            catch ( IOException e )
+            catch ( ScmException e )
             {
                 result.setResultCode( ReleaseResult.ERROR );
                 logError( result, e.getMessage() );
 
-                throw new ReleaseExecutionException( "Unable to remove old checkout directory: " + e.getMessage(), e );
+                throw new ReleaseExecutionException( "An error is occurred in the checkout process: " + e.getMessage(),
+                                                     e );
+            }
+
+            releaseDescriptor.setScmRelativePathProjectDirectory( scmResult.getRelativePathProjectDirectory() );
+            if ( !scmResult.isSuccess() )
+            {
+                result.setResultCode( ReleaseResult.ERROR );
+                logError( result, scmResult.getProviderMessage() );
+
+                throw new ReleaseScmCommandException( "Unable to checkout from SCM", scmResult );
+            }
+
+            if ( releaseDescriptor.isIncrementalCheckout() )
+            {
+                writeCheckoutRecord( checkoutDirectory, scmResult.getRelativePathProjectDirectory(), result );
             }
         }
 
-        checkoutDirectory.mkdirs();
+        result.setResultCode( ReleaseResult.SUCCESS );
+
+        return result;
+    }
+
+    /**
+     * Bring the checkout of an earlier attempt up to date with the tag, so that a retried perform doesn't check
+     * everything out again. The checkout is only reused if it is a working copy without local changes to the files
+     * it tracks, and that was recorded when it was checked out, as the directory of the project within it is only
+     * known from the checkout. Untracked files, and the build directories of the projects in it, are removed before
+     * it is updated.
+     *
+     * @return whether the checkout was updated, or has to be checked out again
+     */
+    private boolean updateCheckout( ReleaseDescriptor releaseDescriptor, ScmProvider provider,
+                                    ScmRepository repository, File checkoutDirectory, ReleaseResult result )
+        throws ReleaseExecutionException
+    {
+        String[] contents = checkoutDirectory.list();
+        if ( contents == null || contents.length == 0 )
+        {
+            return false;
+        }
+
+        Properties record = readCheckoutRecord( checkoutDirectory );
+        if ( record == null )
+        {
+            logWarn( result, "Not reusing the existing checkout, as it wasn't recorded when it was checked out" +
+                " - checking it out again" );
 
-        CheckOutScmResult scmResult;
+            return false;
+        }
 
+        ScmFileSet fileSet = new ScmFileSet( checkoutDirectory );
+
+        String reason = null;
         try
         {
-            scmResult = provider.checkOut( repository, new ScmFileSet( checkoutDirectory ),
-                                           new ScmTag( releaseDescriptor.getScmReleaseLabel() ) );
+            StatusScmResult statusResult = provider.status( repository, fileSet );
+            if ( !statusResult.isSuccess() )
+            {
+                reason = "its status can't be checked: " + statusResult.getProviderMessage();
+            }
+
+            List untracked = new ArrayList();
+            for ( Iterator i = statusResult.getChangedFiles().iterator(); i.hasNext() && reason == null; )
+            {
+                ScmFile file = (ScmFile) i.next();
+                if ( ScmFileStatus.UNKNOWN.equals( file.getStatus() ) )
+                {
+                    untracked.add( file.getPath() );
+                }
+                else
+                {
+                    reason = "it has local changes to " + file.getPath();
+                }
+            }
+
+            if ( reason == null )
+            {
+                removeBuildOutputs( checkoutDirectory, untracked );
+
+                UpdateScmResult updateResult =
+                    provider.update( repository, fileSet, new ScmTag( releaseDescriptor.getScmReleaseLabel() ) );
+                if ( updateResult.isSuccess() )
+                {
+                    logInfo( result, "Updated the existing checkout in " + checkoutDirectory + " to the tag" );
+
+                    releaseDescriptor.setScmRelativePathProjectDirectory( record.getProperty( RELATIVE_PATH ) );
+
+                    return true;
+                }
+                reason = "it can't be updated to the tag: " + updateResult.getProviderMessage();
+            }
         }
         catch ( ScmException e )
         {
-            result.setResultCode( ReleaseResult.ERROR );
-            logError( result, e.getMessage() );
+            reason = e.getMessage();
+        }
+        catch ( IOException e )
+        {
+            reason = "its build outputs can't be removed: " + e.getMessage();
+        }
+
+        logWarn( result, "Not reusing the existing checkout, as " + reason + " - checking it out again" );
 
-            throw new ReleaseExecutionException( "An error is occurred in the checkout process: " + e.getMessage(), e );
+        return false;
+    }
+
+    /**
+     * The file recording a complete checkout. It is kept beside the checkout rather than in it, so that it isn't
+     * an untracked file of the checkout.
+     */
+    private static File getCheckoutRecord( File checkoutDirectory )
+    {
+        return new File( checkoutDirectory.getParentFile(), checkoutDirectory.getName() + ".properties" );
+    }
+
+    private static Properties readCheckoutRecord( File checkoutDirectory )
+        throws ReleaseExecutionException
+    {
+        File file = getCheckoutRecord( checkoutDirectory );
+        if ( !file.exists() )
+        {
+            return null;
         }
 
-        releaseDescriptor.setScmRelativePathProjectDirectory( scmResult.getRelativePathProjectDirectory());
-        if ( !scmResult.isSuccess() )
+        Properties record = new Properties();
+        InputStream in = null;
+        try
         {
-            result.setResultCode( ReleaseResult.ERROR );
-            logError( result, scmResult.getProviderMessage() );
+            in = new FileInputStream( file );
+            record.load( in );
+        }
+        catch ( IOException e )
+        {
+            throw new ReleaseExecutionException( "Unable to read the checkout record: " + e.getMessage(), e );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        return record;
+    }
+
+    private void writeCheckoutRecord( File checkoutDirectory, String relativePath, ReleaseResult result )
+    {
+        Properties record = new Properties();
+        if ( relativePath != null )
+        {
+            record.setProperty( RELATIVE_PATH, relativePath );
+        }
 
-            throw new ReleaseScmCommandException( "Unable to checkout from SCM", scmResult );
+        OutputStream out = null;
+        try
+        {
+            out = new FileOutputStream( getCheckoutRecord( checkoutDirectory ) );
+            record.store( out, "Checkout of the release tag" );
         }
+        catch ( IOException e )
+        {
+            logWarn( result, "Unable to record the checkout, so it won't be reused: " + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
 
-        result.setResultCode( ReleaseResult.SUCCESS );
+    /**
+     * Remove the untracked files of a checkout, and the build directories of the projects in it, which are usually
+     * ignored by the SCM rather than reported as untracked.
+     */
+    private static void removeBuildOutputs( File checkoutDirectory, List untracked )
+        throws IOException
+    {
+        for ( Iterator i = untracked.iterator(); i.hasNext(); )
+        {
+            File file = new File( (String) i.next() );
+            if ( !file.isAbsolute() )
+            {
+                file = new File( checkoutDirectory, file.getPath() );
+            }
 
-        return result;
+            if ( file.isDirectory() )
+            {
+                FileUtils.deleteDirectory( file );
+            }
+            else
+            {
+                file.delete();
+            }
+        }
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir( checkoutDirectory );
+        scanner.setIncludes( new String[]{"**/pom.xml"} );
+        scanner.setExcludes( new String[]{"**/target/**"} );
+        scanner.addDefaultExcludes();
+        scanner.scan();
+
+        String[] poms = scanner.getIncludedFiles();
+        for ( int i = 0; i < poms.length; i++ )
+        {
+            File projectDirectory = new File( checkoutDirectory, poms[i] ).getParentFile();
+            FileUtils.deleteDirectory( new File( projectDirectory, "target" ) );
+        }
+    }
+
+    /**
+     * Look up the configured checkout strategy.
+     *
+     * @return the strategy, or <code>null</code> if everything is to be checked out
+     */
+    private CheckoutStrategy getCheckoutStrategy( ReleaseDescriptor releaseDescriptor )
+        throws ReleaseExecutionException
+    {
+        String name = releaseDescriptor.getCheckoutStrategy();
+        if ( StringUtils.isEmpty( name ) || CheckoutStrategy.FULL.equals( name ) )
+        {
+            return null;
+        }
+
+        CheckoutStrategy strategy = (CheckoutStrategy) checkoutStrategies.get( name );
+        if ( strategy == null )
+        {
+            throw new ReleaseExecutionException( "Unknown checkout strategy '" + name + "'" );
+        }
+        return strategy;
+    }
+
+    /**
+     * Check out the tag with the given strategy, falling back to a full checkout if it can't be used.
+     */
+    private CheckOutScmResult checkOut( ReleaseDescriptor releaseDescriptor, CheckoutStrategy strategy,
+                                        ScmProvider provider, ScmRepository repository, File checkoutDirectory,
+                                        ReleaseResult result )
+        throws ScmException, ReleaseExecutionException
+    {
+        ScmTag tag = new ScmTag( releaseDescriptor.getScmReleaseLabel() );
+
+        if ( strategy != null )
+        {
+            String name = releaseDescriptor.getCheckoutStrategy();
+            String reason;
+            try
+            {
+                CheckOutScmResult scmResult =
+                    strategy.checkOut( provider, repository, checkoutDirectory, tag, releaseDescriptor );
+                if ( scmResult == null )
+                {
+                    reason = "it can't be used with this repository";
+                }
+                else if ( scmResult.isSuccess() )
+                {
+                    return scmResult;
+                }
+                else
+                {
+                    reason = "it failed: " + scmResult.getProviderMessage();
+                }
+            }
+            catch ( NoSuchCommandScmException e )
+            {
+                reason = "the SCM provider doesn't support it";
+            }
+
+            logWarn( result, "Not using the " + name + " checkout strategy, as " + reason +
+                " - checking out everything instead" );
+
+            clearCheckoutDirectory( checkoutDirectory, result );
+        }
+
+        CheckoutStrategy fullStrategy = (CheckoutStrategy) checkoutStrategies.get( CheckoutStrategy.FULL );
+        return fullStrategy.checkOut( provider, repository, checkoutDirectory, tag, releaseDescriptor );
+    }
+
+    private void clearCheckoutDirectory( File checkoutDirectory, ReleaseResult result )
+        throws ReleaseExecutionException
+    {
+        if ( checkoutDirectory.exists() )
+        {
+            try
+            {
+                FileUtils.deleteDirectory( checkoutDirectory );
+            }
+            catch ( IOException e )
+            {
+                result.setResultCode( ReleaseResult.ERROR );
+                logError( result, e.getMessage() );
+
+                throw new ReleaseExecutionException( "Unable to remove old checkout directory: " + e.getMessage(), e );
+            }
+        }
+
+        checkoutDirectory.mkdirs();
     }
 
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
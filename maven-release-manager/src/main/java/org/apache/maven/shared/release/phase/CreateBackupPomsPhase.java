@@ -31,6 +31,7 @@ import org.codehaus.plexus.util.FileUtils;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Edwin Punzalan
@@ -39,6 +40,13 @@ import java.util.List;
 public class CreateBackupPomsPhase
     extends AbstractBackupPomsPhase
 {
+    private static final Set INPUTS = states( new String[]{STATE_POMS} );
+
+    /**
+     * The backups are new files in the working copy, so they mustn't be made while it is checked for modifications.
+     */
+    private static final Set OUTPUTS = states( new String[]{STATE_BACKUP_POMS, STATE_WORKING_COPY} );
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
@@ -96,4 +104,14 @@ public class CreateBackupPomsPhase
             throw new ReleaseExecutionException( "Error creating backup POM: " + e.getMessage(), e );
         }
     }
+
+    public Set getInputs()
+    {
+        return INPUTS;
+    }
+
+    public Set getOutputs()
+    {
+        return OUTPUTS;
+    }
 }
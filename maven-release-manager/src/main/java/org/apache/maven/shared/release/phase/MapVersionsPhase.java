@@ -25,6 +25,7 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.util.CoordinateCache;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.apache.maven.shared.release.versions.DefaultVersionInfo;
 import org.apache.maven.shared.release.versions.VersionInfo;
@@ -59,6 +60,12 @@ public class MapVersionsPhase
      */
     private Prompter prompter;
 
+    /**
+     * The coordinates shared by the phases of a run. May be <code>null</code>, in which case keys are built and
+     * versions classified each time they are needed.
+     */
+    private CoordinateCache coordinateCache;
+
     void setPrompter( Prompter prompter )
     {
         this.prompter = prompter;
@@ -71,12 +78,12 @@ public class MapVersionsPhase
 
         MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
 
-        if ( releaseDescriptor.isAutoVersionSubmodules() && ArtifactUtils.isSnapshot( rootProject.getVersion() ) )
+        if ( releaseDescriptor.isAutoVersionSubmodules() && isSnapshot( rootProject.getVersion() ) )
         {
             // get the root project
             MavenProject project = rootProject;
 
-            String projectId = ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() );
+            String projectId = versionlessKey( project.getGroupId(), project.getArtifactId() );
 
             String nextVersion = getNextVersion( project, projectId, releaseDescriptor, result );
 
@@ -100,12 +107,12 @@ public class MapVersionsPhase
             {
                 MavenProject subProject = (MavenProject) i.next();
                 String subProjectId =
-                    ArtifactUtils.versionlessKey( subProject.getGroupId(), subProject.getArtifactId() );
+                    versionlessKey( subProject.getGroupId(), subProject.getArtifactId() );
 
                 if ( convertToSnapshot )
                 {
                     String v;
-                    if ( ArtifactUtils.isSnapshot( subProject.getVersion() ) )
+                    if ( isSnapshot( subProject.getVersion() ) )
                     {
                         v = nextVersion;
                     }
@@ -135,7 +142,7 @@ public class MapVersionsPhase
             {
                 MavenProject project = (MavenProject) i.next();
 
-                String projectId = ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() );
+                String projectId = versionlessKey( project.getGroupId(), project.getArtifactId() );
 
                 String nextVersion = getNextVersion( project, projectId, releaseDescriptor, result );
 
@@ -198,7 +205,7 @@ public class MapVersionsPhase
                     {
                         //branch modification
                         if ( releaseDescriptor.isUpdateBranchVersions() && (
-                            ArtifactUtils.isSnapshot( project.getVersion() ) ||
+                            isSnapshot( project.getVersion() ) ||
                                 releaseDescriptor.isUpdateVersionsToSnapshot() ) )
                         {
                             if ( version != null )
@@ -230,7 +237,7 @@ public class MapVersionsPhase
                     else
                     {
                         //working copy modification
-                        if ( ArtifactUtils.isSnapshot( project.getVersion() ) &&
+                        if ( isSnapshot( project.getVersion() ) &&
                             releaseDescriptor.isUpdateWorkingCopyVersions() )
                         {
                             if ( version != null )
@@ -298,7 +305,7 @@ public class MapVersionsPhase
             }
             else
             {
-                if ( ArtifactUtils.isSnapshot( project.getVersion() ) )
+                if ( isSnapshot( project.getVersion() ) )
                 {
                     if ( version != null )
                     {
@@ -346,4 +353,15 @@ public class MapVersionsPhase
 
         return result;
     }
+
+    private String versionlessKey( String groupId, String artifactId )
+    {
+        return coordinateCache != null ? coordinateCache.versionlessKey( groupId, artifactId )
+            : ArtifactUtils.versionlessKey( groupId, artifactId );
+    }
+
+    private boolean isSnapshot( String version )
+    {
+        return coordinateCache != null ? coordinateCache.isSnapshot( version ) : ArtifactUtils.isSnapshot( version );
+    }
 }
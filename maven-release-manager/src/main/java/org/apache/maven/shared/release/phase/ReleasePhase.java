@@ -26,6 +26,7 @@ import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * A phase in the release cycle.
@@ -39,6 +40,36 @@ public interface ReleasePhase
      */
     String ROLE = ReleasePhase.class.getName();
 
+    /**
+     * The POM files of the reactor projects.
+     */
+    String STATE_POMS = "poms";
+
+    /**
+     * The backup copies of the POM files.
+     */
+    String STATE_BACKUP_POMS = "backup-poms";
+
+    /**
+     * The files of the working copy, as seen by the SCM.
+     */
+    String STATE_WORKING_COPY = "working-copy";
+
+    /**
+     * The SCM connection details in the release configuration.
+     */
+    String STATE_SCM_CONFIGURATION = "scm-configuration";
+
+    /**
+     * The resolution of snapshot dependencies in the release configuration.
+     */
+    String STATE_SNAPSHOT_RESOLUTION = "snapshot-resolution";
+
+    /**
+     * The prompter used to interact with the user.
+     */
+    String STATE_PROMPTER = "prompter";
+
     /**
      * Execute the phase.
      *
@@ -69,4 +100,21 @@ public interface ReleasePhase
      * @param reactorProjects the reactor projects
      */
     ReleaseResult clean( List reactorProjects );
+
+    /**
+     * Get the release state that the phase reads. Phases that don't write anything the other reads or writes can be
+     * run at the same time.
+     *
+     * @return the names of the state read by the phase, or <code>null</code> if they aren't known, in which case the
+     *         phase is always run on its own
+     */
+    Set getInputs();
+
+    /**
+     * Get the release state that the phase writes.
+     *
+     * @return the names of the state written by the phase, or <code>null</code> if they aren't known, in which case
+     *         the phase is always run on its own
+     */
+    Set getOutputs();
 }
@@ -1,12 +1,25 @@
 package org.apache.maven.shared.release.phase;
 
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.config.ReleaseUtils;
+import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
+import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
@@ -28,18 +41,59 @@ import java.util.List;
  */
 
 /**
+ * Remove the tags created for the release. Only the tags the release configuration records as created are removed,
+ * so that a rollback of a release that failed before tagging, or because the tag already existed, leaves the existing
+ * tags alone. The SCM providers have no command to remove a tag, so only Subversion tags are removed, by deleting the
+ * tag's URL. Removing a tag is done on a best effort basis, as it is used to clean up after a failure - problems are
+ * reported as warnings.
+ *
  * @author Edwin Punzalan
  * @plexus.component role="org.apache.maven.shared.release.phase.ReleasePhase" role-hint="remove-scm-tag"
  */
 public class RemoveScmTagPhase
     extends AbstractReleasePhase
 {
+    /**
+     * Tool that gets a configured SCM repository from release configuration.
+     *
+     * @plexus.requirement
+     */
+    private ScmRepositoryConfigurator scmRepositoryConfigurator;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
         ReleaseResult result = new ReleaseResult();
 
-        // TODO [!]: implement
+        if ( releaseDescriptor.getCreatedScmTags().isEmpty() )
+        {
+            logInfo( result, "No tags were created for the release, so none are removed." );
+        }
+
+        for ( Iterator i = releaseDescriptor.getCreatedScmTags().entrySet().iterator(); i.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) i.next();
+            String url = (String) entry.getKey();
+            String tag = (String) entry.getValue();
+
+            ReleaseDescriptor root = ReleaseUtils.merge( new ReleaseDescriptor(), releaseDescriptor );
+            root.setScmSourceUrl( url );
+            ScmRepository repository = getRepository( root, settings );
+            if ( repository.getProviderRepository() instanceof SvnScmProviderRepository )
+            {
+                if ( removeSvnTag( (SvnScmProviderRepository) repository.getProviderRepository(), tag, root,
+                                   result ) )
+                {
+                    i.remove();
+                }
+            }
+            else
+            {
+                logWarn( result, "Unable to remove the tag " + tag + " from " + url +
+                    " - it must be removed by hand." );
+                i.remove();
+            }
+        }
 
         result.setResultCode( ReleaseResult.SUCCESS );
 
@@ -49,6 +103,78 @@ public class RemoveScmTagPhase
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
-        return execute( releaseDescriptor, settings, reactorProjects );
+        ReleaseResult result = new ReleaseResult();
+
+        for ( Iterator i = releaseDescriptor.getCreatedScmTags().entrySet().iterator(); i.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) i.next();
+            logInfo( result, "Full run would be removing the tag " + entry.getValue() + " from " + entry.getKey() );
+        }
+
+        result.setResultCode( ReleaseResult.SUCCESS );
+
+        return result;
+    }
+
+    private ScmRepository getRepository( ReleaseDescriptor releaseDescriptor, Settings settings )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        try
+        {
+            return scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+        }
+        catch ( ScmRepositoryException e )
+        {
+            throw new ReleaseScmRepositoryException( e.getMessage(), e.getValidationMessages() );
+        }
+        catch ( NoSuchScmProviderException e )
+        {
+            throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * @return whether the tag was removed
+     */
+    private boolean removeSvnTag( SvnScmProviderRepository svnRepository, String tagUrl,
+                                  ReleaseDescriptor releaseDescriptor, ReleaseResult result )
+    {
+        logInfo( result, "Removing the tag " + tagUrl + "..." );
+
+        Commandline cl = new Commandline();
+        cl.setExecutable( "svn" );
+        cl.createArgument().setValue( "--non-interactive" );
+        if ( !StringUtils.isEmpty( svnRepository.getUser() ) )
+        {
+            cl.createArgument().setValue( "--username" );
+            cl.createArgument().setValue( svnRepository.getUser() );
+        }
+        if ( !StringUtils.isEmpty( svnRepository.getPassword() ) )
+        {
+            cl.createArgument().setValue( "--password" );
+            cl.createArgument().setValue( svnRepository.getPassword() );
+        }
+        cl.createArgument().setValue( "delete" );
+        cl.createArgument().setValue( "--message" );
+        cl.createArgument().setValue(
+            StringUtils.defaultString( releaseDescriptor.getScmCommentPrefix() ) + " remove tag " +
+                releaseDescriptor.getScmReleaseLabel() );
+        cl.createArgument().setValue( tagUrl );
+
+        CommandLineUtils.StringStreamConsumer stdout = new CommandLineUtils.StringStreamConsumer();
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+        try
+        {
+            if ( CommandLineUtils.executeCommandLine( cl, stdout, stderr ) == 0 )
+            {
+                return true;
+            }
+            logWarn( result, "Unable to remove the tag " + tagUrl + ": " + stderr.getOutput() );
+        }
+        catch ( CommandLineException e )
+        {
+            logWarn( result, "Unable to remove the tag " + tagUrl + ": " + e.getMessage() );
+        }
+        return false;
     }
 }
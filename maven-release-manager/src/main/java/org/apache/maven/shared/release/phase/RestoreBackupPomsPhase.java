@@ -35,6 +35,7 @@ import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.util.PomCache;
 import org.apache.maven.shared.release.util.ReleaseUtil;
 import org.codehaus.plexus.util.FileUtils;
 
@@ -57,6 +58,13 @@ public class RestoreBackupPomsPhase
      */
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * The parsed POMs shared by the phases of a run, which no longer match a restored POM.
+     *
+     * @plexus.requirement
+     */
+    private PomCache pomCache;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
@@ -126,13 +134,21 @@ public class RestoreBackupPomsPhase
             throw new ReleaseExecutionException( "An error occurred enabling edit mode: " + e.getMessage(), e );
         }
 
+        File pomFile = ReleaseUtil.getStandardPom( project );
         try
         {
-            FileUtils.copyFile( getPomBackup( project ), ReleaseUtil.getStandardPom( project ) );
+            FileUtils.copyFile( getPomBackup( project ), pomFile );
         }
         catch ( IOException e )
         {
             throw new ReleaseExecutionException( "Error restoring from backup POM: " + e.getMessage(), e );
         }
+        finally
+        {
+            if ( pomCache != null )
+            {
+                pomCache.invalidate( pomFile );
+            }
+        }
     }
 }
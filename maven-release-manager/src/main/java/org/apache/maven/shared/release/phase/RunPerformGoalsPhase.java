@@ -23,9 +23,11 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.exec.BuildOutputArchive;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -37,11 +39,29 @@ import java.util.List;
 public class RunPerformGoalsPhase
     extends AbstractRunGoalsPhase
 {
+    /**
+     * @plexus.requirement
+     */
+    private BuildOutputArchive buildOutputArchive;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException
     {
         String additionalArguments = releaseDescriptor.getAdditionalArguments();
 
+        if ( releaseDescriptor.isReuseBuildOutputs() && restoreBuildOutputs( releaseDescriptor ) )
+        {
+            // the same sources were already tested while preparing the release
+            if ( !StringUtils.isEmpty( additionalArguments ) )
+            {
+                additionalArguments = additionalArguments + " -Dmaven.test.skip=true";
+            }
+            else
+            {
+                additionalArguments = "-Dmaven.test.skip=true";
+            }
+        }
+
         if ( releaseDescriptor.isUseReleaseProfile() )
         {
             if ( !StringUtils.isEmpty( additionalArguments ) )
@@ -79,6 +99,40 @@ public class RunPerformGoalsPhase
         return result;
     }
 
+    public void setBuildOutputArchive( BuildOutputArchive buildOutputArchive )
+    {
+        this.buildOutputArchive = buildOutputArchive;
+    }
+
+    /**
+     * Put the outputs of the preparation build into the checkout, if they were built from the same sources.
+     *
+     * @return whether the outputs were restored
+     */
+    private boolean restoreBuildOutputs( ReleaseDescriptor releaseDescriptor )
+    {
+        String tag = releaseDescriptor.getScmReleaseLabel();
+        File archiveDirectory = new File( releaseDescriptor.getWorkingDirectory(), BuildOutputArchive.DIRECTORY );
+        File checkoutDirectory = determineWorkingDirectory( new File( releaseDescriptor.getCheckoutDirectory() ),
+                                                            releaseDescriptor.getScmRelativePathProjectDirectory() );
+        try
+        {
+            String reason = tag != null ? buildOutputArchive.restore( archiveDirectory, tag, checkoutDirectory )
+                : "the release has no tag";
+            if ( reason == null )
+            {
+                getLogger().info( "Reusing the build outputs of the preparation build for " + tag );
+                return true;
+            }
+            getLogger().info( "Building the release again, as " + reason );
+        }
+        catch ( IOException e )
+        {
+            getLogger().warn( "Building the release again, as the build outputs can't be restored: " + e.getMessage() );
+        }
+        return false;
+    }
+
     protected String getGoals( ReleaseDescriptor releaseDescriptor )
     {
         return releaseDescriptor.getPerformGoals();
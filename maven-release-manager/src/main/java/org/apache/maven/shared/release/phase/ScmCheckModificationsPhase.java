@@ -19,6 +19,7 @@ package org.apache.maven.shared.release.phase;
  * under the License.
  */
 
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFile;
 import org.apache.maven.scm.ScmFileSet;
@@ -32,15 +33,20 @@ import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.scm.FilteredStatusCommand;
+import org.apache.maven.shared.release.scm.ModifiedFileCollector;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -52,6 +58,12 @@ import java.util.Set;
 public class ScmCheckModificationsPhase
     extends AbstractReleasePhase
 {
+    private static final Set INPUTS = states( new String[]{STATE_SCM_CONFIGURATION, STATE_WORKING_COPY} );
+
+    private static final Set OUTPUTS = Collections.EMPTY_SET;
+
+    private static final int MAX_REPORTED_FILES = 100;
+
     /**
      * Tool that gets a configured SCM repository from release configuration.
      *
@@ -59,6 +71,13 @@ public class ScmCheckModificationsPhase
      */
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * The status commands that only check the directories of the projects, by SCM provider type.
+     *
+     * @plexus.requirement role="org.apache.maven.shared.release.scm.FilteredStatusCommand"
+     */
+    private Map filteredStatusCommands;
+
     /**
      * The files to exclude from the status check.
      *
@@ -92,11 +111,42 @@ public class ScmCheckModificationsPhase
             throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
         }
 
-        StatusScmResult result;
+        File workingDirectory = new File( releaseDescriptor.getWorkingDirectory() );
+
+        ModifiedFileCollector collector = new ModifiedFileCollector( excludedFiles, MAX_REPORTED_FILES );
+
+        StatusScmResult result = null;
         try
         {
-            result =
-                provider.status( repository, new ScmFileSet( new File( releaseDescriptor.getWorkingDirectory() ) ) );
+            if ( releaseDescriptor.isFilteredStatus() )
+            {
+                FilteredStatusCommand command =
+                    (FilteredStatusCommand) filteredStatusCommands.get( repository.getProvider() );
+                if ( command != null )
+                {
+                    result = command.status( repository, workingDirectory,
+                                             getProjectPaths( workingDirectory, reactorProjects ), collector );
+                }
+                if ( result == null )
+                {
+                    logInfo( relResult, "The status of the working copy can't be filtered for the " +
+                        repository.getProvider() + " SCM, so all of it will be checked." );
+                }
+            }
+
+            if ( result == null )
+            {
+                // the provider reads all of the changes before returning them, so they are only collected afterwards
+                result = provider.status( repository, new ScmFileSet( workingDirectory ) );
+
+                if ( result.isSuccess() )
+                {
+                    for ( Iterator i = result.getChangedFiles().iterator(); i.hasNext(); )
+                    {
+                        collector.add( (ScmFile) i.next() );
+                    }
+                }
+            }
         }
         catch ( ScmException e )
         {
@@ -109,27 +159,11 @@ public class ScmCheckModificationsPhase
             throw new ReleaseScmCommandException( "Unable to check for local modifications", result );
         }
 
-        List changedFiles = result.getChangedFiles();
-
-        // TODO: would be nice for SCM status command to do this for me.
-        for ( Iterator i = changedFiles.iterator(); i.hasNext(); )
-        {
-            ScmFile f = (ScmFile) i.next();
-
-            String fileName = f.getPath().replace( '\\', '/' );
-            fileName = fileName.substring( fileName.lastIndexOf( '/' ) + 1, fileName.length() );
-
-            if ( excludedFiles.contains( fileName ) )
-            {
-                i.remove();
-            }
-        }
-
-        if ( !changedFiles.isEmpty() )
+        if ( collector.getCount() > 0 )
         {
             StringBuffer message = new StringBuffer();
 
-            for ( Iterator i = changedFiles.iterator(); i.hasNext(); )
+            for ( Iterator i = collector.getFiles().iterator(); i.hasNext(); )
             {
                 ScmFile file = (ScmFile) i.next();
 
@@ -138,6 +172,12 @@ public class ScmCheckModificationsPhase
                 message.append( "\n" );
             }
 
+            if ( collector.getCount() > collector.getFiles().size() )
+            {
+                message.append( "and " ).append( collector.getCount() - collector.getFiles().size() );
+                message.append( " more files\n" );
+            }
+
             throw new ReleaseFailureException(
                 "Cannot prepare the release because you have local modifications : \n" + message );
         }
@@ -147,10 +187,77 @@ public class ScmCheckModificationsPhase
         return relResult;
     }
 
+    /**
+     * Find the directories of the reactor's projects within the working directory, leaving out those inside another
+     * one, so that only the files of the projects being released are checked. The working directory is normally the
+     * directory of the top project of the reactor, so this is usually just <code>.</code> and the whole working copy
+     * is still checked - what the filtered status saves is holding the whole list of changes in memory, not the
+     * checking of files outside the reactor.
+     */
+    private static List getProjectPaths( File workingDirectory, List reactorProjects )
+    {
+        String base = workingDirectory.getAbsolutePath();
+
+        List paths = new ArrayList();
+        if ( reactorProjects != null )
+        {
+            for ( Iterator i = reactorProjects.iterator(); i.hasNext(); )
+            {
+                MavenProject project = (MavenProject) i.next();
+
+                String directory = project.getBasedir().getAbsolutePath();
+                if ( directory.equals( base ) )
+                {
+                    return Collections.singletonList( "." );
+                }
+                if ( directory.startsWith( base + File.separator ) )
+                {
+                    paths.add( directory.substring( base.length() + 1 ).replace( '\\', '/' ) );
+                }
+            }
+        }
+
+        if ( paths.isEmpty() )
+        {
+            return Collections.singletonList( "." );
+        }
+
+        // a directory sorts before the directories inside it
+        Collections.sort( paths );
+
+        Set included = new HashSet();
+        for ( Iterator i = paths.iterator(); i.hasNext(); )
+        {
+            String path = (String) i.next();
+
+            boolean nested = false;
+            for ( int index = path.indexOf( '/' ); index > 0 && !nested; index = path.indexOf( '/', index + 1 ) )
+            {
+                nested = included.contains( path.substring( 0, index ) );
+            }
+
+            if ( nested || !included.add( path ) )
+            {
+                i.remove();
+            }
+        }
+        return paths;
+    }
+
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
         // It makes no modifications, so simulate is the same as execute
         return execute( releaseDescriptor, settings, reactorProjects );
     }
+
+    public Set getInputs()
+    {
+        return INPUTS;
+    }
+
+    public Set getOutputs()
+    {
+        return OUTPUTS;
+    }
 }
@@ -29,6 +29,7 @@ import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Settings;
+import org.apache.maven.shared.release.CommitMeasurement;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
@@ -91,14 +92,22 @@ public class ScmCommitPhase
 
         if ( releaseDescriptor.isCommitByProject() )
         {
-            for ( Iterator i = reactorProjects.iterator(); i.hasNext(); )
+            int batchSize = Math.max( 1, releaseDescriptor.getCommitBatchSize() );
+            for ( int start = 0; start < reactorProjects.size(); start += batchSize )
             {
-                MavenProject project = (MavenProject) i.next();
+                List batch = reactorProjects.subList( start, Math.min( start + batchSize, reactorProjects.size() ) );
 
-                List pomFiles = createPomFiles( releaseDescriptor, project );
-                ScmFileSet fileSet = new ScmFileSet( project.getFile().getParentFile(), pomFiles );
+                File basedir = ( (MavenProject) batch.get( 0 ) ).getFile().getParentFile();
+                if ( batch.size() > 1 )
+                {
+                    basedir = getCommonDirectory( batch, new File( releaseDescriptor.getWorkingDirectory() ) );
+                }
 
-                checkin( provider, repository, fileSet, createMessage( releaseDescriptor ) );
+                List pomFiles = createPomFiles( releaseDescriptor, batch );
+                ScmFileSet fileSet = new ScmFileSet( basedir, pomFiles );
+
+                checkin( provider, repository, fileSet, createMessage( releaseDescriptor ), batch.size(),
+                         pomFiles.size(), relResult );
             }
         }
         else
@@ -106,7 +115,8 @@ public class ScmCommitPhase
             List pomFiles = createPomFiles( releaseDescriptor, reactorProjects );
             ScmFileSet fileSet = new ScmFileSet( new File( releaseDescriptor.getWorkingDirectory() ), pomFiles );
 
-            checkin( provider, repository, fileSet, createMessage( releaseDescriptor ) );
+            checkin( provider, repository, fileSet, createMessage( releaseDescriptor ), reactorProjects.size(),
+                     pomFiles.size(), relResult );
         }
 
         relResult.setResultCode( ReleaseResult.SUCCESS );
@@ -114,11 +124,13 @@ public class ScmCommitPhase
         return relResult;
     }
 
-    private void checkin( ScmProvider provider, ScmRepository repository, ScmFileSet fileSet, String message )
+    private void checkin( ScmProvider provider, ScmRepository repository, ScmFileSet fileSet, String message,
+                          int projectCount, int fileCount, ReleaseResult relResult )
         throws ReleaseExecutionException, ReleaseScmCommandException
     {
         CheckInScmResult result;
 
+        long startTime = System.currentTimeMillis();
         try
         {
             result = provider.checkIn( repository, fileSet, (ScmVersion) null, message );
@@ -132,6 +144,29 @@ public class ScmCommitPhase
         {
             throw new ReleaseScmCommandException( "Unable to commit files", result );
         }
+
+        CommitMeasurement measurement =
+            new CommitMeasurement( projectCount, fileCount, startTime, System.currentTimeMillis() - startTime );
+        relResult.addCommitMeasurement( measurement );
+        getLogger().debug( "Committed " + measurement );
+    }
+
+    /**
+     * Find the closest directory containing all of the projects, or the working directory if they have none in common.
+     */
+    private static File getCommonDirectory( List projects, File workingDirectory )
+    {
+        File common = ( (MavenProject) projects.get( 0 ) ).getFile().getAbsoluteFile().getParentFile();
+        for ( Iterator i = projects.iterator(); i.hasNext() && common != null; )
+        {
+            String directory = ( (MavenProject) i.next() ).getFile().getAbsoluteFile().getParent();
+            while ( common != null && !directory.equals( common.getPath() ) &&
+                !directory.startsWith( common.getPath() + File.separator ) )
+            {
+                common = common.getParentFile();
+            }
+        }
+        return common != null ? common : workingDirectory;
     }
 
     public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
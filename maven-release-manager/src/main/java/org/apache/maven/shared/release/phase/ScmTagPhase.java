@@ -19,11 +19,17 @@ package org.apache.maven.shared.release.phase;
  * under the License.
  */
 
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.model.Scm;
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTag;
 import org.apache.maven.scm.command.tag.TagScmResult;
 import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.svn.SvnTagBranchUtils;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Settings;
@@ -31,15 +37,28 @@ import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.config.ReleaseUtils;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
 import org.apache.maven.shared.release.scm.ReleaseScmRepositoryException;
 import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.apache.maven.shared.release.util.ParallelTaskRunner;
+import org.apache.maven.shared.release.util.ReleaseUtil;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Tag the SCM repository after committing the release.
+ * Tag the SCM repository after committing the release. If the release is configured to tag every SCM root, projects
+ * in the reactor that are checked out from a different SCM location than the root project, rather than from below it,
+ * are tagged as well. The locations are tagged at the same time, and if any of them can't be tagged, the tags that
+ * were created are removed again. The tags created are recorded in the release configuration, so that a rollback only
+ * removes tags the release created.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  * @plexus.component role="org.apache.maven.shared.release.phase.ReleasePhase" role-hint="scm-tag"
@@ -54,6 +73,13 @@ public class ScmTagPhase
      */
     private ScmRepositoryConfigurator scmRepositoryConfigurator;
 
+    /**
+     * The phase used to remove the tags again when not all of the SCM roots could be tagged.
+     *
+     * @plexus.requirement role="org.apache.maven.shared.release.phase.ReleasePhase" role-hint="remove-scm-tag"
+     */
+    private ReleasePhase removeScmTagPhase;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
         throws ReleaseExecutionException, ReleaseFailureException
     {
@@ -63,31 +89,106 @@ public class ScmTagPhase
 
         logInfo( relResult, "Tagging release with the label " + releaseDescriptor.getScmReleaseLabel() + "..." );
 
-        ScmRepository repository;
-        ScmProvider provider;
-        try
+        final List roots = getScmRoots( releaseDescriptor, reactorProjects );
+
+        // configure every repository first, so that a configuration problem doesn't leave some of them tagged
+        final ScmRepository[] repositories = new ScmRepository[roots.size()];
+        final ScmProvider[] providers = new ScmProvider[roots.size()];
+        for ( int i = 0; i < roots.size(); i++ )
         {
-            repository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, settings );
+            try
+            {
+                repositories[i] =
+                    scmRepositoryConfigurator.getConfiguredRepository( (ReleaseDescriptor) roots.get( i ), settings );
 
-            provider = scmRepositoryConfigurator.getRepositoryProvider( repository );
+                providers[i] = scmRepositoryConfigurator.getRepositoryProvider( repositories[i] );
+            }
+            catch ( ScmRepositoryException e )
+            {
+                throw new ReleaseScmRepositoryException( e.getMessage(), e.getValidationMessages() );
+            }
+            catch ( NoSuchScmProviderException e )
+            {
+                throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
+            }
         }
-        catch ( ScmRepositoryException e )
+
+        final String[] tags = resolveTags( roots, repositories );
+
+        final boolean[] tagged = new boolean[roots.size()];
+        List tasks = new ArrayList();
+        for ( int i = 0; i < roots.size(); i++ )
         {
-            throw new ReleaseScmRepositoryException( e.getMessage(), e.getValidationMessages() );
+            final int index = i;
+            tasks.add( new ParallelTaskRunner.Task()
+            {
+                public void run()
+                    throws Exception
+                {
+                    tag( providers[index], repositories[index], (ReleaseDescriptor) roots.get( index ),
+                         roots.size() > 1 );
+                    tagged[index] = true;
+                }
+            } );
         }
-        catch ( NoSuchScmProviderException e )
+
+        Throwable[] failures = new ParallelTaskRunner( releaseDescriptor.getWorkerThreads() ).execute( tasks );
+
+        for ( int i = 0; i < tagged.length; i++ )
         {
-            throw new ReleaseExecutionException( "Unable to configure SCM repository: " + e.getMessage(), e );
+            if ( tagged[i] )
+            {
+                releaseDescriptor.getCreatedScmTags().put( ( (ReleaseDescriptor) roots.get( i ) ).getScmSourceUrl(),
+                                                           tags[i] );
+            }
         }
 
+        for ( int i = 0; i < failures.length; i++ )
+        {
+            if ( failures[i] != null )
+            {
+                removeTags( releaseDescriptor, settings, reactorProjects, relResult );
+
+                ParallelTaskRunner.rethrow( failures[i] );
+            }
+        }
+
+        relResult.setResultCode( ReleaseResult.SUCCESS );
+
+        return relResult;
+    }
+
+    public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        ReleaseResult result = new ReleaseResult();
+
+        validateConfiguration( releaseDescriptor );
+
+        List roots = getScmRoots( releaseDescriptor, reactorProjects );
+        for ( Iterator i = roots.iterator(); i.hasNext(); )
+        {
+            ReleaseDescriptor root = (ReleaseDescriptor) i.next();
+            logInfo( result, "Full run would be tagging " + root.getWorkingDirectory() + " with label: '" +
+                root.getScmReleaseLabel() + "'" );
+        }
+
+        result.setResultCode( ReleaseResult.SUCCESS );
+
+        return result;
+    }
+
+    private void tag( ScmProvider provider, ScmRepository repository, ReleaseDescriptor root, boolean multipleRoots )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
         TagScmResult result;
         try
         {
             // TODO: want includes/excludes?
-            ScmFileSet fileSet = new ScmFileSet( new File( releaseDescriptor.getWorkingDirectory() ) );
-            String tagName = releaseDescriptor.getScmReleaseLabel();
+            ScmFileSet fileSet = new ScmFileSet( new File( root.getWorkingDirectory() ) );
+            String tagName = root.getScmReleaseLabel();
             result = provider.tag( repository, fileSet, tagName,
-                                   releaseDescriptor.getScmCommentPrefix() + " copy for tag " + tagName );
+                                   root.getScmCommentPrefix() + " copy for tag " + tagName );
         }
         catch ( ScmException e )
         {
@@ -96,27 +197,172 @@ public class ScmTagPhase
 
         if ( !result.isSuccess() )
         {
-            throw new ReleaseScmCommandException( "Unable to tag SCM", result );
+            throw new ReleaseScmCommandException(
+                multipleRoots ? "Unable to tag SCM at " + root.getScmSourceUrl() : "Unable to tag SCM", result );
         }
+    }
 
-        relResult.setResultCode( ReleaseResult.SUCCESS );
+    /**
+     * Work out the tag each SCM root will get - the URL of the tag for Subversion, otherwise its name - and check that
+     * no two roots would be tagged at the same place, such as the sibling directories of a flat layout that all
+     * resolve to the same Subversion tags directory.
+     */
+    private static String[] resolveTags( List roots, ScmRepository[] repositories )
+        throws ReleaseFailureException
+    {
+        String[] tags = new String[repositories.length];
+        Map tagUrls = new HashMap();
+        for ( int i = 0; i < repositories.length; i++ )
+        {
+            ReleaseDescriptor root = (ReleaseDescriptor) roots.get( i );
+            tags[i] = root.getScmReleaseLabel();
+            if ( repositories[i].getProviderRepository() instanceof SvnScmProviderRepository )
+            {
+                String tagUrl =
+                    SvnTagBranchUtils.resolveTagUrl( (SvnScmProviderRepository) repositories[i].getProviderRepository(),
+                                                     new ScmTag( root.getScmReleaseLabel() ) );
+                tags[i] = tagUrl;
+                String other = (String) tagUrls.put( tagUrl, root.getScmSourceUrl() );
+                if ( other != null )
+                {
+                    throw new ReleaseFailureException( "The SCM roots " + other + " and " + root.getScmSourceUrl() +
+                        " would both be tagged at " + tagUrl + " - configure each root to have its own tag base, or " +
+                        "don't tag every SCM root" );
+                }
+            }
+        }
+        return tags;
+    }
 
-        return relResult;
+    /**
+     * Remove the tags that were created before one of the SCM roots couldn't be tagged.
+     */
+    private void removeTags( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects,
+                             ReleaseResult result )
+    {
+        try
+        {
+            removeScmTagPhase.execute( releaseDescriptor, settings, reactorProjects );
+        }
+        catch ( ReleaseExecutionException e )
+        {
+            logWarn( result, "Unable to remove the tags created: " + e.getMessage() );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            logWarn( result, "Unable to remove the tags created: " + e.getMessage() );
+        }
     }
 
-    public ReleaseResult simulate( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
-        throws ReleaseExecutionException, ReleaseFailureException
+    /**
+     * Find the SCM locations to tag. The first is the one the release was configured with. If the release is
+     * configured to tag every SCM root, the others are those of the projects whose SCM URL isn't below the URL of the
+     * root project, or of another project nearer the top of the directory tree.
+     *
+     * @return a release descriptor for each SCM location, with its URL and working directory
+     */
+    private static List getScmRoots( ReleaseDescriptor releaseDescriptor, List reactorProjects )
     {
-        ReleaseResult result = new ReleaseResult();
+        List roots = new ArrayList();
+        if ( !releaseDescriptor.isTagScmRoots() )
+        {
+            roots.add( releaseDescriptor );
+            return roots;
+        }
 
-        validateConfiguration( releaseDescriptor );
+        // each root is only tagged by itself
+        ReleaseDescriptor releaseRoot = ReleaseUtils.merge( new ReleaseDescriptor(), releaseDescriptor );
+        releaseRoot.setTagScmRoots( false );
+        roots.add( releaseRoot );
 
-        logInfo( result, "Full run would be tagging " + releaseDescriptor.getWorkingDirectory() + " with label: '" +
-            releaseDescriptor.getScmReleaseLabel() + "'" );
+        List rootUrls = new ArrayList();
+        if ( releaseDescriptor.getScmSourceUrl() != null )
+        {
+            rootUrls.add( releaseDescriptor.getScmSourceUrl() );
+        }
 
-        result.setResultCode( ReleaseResult.SUCCESS );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        String rootProjectUrl = getScmUrl( rootProject, releaseDescriptor );
+        if ( rootProjectUrl != null )
+        {
+            rootUrls.add( rootProjectUrl );
+        }
 
-        return result;
+        // visit the projects from the top of the directory tree down, so that the outermost location is found first
+        List projects = new ArrayList( reactorProjects );
+        projects.remove( rootProject );
+        Collections.sort( projects, new Comparator()
+        {
+            public int compare( Object o1, Object o2 )
+            {
+                // an enclosing directory always has a shorter path
+                return getPathLength( (MavenProject) o1 ) - getPathLength( (MavenProject) o2 );
+            }
+        } );
+
+        for ( Iterator i = projects.iterator(); i.hasNext(); )
+        {
+            MavenProject project = (MavenProject) i.next();
+            String url = getScmUrl( project, releaseDescriptor );
+            if ( url != null && !isBelow( url, rootUrls ) )
+            {
+                rootUrls.add( url );
+
+                ReleaseDescriptor root = ReleaseUtils.merge( new ReleaseDescriptor(), releaseDescriptor );
+                root.setScmSourceUrl( url );
+                // the tag base configured is for the release's own location
+                root.setScmTagBase( null );
+                root.setTagScmRoots( false );
+                root.setWorkingDirectory( project.getFile().getParentFile().getAbsolutePath() );
+                roots.add( root );
+            }
+        }
+
+        return roots;
+    }
+
+    /**
+     * Get the SCM URL a project was checked out from, using the SCM information from before the POMs were rewritten
+     * for the release if it was recorded.
+     */
+    private static String getScmUrl( MavenProject project, ReleaseDescriptor releaseDescriptor )
+    {
+        String projectId = ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() );
+
+        Scm scm;
+        if ( releaseDescriptor.getOriginalScmInfo().containsKey( projectId ) )
+        {
+            scm = (Scm) releaseDescriptor.getOriginalScmInfo().get( projectId );
+        }
+        else
+        {
+            scm = project.getScm();
+        }
+
+        if ( scm == null )
+        {
+            return null;
+        }
+        return scm.getDeveloperConnection() != null ? scm.getDeveloperConnection() : scm.getConnection();
+    }
+
+    private static boolean isBelow( String url, List rootUrls )
+    {
+        for ( Iterator i = rootUrls.iterator(); i.hasNext(); )
+        {
+            String rootUrl = (String) i.next();
+            if ( url.equals( rootUrl ) || ( url.startsWith( rootUrl ) &&
+                ( rootUrl.endsWith( "/" ) || url.charAt( rootUrl.length() ) == '/' ) ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getPathLength( MavenProject project )
+    {
+        return project.getFile().getParentFile().getAbsolutePath().length();
     }
 
     private static void validateConfiguration( ReleaseDescriptor releaseDescriptor )
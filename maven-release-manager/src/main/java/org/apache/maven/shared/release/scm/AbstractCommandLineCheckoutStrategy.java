@@ -0,0 +1,113 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Base class for the checkout strategies that run the SCM client directly, for options the SCM providers don't have.
+ * The command lines and their output are collected, so that they can be reported as one checkout.
+ */
+public abstract class AbstractCommandLineCheckoutStrategy
+    extends AbstractLogEnabled
+    implements CheckoutStrategy
+{
+    /**
+     * The commands run so far, and their output.
+     */
+    protected static class Transcript
+    {
+        private final StringBuffer commandLines = new StringBuffer();
+
+        private final StringBuffer output = new StringBuffer();
+
+        private String failure;
+
+        /**
+         * @return the checkout result for the commands run
+         */
+        public CheckOutScmResult toResult()
+        {
+            return new CheckOutScmResult( commandLines.toString(), failure, output.toString(), failure == null );
+        }
+    }
+
+    /**
+     * Run a command, unless an earlier command has failed.
+     *
+     * @return whether the command succeeded
+     * @throws ScmException if the command can't be run
+     */
+    protected boolean run( Commandline cl, Transcript transcript )
+        throws ScmException
+    {
+        return run( cl, null, transcript );
+    }
+
+    /**
+     * Run a command with a password in it, unless an earlier command has failed. The password is masked in the
+     * command line that is logged.
+     *
+     * @return whether the command succeeded
+     * @throws ScmException if the command can't be run
+     */
+    protected boolean run( Commandline cl, String password, Transcript transcript )
+        throws ScmException
+    {
+        if ( transcript.failure != null )
+        {
+            return false;
+        }
+
+        String commandLine = cl.toString();
+        if ( !StringUtils.isEmpty( password ) )
+        {
+            commandLine = StringUtils.replace( commandLine, password, "*****" );
+        }
+        getLogger().info( "Executing: " + commandLine );
+        transcript.commandLines.append( commandLine ).append( '\n' );
+
+        CommandLineUtils.StringStreamConsumer stdout = new CommandLineUtils.StringStreamConsumer();
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+        int exitCode;
+        try
+        {
+            exitCode = CommandLineUtils.executeCommandLine( cl, stdout, stderr );
+        }
+        catch ( CommandLineException e )
+        {
+            throw new ScmException( "Error while executing command.", e );
+        }
+
+        transcript.output.append( stdout.getOutput() );
+        if ( exitCode != 0 )
+        {
+            transcript.failure = "The " + cl.getExecutable() + " command failed: " + stderr.getOutput();
+            return false;
+        }
+        return true;
+    }
+}
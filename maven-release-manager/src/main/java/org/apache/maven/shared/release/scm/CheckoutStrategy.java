@@ -0,0 +1,63 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+
+import java.io.File;
+
+/**
+ * A way of checking out the tag of a release to perform it, such as one that fetches less than a full checkout. A
+ * strategy that can't be used with a repository says so, and the release falls back to a full checkout.
+ */
+public interface CheckoutStrategy
+{
+    /**
+     * The Plexus role.
+     */
+    String ROLE = CheckoutStrategy.class.getName();
+
+    /**
+     * The role hint of the strategy that checks out everything with the SCM provider.
+     */
+    String FULL = "full";
+
+    /**
+     * Check out a tag.
+     *
+     * @param provider          the SCM provider for the repository
+     * @param repository        the repository to check out from
+     * @param checkoutDirectory the empty directory to check out into
+     * @param tag               the tag to check out
+     * @param releaseDescriptor the release configuration, for the options of the strategy
+     * @return the result of the checkout, or <code>null</code> if the strategy can't be used with the repository or
+     *         isn't configured
+     * @throws org.apache.maven.scm.NoSuchCommandScmException if the provider doesn't have a command the strategy needs
+     * @throws ScmException if the checkout can't be run
+     */
+    CheckOutScmResult checkOut( ScmProvider provider, ScmRepository repository, File checkoutDirectory, ScmTag tag,
+                                ReleaseDescriptor releaseDescriptor )
+        throws ScmException;
+}
@@ -30,9 +30,14 @@ import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.trace.ActivityTracer;
+import org.apache.maven.shared.release.trace.TracingScmProvider;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.util.StringUtils;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Tool that gets a configured SCM repository from release configuration.
  *
@@ -50,8 +55,57 @@ public class DefaultScmRepositoryConfigurator
      */
     private ScmManager scmManager;
 
+    /**
+     * Reports the SCM commands run while tracing.
+     *
+     * @plexus.requirement
+     */
+    private ActivityTracer activityTracer;
+
+    /**
+     * The configured repositories, by the configuration they were created from.
+     */
+    private final Map repositories = new HashMap();
+
+    /**
+     * The providers of the configured repositories, by repository.
+     */
+    private final Map providers = new HashMap();
+
+    /**
+     * The providers of the configured repositories wrapped for tracing, by repository.
+     */
+    private final Map tracingProviders = new HashMap();
+
     public ScmRepository getConfiguredRepository( ReleaseDescriptor releaseDescriptor, Settings settings )
         throws ScmRepositoryException, NoSuchScmProviderException
+    {
+        RepositoryKey key = new RepositoryKey( releaseDescriptor, settings );
+        synchronized ( this )
+        {
+            ScmRepository repository = (ScmRepository) repositories.get( key );
+            if ( repository != null )
+            {
+                return repository;
+            }
+        }
+
+        ScmRepository repository = configureRepository( releaseDescriptor, settings );
+        synchronized ( this )
+        {
+            // keep the repository configured first, so that everyone shares the same one
+            ScmRepository existing = (ScmRepository) repositories.get( key );
+            if ( existing != null )
+            {
+                return existing;
+            }
+            repositories.put( key, repository );
+        }
+        return repository;
+    }
+
+    private ScmRepository configureRepository( ReleaseDescriptor releaseDescriptor, Settings settings )
+        throws ScmRepositoryException, NoSuchScmProviderException
     {
         String username = releaseDescriptor.getScmUsername();
         String password = releaseDescriptor.getScmPassword();
@@ -146,14 +200,96 @@ public class DefaultScmRepositoryConfigurator
         return repository;
     }
 
-    public ScmProvider getRepositoryProvider( ScmRepository repository )
+    public synchronized ScmProvider getRepositoryProvider( ScmRepository repository )
         throws NoSuchScmProviderException
     {
-        return scmManager.getProviderByRepository( repository );
+        boolean tracing = activityTracer != null && activityTracer.isTracing();
+
+        Map cache = tracing ? tracingProviders : providers;
+        ScmProvider provider = (ScmProvider) cache.get( repository );
+        if ( provider == null )
+        {
+            provider = scmManager.getProviderByRepository( repository );
+            if ( tracing )
+            {
+                provider = TracingScmProvider.wrap( provider, activityTracer );
+            }
+            cache.put( repository, provider );
+        }
+        return provider;
+    }
+
+    public synchronized void clear()
+    {
+        repositories.clear();
+        providers.clear();
+        tracingProviders.clear();
     }
 
     public void setScmManager( ScmManager scmManager )
     {
         this.scmManager = scmManager;
+
+        // the cached repositories and providers came from the previous manager
+        clear();
+    }
+
+    /**
+     * The parts of the release configuration and settings that a repository is configured from. The settings are
+     * compared by identity, as the servers in them can't be compared.
+     */
+    private static final class RepositoryKey
+    {
+        private final String url;
+
+        private final String[] values;
+
+        private final Settings settings;
+
+        private RepositoryKey( ReleaseDescriptor releaseDescriptor, Settings settings )
+        {
+            this.url = releaseDescriptor.getScmSourceUrl();
+            this.values = new String[]{releaseDescriptor.getScmUsername(), releaseDescriptor.getScmPassword(),
+                releaseDescriptor.getScmPrivateKey(), releaseDescriptor.getScmPrivateKeyPassPhrase(),
+                releaseDescriptor.getScmTagBase()};
+            this.settings = settings;
+        }
+
+        public boolean equals( Object o )
+        {
+            if ( !( o instanceof RepositoryKey ) )
+            {
+                return false;
+            }
+
+            RepositoryKey key = (RepositoryKey) o;
+            if ( settings != key.settings || !equal( url, key.url ) )
+            {
+                return false;
+            }
+            for ( int i = 0; i < values.length; i++ )
+            {
+                if ( !equal( values[i], key.values[i] ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public int hashCode()
+        {
+            int result = url != null ? url.hashCode() : 0;
+            for ( int i = 0; i < values.length; i++ )
+            {
+                result = 31 * result + ( values[i] != null ? values[i].hashCode() : 0 );
+            }
+            return 31 * result + System.identityHashCode( settings );
+        }
+
+        private static boolean equal( String s1, String s2 )
+        {
+            return s1 == null ? s2 == null : s1.equals( s2 );
+        }
     }
 }
@@ -0,0 +1,55 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.repository.ScmRepository;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Checks the status of only some paths of a working copy, handing each changed file to a collector as it is
+ * reported, for SCMs whose providers can only check the status of the whole working copy at once. Implementations
+ * are looked up by the type of SCM provider they work with.
+ */
+public interface FilteredStatusCommand
+{
+    /**
+     * The Plexus role.
+     */
+    String ROLE = FilteredStatusCommand.class.getName();
+
+    /**
+     * Check the status of paths of a working copy.
+     *
+     * @param repository       the repository the working copy was checked out from
+     * @param workingDirectory the top of the working copy
+     * @param paths            the paths within the working copy to check
+     * @param collector        the collector to hand each changed file to
+     * @return the result of the status check, without the changed files, or <code>null</code> if the status can't be
+     *         checked this way for the repository
+     * @throws ScmException if the status check can't be run
+     */
+    StatusScmResult status( ScmRepository repository, File workingDirectory, List paths,
+                            ModifiedFileCollector collector )
+        throws ScmException;
+}
@@ -0,0 +1,46 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+
+import java.io.File;
+
+/**
+ * Check out everything in the tag with the SCM provider.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.scm.CheckoutStrategy" role-hint="full"
+ */
+public class FullCheckoutStrategy
+    implements CheckoutStrategy
+{
+    public CheckOutScmResult checkOut( ScmProvider provider, ScmRepository repository, File checkoutDirectory,
+                                       ScmTag tag, ReleaseDescriptor releaseDescriptor )
+        throws ScmException
+    {
+        return provider.checkOut( repository, new ScmFileSet( checkoutDirectory ), tag );
+    }
+}
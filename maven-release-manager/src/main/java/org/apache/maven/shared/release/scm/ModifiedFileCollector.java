@@ -0,0 +1,106 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmFile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Collects the files a status check reports as changed, one at a time as they are reported, leaving out the files
+ * with the given names. Only the first few files are kept to be reported, so that the changes to a working copy with
+ * a great many changed files aren't all held at once.
+ */
+public class ModifiedFileCollector
+{
+    private final String[] excludedFileNames;
+
+    private final int limit;
+
+    private final List files = new ArrayList();
+
+    private int count;
+
+    /**
+     * @param excludedFileNames the names of the files to leave out, wherever they are in the working copy
+     * @param limit             the number of files to keep to be reported
+     */
+    public ModifiedFileCollector( Collection excludedFileNames, int limit )
+    {
+        this.excludedFileNames = (String[]) excludedFileNames.toArray( new String[excludedFileNames.size()] );
+        this.limit = limit;
+    }
+
+    /**
+     * Add a file reported as changed, unless it is excluded.
+     *
+     * @param file the file
+     */
+    public void add( ScmFile file )
+    {
+        if ( !isExcluded( file.getPath() ) )
+        {
+            if ( files.size() < limit )
+            {
+                files.add( file );
+            }
+            count++;
+        }
+    }
+
+    /**
+     * Check whether the name of a file is one of the excluded names, without building its name first.
+     *
+     * @param path the path of the file, with either separator
+     * @return whether the file is excluded
+     */
+    public boolean isExcluded( String path )
+    {
+        int start = Math.max( path.lastIndexOf( '/' ), path.lastIndexOf( '\\' ) ) + 1;
+        int length = path.length() - start;
+        for ( int i = 0; i < excludedFileNames.length; i++ )
+        {
+            String name = excludedFileNames[i];
+            if ( name.length() == length && path.regionMatches( start, name, 0, length ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of changed files that weren't excluded
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return the first of the changed files that weren't excluded, up to the limit
+     */
+    public List getFiles()
+    {
+        return files;
+    }
+}
@@ -0,0 +1,89 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.hg.repository.HgScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.File;
+
+/**
+ * Clone a local reference repository that already has most of the history, and only pull what it is missing from
+ * the repository of the release, for Mercurial repositories. Everything is pulled, rather than just the history up to
+ * the tag, as the tag itself is recorded in a later changeset.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.scm.CheckoutStrategy" role-hint="reference"
+ */
+public class ReferenceCheckoutStrategy
+    extends AbstractCommandLineCheckoutStrategy
+{
+    public CheckOutScmResult checkOut( ScmProvider provider, ScmRepository repository, File checkoutDirectory,
+                                       ScmTag tag, ReleaseDescriptor releaseDescriptor )
+        throws ScmException
+    {
+        String reference = releaseDescriptor.getCheckoutReference();
+        if ( StringUtils.isEmpty( reference ) ||
+            !( repository.getProviderRepository() instanceof HgScmProviderRepository ) )
+        {
+            return null;
+        }
+
+        HgScmProviderRepository hgRepository = (HgScmProviderRepository) repository.getProviderRepository();
+
+        Transcript transcript = new Transcript();
+
+        Commandline cl = createCommandLine( checkoutDirectory.getParentFile() );
+        cl.createArgument().setValue( "clone" );
+        cl.createArgument().setValue( "--noupdate" );
+        cl.createArgument().setValue( reference );
+        cl.createArgument().setValue( checkoutDirectory.getAbsolutePath() );
+        run( cl, transcript );
+
+        cl = createCommandLine( checkoutDirectory );
+        cl.createArgument().setValue( "pull" );
+        cl.createArgument().setValue( hgRepository.getURI() );
+        run( cl, hgRepository.getPassword(), transcript );
+
+        cl = createCommandLine( checkoutDirectory );
+        cl.createArgument().setValue( "update" );
+        cl.createArgument().setValue( "--clean" );
+        cl.createArgument().setValue( "--rev" );
+        cl.createArgument().setValue( tag.getName() );
+        run( cl, transcript );
+
+        return transcript.toResult();
+    }
+
+    private static Commandline createCommandLine( File workingDirectory )
+    {
+        Commandline cl = new Commandline();
+        cl.setExecutable( "hg" );
+        cl.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        cl.createArgument().setValue( "--noninteractive" );
+        return cl;
+    }
+}
@@ -27,7 +27,8 @@ import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 
 /**
- * Configure an SCM repository using release configuration.
+ * Configure an SCM repository using release configuration. The repositories and providers are cached for the run, so
+ * the phases that use the same configuration share them.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  */
@@ -59,4 +60,9 @@ public interface ScmRepositoryConfigurator
      */
     ScmProvider getRepositoryProvider( ScmRepository repository )
         throws NoSuchScmProviderException;
+
+    /**
+     * Forget all configured repositories and providers, at the start and end of a run.
+     */
+    void clear();
 }
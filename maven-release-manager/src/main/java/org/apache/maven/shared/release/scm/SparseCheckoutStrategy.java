@@ -0,0 +1,141 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.svn.SvnTagBranchUtils;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Check out only the files at the top of the tag and the directories listed in the release configuration, using the
+ * sparse directories of Subversion 1.5 or later. The directories above each listed directory are checked out with
+ * their files, so that the POMs of the modules in between are there as well.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.scm.CheckoutStrategy" role-hint="sparse"
+ */
+public class SparseCheckoutStrategy
+    extends AbstractCommandLineCheckoutStrategy
+{
+    public CheckOutScmResult checkOut( ScmProvider provider, ScmRepository repository, File checkoutDirectory,
+                                       ScmTag tag, ReleaseDescriptor releaseDescriptor )
+        throws ScmException
+    {
+        String[] paths = StringUtils.split( StringUtils.defaultString( releaseDescriptor.getCheckoutPaths() ), "," );
+        if ( paths.length == 0 || !( repository.getProviderRepository() instanceof SvnScmProviderRepository ) )
+        {
+            return null;
+        }
+
+        SvnScmProviderRepository svnRepository = (SvnScmProviderRepository) repository.getProviderRepository();
+
+        Transcript transcript = new Transcript();
+
+        Commandline cl = createCommandLine( svnRepository, checkoutDirectory.getParentFile() );
+        cl.createArgument().setValue( "checkout" );
+        cl.createArgument().setValue( "--depth" );
+        cl.createArgument().setValue( "files" );
+        cl.createArgument().setValue( SvnTagBranchUtils.resolveTagUrl( svnRepository, tag ) );
+        cl.createArgument().setValue( checkoutDirectory.getAbsolutePath() );
+        run( cl, svnRepository.getPassword(), transcript );
+
+        // the depths are tracked apart, so that a directory fetched with its files only as the parent of an earlier
+        // path is still fetched in full if it is listed itself, and nothing inside a full directory is cut back
+        Set filesDepth = new HashSet();
+        Set infinityDepth = new HashSet();
+        for ( int i = 0; i < paths.length; i++ )
+        {
+            String path = paths[i].trim().replace( '\\', '/' );
+            if ( path.length() == 0 || isWithin( path, infinityDepth ) )
+            {
+                continue;
+            }
+
+            for ( int index = path.indexOf( '/' ); index > 0; index = path.indexOf( '/', index + 1 ) )
+            {
+                String parent = path.substring( 0, index );
+                if ( filesDepth.add( parent ) )
+                {
+                    update( svnRepository, checkoutDirectory, parent, "files", transcript );
+                }
+            }
+            infinityDepth.add( path );
+            update( svnRepository, checkoutDirectory, path, "infinity", transcript );
+        }
+
+        return transcript.toResult();
+    }
+
+    /**
+     * @return whether the path is one of the directories, or inside one of them
+     */
+    private static boolean isWithin( String path, Set directories )
+    {
+        for ( int index = path.indexOf( '/' ); index > 0; index = path.indexOf( '/', index + 1 ) )
+        {
+            if ( directories.contains( path.substring( 0, index ) ) )
+            {
+                return true;
+            }
+        }
+        return directories.contains( path );
+    }
+
+    private void update( SvnScmProviderRepository svnRepository, File checkoutDirectory, String path, String depth,
+                         Transcript transcript )
+        throws ScmException
+    {
+        Commandline cl = createCommandLine( svnRepository, checkoutDirectory );
+        cl.createArgument().setValue( "update" );
+        cl.createArgument().setValue( "--set-depth" );
+        cl.createArgument().setValue( depth );
+        cl.createArgument().setValue( path );
+        run( cl, svnRepository.getPassword(), transcript );
+    }
+
+    private static Commandline createCommandLine( SvnScmProviderRepository svnRepository, File workingDirectory )
+    {
+        Commandline cl = new Commandline();
+        cl.setExecutable( "svn" );
+        cl.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        cl.createArgument().setValue( "--non-interactive" );
+        if ( !StringUtils.isEmpty( svnRepository.getUser() ) )
+        {
+            cl.createArgument().setValue( "--username" );
+            cl.createArgument().setValue( svnRepository.getUser() );
+        }
+        if ( !StringUtils.isEmpty( svnRepository.getPassword() ) )
+        {
+            cl.createArgument().setValue( "--password" );
+            cl.createArgument().setValue( svnRepository.getPassword() );
+        }
+        return cl;
+    }
+}
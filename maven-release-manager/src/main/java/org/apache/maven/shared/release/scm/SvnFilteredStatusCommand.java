@@ -0,0 +1,158 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamConsumer;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs <code>svn status</code> over just the given paths, handing each changed file to the collector as its line is
+ * read rather than building the whole list of changes first. Subversion has no option to leave files out by name, so
+ * the collector leaves out the excluded files as they are read.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.scm.FilteredStatusCommand" role-hint="svn"
+ */
+public class SvnFilteredStatusCommand
+    extends AbstractLogEnabled
+    implements FilteredStatusCommand
+{
+    public StatusScmResult status( ScmRepository repository, File workingDirectory, List paths,
+                                   final ModifiedFileCollector collector )
+        throws ScmException
+    {
+        if ( !( repository.getProviderRepository() instanceof SvnScmProviderRepository ) )
+        {
+            return null;
+        }
+
+        Commandline cl = new Commandline();
+        cl.setExecutable( "svn" );
+        cl.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        cl.createArgument().setValue( "--non-interactive" );
+        cl.createArgument().setValue( "status" );
+        for ( Iterator i = paths.iterator(); i.hasNext(); )
+        {
+            cl.createArgument().setValue( (String) i.next() );
+        }
+
+        getLogger().info( "Executing: " + cl );
+
+        StreamConsumer stdout = new StreamConsumer()
+        {
+            public void consumeLine( String line )
+            {
+                ScmFile file = parseStatusLine( line );
+                if ( file != null )
+                {
+                    collector.add( file );
+                }
+            }
+        };
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+
+        int exitCode;
+        try
+        {
+            exitCode = CommandLineUtils.executeCommandLine( cl, stdout, stderr );
+        }
+        catch ( CommandLineException e )
+        {
+            throw new ScmException( "Error while executing command.", e );
+        }
+
+        if ( exitCode != 0 )
+        {
+            return new StatusScmResult( cl.toString(), "The svn command failed.", stderr.getOutput(), false );
+        }
+        return new StatusScmResult( cl.toString(), null, null, true );
+    }
+
+    /**
+     * Read a line of <code>svn status</code> output, much as the Subversion provider reads it.
+     *
+     * @param line the line
+     * @return the changed file on the line, or <code>null</code> if the line isn't about a changed file
+     */
+    static ScmFile parseStatusLine( String line )
+    {
+        if ( line.length() <= 7 )
+        {
+            return null;
+        }
+
+        ScmFileStatus status;
+        switch ( line.charAt( 0 ) )
+        {
+            case 'A':
+                status = ScmFileStatus.ADDED;
+                break;
+            case 'D':
+                status = ScmFileStatus.DELETED;
+                break;
+            case 'M':
+            case 'R':
+                status = ScmFileStatus.MODIFIED;
+                break;
+            case '?':
+                status = ScmFileStatus.UNKNOWN;
+                break;
+            case '!':
+                status = ScmFileStatus.MISSING;
+                break;
+            case 'C':
+            case '~':
+                status = ScmFileStatus.CONFLICT;
+                break;
+            case ' ':
+                // only the properties have changed
+                if ( line.charAt( 1 ) == 'M' )
+                {
+                    status = ScmFileStatus.MODIFIED;
+                }
+                else if ( line.charAt( 1 ) == 'C' )
+                {
+                    status = ScmFileStatus.CONFLICT;
+                }
+                else
+                {
+                    return null;
+                }
+                break;
+            default:
+                // externals, ignored files and headings
+                return null;
+        }
+
+        return new ScmFile( line.substring( 7 ).trim(), status );
+    }
+}
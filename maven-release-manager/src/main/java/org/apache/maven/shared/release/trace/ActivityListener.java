@@ -0,0 +1,36 @@
+package org.apache.maven.shared.release.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Receives the activities that make up a release, such as running Maven or an SCM command.
+ */
+public interface ActivityListener
+{
+    /**
+     * Report an activity once it has finished, whether it succeeded or not.
+     *
+     * @param category  the kind of activity, such as <code>maven</code> or <code>scm</code>
+     * @param name      what was done
+     * @param startTime when the activity started, in milliseconds since the epoch
+     * @param duration  how long the activity took, in milliseconds
+     */
+    void activityFinished( String category, String name, long startTime, long duration );
+}
@@ -0,0 +1,57 @@
+package org.apache.maven.shared.release.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Passes the activities of a release on to the listeners interested in them, while there are any.
+ */
+public interface ActivityTracer
+{
+    /**
+     * The Plexus role.
+     */
+    String ROLE = ActivityTracer.class.getName();
+
+    /**
+     * The category of forked or embedded Maven executions.
+     */
+    String MAVEN = "maven";
+
+    /**
+     * The category of SCM commands.
+     */
+    String SCM = "scm";
+
+    void addListener( ActivityListener listener );
+
+    void removeListener( ActivityListener listener );
+
+    /**
+     * @return whether there are any listeners, so that activities that are costly to report can be skipped
+     */
+    boolean isTracing();
+
+    /**
+     * Report an activity to the listeners.
+     *
+     * @see ActivityListener#activityFinished(String, String, long, long)
+     */
+    void activityFinished( String category, String name, long startTime, long duration );
+}
@@ -0,0 +1,327 @@
+package org.apache.maven.shared.release.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.PhaseMeasurement;
+import org.apache.maven.shared.release.ReleaseManagerListener;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.WriterFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Records the goals, phases and activities of a release, and writes them out in the Chrome trace event format so
+ * that they can be loaded into a trace viewer (such as <code>chrome://tracing</code>). Goals, phases and
+ * activities are written as complete events, stacked so that phases that ran at the same time are shown on separate
+ * rows. Skipped phases and errors are written as global instant events.
+ */
+public class ChromeTraceListener
+    implements ReleaseManagerListener, ActivityListener
+{
+    private static final String PHASE = "phase";
+
+    private static final String GOAL = "goal";
+
+    private final File traceFile;
+
+    private final long origin = System.currentTimeMillis();
+
+    private final List events = new ArrayList();
+
+    private String goal;
+
+    private long goalStartTime;
+
+    /**
+     * @param traceFile the file to write the trace to when the listener is closed
+     */
+    public ChromeTraceListener( File traceFile )
+    {
+        this.traceFile = traceFile;
+    }
+
+    public synchronized void goalStart( String goal, List phases )
+    {
+        this.goal = goal;
+        goalStartTime = System.currentTimeMillis();
+    }
+
+    public void phaseStart( String name )
+    {
+        // phases are recorded when they are measured
+    }
+
+    public void phaseEnd()
+    {
+        // phases are recorded when they are measured
+    }
+
+    public synchronized void phaseMeasured( PhaseMeasurement measurement )
+    {
+        Event event = new Event( measurement.getPhase(), PHASE, measurement.getStartTime() );
+        event.duration = measurement.getWallTime();
+        if ( measurement.getCpuTime() >= 0 )
+        {
+            event.args = "\"cpuTimeMillis\":" + measurement.getCpuTime() / 1000000;
+        }
+        if ( measurement.getAllocatedBytes() >= 0 )
+        {
+            event.args = ( event.args != null ? event.args + "," : "" ) + "\"allocatedBytes\":" +
+                measurement.getAllocatedBytes();
+        }
+        events.add( event );
+    }
+
+    public synchronized void phaseSkip( String name )
+    {
+        events.add( new Event( name + " (skipped)", PHASE, System.currentTimeMillis() ) );
+    }
+
+    public synchronized void goalEnd()
+    {
+        endGoal();
+    }
+
+    public synchronized void error( String reason )
+    {
+        Event event = new Event( "error", GOAL, System.currentTimeMillis() );
+        event.args = "\"reason\":" + quote( String.valueOf( reason ) );
+        events.add( event );
+    }
+
+    public synchronized void activityFinished( String category, String name, long startTime, long duration )
+    {
+        Event event = new Event( name, category, startTime );
+        event.duration = duration;
+        events.add( event );
+    }
+
+    /**
+     * Write the trace file. A goal that hasn't ended yet, because it failed, is ended first.
+     *
+     * @throws IOException if the trace file can't be written
+     */
+    public synchronized void close()
+        throws IOException
+    {
+        endGoal();
+
+        List sorted = new ArrayList( events );
+        Collections.sort( sorted, new Comparator()
+        {
+            public int compare( Object o1, Object o2 )
+            {
+                Event e1 = (Event) o1;
+                Event e2 = (Event) o2;
+                if ( e1.startTime != e2.startTime )
+                {
+                    return e1.startTime < e2.startTime ? -1 : 1;
+                }
+                // enclosing events first
+                return e1.duration > e2.duration ? -1 : e1.duration < e2.duration ? 1 : 0;
+            }
+        } );
+        assignRows( sorted );
+
+        if ( traceFile.getParentFile() != null )
+        {
+            traceFile.getParentFile().mkdirs();
+        }
+
+        Writer writer = null;
+        try
+        {
+            writer = WriterFactory.newWriter( traceFile, WriterFactory.UTF_8 );
+
+            writer.write( "{\"traceEvents\":[" );
+            for ( Iterator i = sorted.iterator(); i.hasNext(); )
+            {
+                writer.write( "\n" );
+                writeEvent( (Event) i.next(), writer );
+                if ( i.hasNext() )
+                {
+                    writer.write( "," );
+                }
+            }
+            writer.write( "\n],\"displayTimeUnit\":\"ms\"}\n" );
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    private void endGoal()
+    {
+        if ( goal != null )
+        {
+            Event event = new Event( goal, GOAL, goalStartTime );
+            event.duration = System.currentTimeMillis() - goalStartTime;
+            events.add( event );
+            goal = null;
+        }
+    }
+
+    /**
+     * Put each event on the first row where it either comes after the events already there, or nests inside them. Goals
+     * contain phases, and phases contain activities, but phases that ran at the same time are put on separate rows.
+     */
+    private static void assignRows( List sorted )
+    {
+        List rows = new ArrayList();
+        for ( Iterator i = sorted.iterator(); i.hasNext(); )
+        {
+            Event event = (Event) i.next();
+            if ( event.duration < 0 )
+            {
+                // instant events are shown across all rows
+                event.row = 0;
+                continue;
+            }
+
+            for ( int row = 0; event.row < 0; row++ )
+            {
+                if ( row == rows.size() )
+                {
+                    rows.add( new LinkedList() );
+                }
+
+                // the events on this row that the next event would be nested in
+                LinkedList open = (LinkedList) rows.get( row );
+                while ( !open.isEmpty() && ( (Event) open.getLast() ).getEndTime() <= event.startTime )
+                {
+                    open.removeLast();
+                }
+
+                if ( open.isEmpty() || ( (Event) open.getLast() ).contains( event ) )
+                {
+                    open.addLast( event );
+                    event.row = row;
+                }
+            }
+        }
+    }
+
+    private void writeEvent( Event event, Writer writer )
+        throws IOException
+    {
+        writer.write( "{\"name\":" + quote( event.name ) + ",\"cat\":" + quote( event.category ) );
+        if ( event.duration >= 0 )
+        {
+            writer.write( ",\"ph\":\"X\",\"dur\":" + event.duration * 1000 );
+        }
+        else
+        {
+            writer.write( ",\"ph\":\"i\",\"s\":\"g\"" );
+        }
+        writer.write( ",\"ts\":" + ( event.startTime - origin ) * 1000 + ",\"pid\":1,\"tid\":" + ( event.row + 1 ) );
+        if ( event.args != null )
+        {
+            writer.write( ",\"args\":{" + event.args + "}" );
+        }
+        writer.write( "}" );
+    }
+
+    private static String quote( String value )
+    {
+        StringBuffer buffer = new StringBuffer( value.length() + 2 );
+        buffer.append( '"' );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+                case '"':
+                    buffer.append( "\\\"" );
+                    break;
+                case '\\':
+                    buffer.append( "\\\\" );
+                    break;
+                case '\n':
+                    buffer.append( "\\n" );
+                    break;
+                case '\r':
+                    buffer.append( "\\r" );
+                    break;
+                case '\t':
+                    buffer.append( "\\t" );
+                    break;
+                default:
+                    if ( c < ' ' )
+                    {
+                        String hex = Integer.toHexString( c );
+                        buffer.append( "\\u" ).append( "0000".substring( hex.length() ) ).append( hex );
+                    }
+                    else
+                    {
+                        buffer.append( c );
+                    }
+            }
+        }
+        buffer.append( '"' );
+        return buffer.toString();
+    }
+
+    private static class Event
+    {
+        private final String name;
+
+        private final String category;
+
+        private final long startTime;
+
+        // -1 for an instant event
+        private long duration = -1;
+
+        private String args;
+
+        private int row = -1;
+
+        private Event( String name, String category, long startTime )
+        {
+            this.name = name;
+            this.category = category;
+            this.startTime = startTime;
+        }
+
+        private long getEndTime()
+        {
+            return startTime + duration;
+        }
+
+        private boolean contains( Event event )
+        {
+            return getLevel() < event.getLevel() && event.getEndTime() <= getEndTime();
+        }
+
+        private int getLevel()
+        {
+            return GOAL.equals( category ) ? 0 : PHASE.equals( category ) ? 1 : 2;
+        }
+    }
+}
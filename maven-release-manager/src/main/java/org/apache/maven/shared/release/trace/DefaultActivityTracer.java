@@ -0,0 +1,63 @@
+package org.apache.maven.shared.release.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the listeners in a list that is replaced rather than changed, so that activities can be reported from any
+ * thread without holding a lock while the listeners run.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.trace.ActivityTracer"
+ */
+public class DefaultActivityTracer
+    implements ActivityTracer
+{
+    private volatile List listeners = new ArrayList();
+
+    public synchronized void addListener( ActivityListener listener )
+    {
+        List list = new ArrayList( listeners );
+        list.add( listener );
+        listeners = list;
+    }
+
+    public synchronized void removeListener( ActivityListener listener )
+    {
+        List list = new ArrayList( listeners );
+        list.remove( listener );
+        listeners = list;
+    }
+
+    public boolean isTracing()
+    {
+        return !listeners.isEmpty();
+    }
+
+    public void activityFinished( String category, String name, long startTime, long duration )
+    {
+        List list = listeners;
+        for ( int i = 0; i < list.size(); i++ )
+        {
+            ( (ActivityListener) list.get( i ) ).activityFinished( category, name, startTime, duration );
+        }
+    }
+}
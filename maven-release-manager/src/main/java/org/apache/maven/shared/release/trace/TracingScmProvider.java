@@ -0,0 +1,83 @@
+package org.apache.maven.shared.release.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.provider.ScmProvider;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Reports the SCM commands run through a provider as activities. Only the methods that return an SCM result are
+ * reported, as those are the ones that run a command.
+ */
+public class TracingScmProvider
+    implements InvocationHandler
+{
+    private final ScmProvider provider;
+
+    private final ActivityTracer tracer;
+
+    private TracingScmProvider( ScmProvider provider, ActivityTracer tracer )
+    {
+        this.provider = provider;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wrap a provider so that its commands are reported.
+     *
+     * @param provider the provider
+     * @param tracer   the tracer to report the commands to
+     * @return a provider that reports its commands and then delegates to the given one
+     */
+    public static ScmProvider wrap( ScmProvider provider, ActivityTracer tracer )
+    {
+        return (ScmProvider) Proxy.newProxyInstance( ScmProvider.class.getClassLoader(),
+                                                     new Class[]{ScmProvider.class},
+                                                     new TracingScmProvider( provider, tracer ) );
+    }
+
+    public Object invoke( Object proxy, Method method, Object[] args )
+        throws Throwable
+    {
+        boolean command = ScmResult.class.isAssignableFrom( method.getReturnType() );
+        long startTime = System.currentTimeMillis();
+        try
+        {
+            return method.invoke( provider, args );
+        }
+        catch ( InvocationTargetException e )
+        {
+            throw e.getTargetException();
+        }
+        finally
+        {
+            if ( command )
+            {
+                tracer.activityFinished( ActivityTracer.SCM, provider.getScmType() + " " + method.getName(),
+                                         startTime, System.currentTimeMillis() - startTime );
+            }
+        }
+    }
+}
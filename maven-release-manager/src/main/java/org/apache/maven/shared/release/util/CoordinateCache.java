@@ -0,0 +1,57 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * A run-scoped table of artifact coordinates, so that the phases which look at the same dependencies of every
+ * project in the reactor don't each have to build their keys and classify their versions again. Resolved versions
+ * aren't kept here: the release and development versions mapped for each project, and the versions chosen for
+ * snapshot dependencies, are already held once per run in the release descriptor, keyed by these same keys.
+ */
+public interface CoordinateCache
+{
+    /**
+     * The Plexus role.
+     */
+    String ROLE = CoordinateCache.class.getName();
+
+    /**
+     * Get the versionless key of an artifact, the same as <code>ArtifactUtils.versionlessKey</code> would build. The
+     * same instance is returned every time for the same coordinates.
+     *
+     * @param groupId    the group ID
+     * @param artifactId the artifact ID
+     * @return the <code>groupId:artifactId</code> key
+     */
+    String versionlessKey( String groupId, String artifactId );
+
+    /**
+     * Check whether a version is a snapshot, the same as <code>ArtifactUtils.isSnapshot</code> would.
+     *
+     * @param version the version
+     * @return whether it is a snapshot or timestamped snapshot version
+     */
+    boolean isSnapshot( String version );
+
+    /**
+     * Forget all coordinates, at the start and end of a run.
+     */
+    void clear();
+}
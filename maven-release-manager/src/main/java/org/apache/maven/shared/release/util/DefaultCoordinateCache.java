@@ -0,0 +1,116 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.ArtifactUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the versionless keys by group and artifact ID, and the snapshot status of versions, in maps that phases
+ * running on different threads can share. The maps are split into stripes with a lock each, so that the threads
+ * checking the projects of a reactor in parallel rarely wait for each other.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.util.CoordinateCache"
+ */
+public class DefaultCoordinateCache
+    implements CoordinateCache
+{
+    private static final int STRIPES = 16;
+
+    // group ID to a map of artifact ID to key, so that looking up a key doesn't build it first
+    private final Map[] keys = createStripes();
+
+    private final Map[] snapshots = createStripes();
+
+    public String versionlessKey( String groupId, String artifactId )
+    {
+        Map stripe = getStripe( keys, groupId );
+        synchronized ( stripe )
+        {
+            Map artifactKeys = (Map) stripe.get( groupId );
+            if ( artifactKeys == null )
+            {
+                artifactKeys = new HashMap();
+                stripe.put( groupId, artifactKeys );
+            }
+
+            String key = (String) artifactKeys.get( artifactId );
+            if ( key == null )
+            {
+                key = ArtifactUtils.versionlessKey( groupId, artifactId );
+                artifactKeys.put( artifactId, key );
+            }
+            return key;
+        }
+    }
+
+    public boolean isSnapshot( String version )
+    {
+        if ( version == null )
+        {
+            return false;
+        }
+
+        Map stripe = getStripe( snapshots, version );
+        synchronized ( stripe )
+        {
+            Boolean snapshot = (Boolean) stripe.get( version );
+            if ( snapshot == null )
+            {
+                snapshot = ArtifactUtils.isSnapshot( version ) ? Boolean.TRUE : Boolean.FALSE;
+                stripe.put( version, snapshot );
+            }
+            return snapshot.booleanValue();
+        }
+    }
+
+    public void clear()
+    {
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            synchronized ( keys[i] )
+            {
+                keys[i].clear();
+            }
+            synchronized ( snapshots[i] )
+            {
+                snapshots[i].clear();
+            }
+        }
+    }
+
+    private static Map[] createStripes()
+    {
+        Map[] stripes = new Map[STRIPES];
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            stripes[i] = new HashMap();
+        }
+        return stripes;
+    }
+
+    private static Map getStripe( Map[] stripes, String key )
+    {
+        int hash = key != null ? key.hashCode() : 0;
+        return stripes[( hash & Integer.MAX_VALUE ) % STRIPES];
+    }
+}
@@ -0,0 +1,100 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches parsed POMs by file, along with a digest of the content they were parsed from.
+ *
+ * @plexus.component role="org.apache.maven.shared.release.util.PomCache"
+ */
+public class DefaultPomCache
+    implements PomCache
+{
+    private final Map entries = new HashMap();
+
+    public Object get( File file, byte[] content )
+    {
+        byte[] digest = digest( content );
+
+        synchronized ( entries )
+        {
+            Entry entry = (Entry) entries.get( file.getAbsoluteFile() );
+            return entry != null && MessageDigest.isEqual( digest, entry.digest ) ? entry.pom : null;
+        }
+    }
+
+    public void put( File file, byte[] content, Object pom )
+    {
+        Entry entry = new Entry( digest( content ), pom );
+
+        synchronized ( entries )
+        {
+            entries.put( file.getAbsoluteFile(), entry );
+        }
+    }
+
+    public void invalidate( File file )
+    {
+        synchronized ( entries )
+        {
+            entries.remove( file.getAbsoluteFile() );
+        }
+    }
+
+    public void clear()
+    {
+        synchronized ( entries )
+        {
+            entries.clear();
+        }
+    }
+
+    private static byte[] digest( byte[] content )
+    {
+        try
+        {
+            return MessageDigest.getInstance( "MD5" ).digest( content );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            // every JVM is required to support MD5
+            throw new IllegalStateException( e.getMessage() );
+        }
+    }
+
+    private static class Entry
+    {
+        private final byte[] digest;
+
+        private final Object pom;
+
+        private Entry( byte[] digest, Object pom )
+        {
+            this.digest = digest;
+            this.pom = pom;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Writes the changes made to a POM's document back into the original text of the POM, leaving everything else
+ * exactly as it was. Only changes to the text of elements without child elements can be written this way - if
+ * elements are added, removed, or have their namespace or attributes changed, the document must be written in full.
+ */
+public class LosslessPomEditor
+{
+    private final char[] text;
+
+    private final PomSnapshot snapshot;
+
+    private final int[] contentStart;
+
+    private final int[] contentEnd;
+
+    private final boolean indexed;
+
+    /**
+     * Find where the content of the elements of a freshly parsed document is in the text it was parsed from.
+     *
+     * @param text     the original text of the POM
+     * @param snapshot the snapshot of the document parsed from the text, taken before it is changed
+     */
+    public LosslessPomEditor( String text, PomSnapshot snapshot )
+    {
+        this.text = text.toCharArray();
+        this.snapshot = snapshot;
+
+        contentStart = new int[snapshot.size()];
+        contentEnd = new int[snapshot.size()];
+
+        indexed = index();
+    }
+
+    /**
+     * Write the changes made to the document into the original text.
+     *
+     * @return the original text with the changed element text spliced in, or <code>null</code> if the document was
+     *         changed in a way that can't be spliced
+     */
+    public String edit()
+    {
+        if ( !indexed || snapshot.isStructureChanged() )
+        {
+            return null;
+        }
+
+        StringBuffer buffer = new StringBuffer( text.length + 256 );
+        int copied = 0;
+        for ( int i = 0; i < snapshot.size(); i++ )
+        {
+            if ( snapshot.isTextChanged( i ) )
+            {
+                if ( contentStart[i] < 0 )
+                {
+                    // an empty element tag would need to be expanded
+                    return null;
+                }
+
+                buffer.append( text, copied, contentStart[i] - copied );
+                escape( snapshot.getElement( i ).getText(), buffer );
+                copied = contentEnd[i];
+            }
+        }
+        buffer.append( text, copied, text.length - copied );
+
+        return buffer.toString();
+    }
+
+    /**
+     * Find the content of each element in the text, in document order, which is the same order the elements were
+     * recorded in.
+     *
+     * @return whether the elements in the text matched up with the elements of the document
+     */
+    private boolean index()
+    {
+        int expected = snapshot.size();
+        if ( expected == 0 )
+        {
+            return false;
+        }
+
+        int[] stack = new int[16];
+        int depth = 0;
+        int count = 0;
+
+        int i = 0;
+        while ( ( i = indexOf( '<', i ) ) >= 0 )
+        {
+            if ( startsWith( i, "<!--" ) )
+            {
+                i = skipPast( i + 4, "-->" );
+            }
+            else if ( startsWith( i, "<![CDATA[" ) )
+            {
+                i = skipPast( i + 9, "]]>" );
+            }
+            else if ( startsWith( i, "<?" ) )
+            {
+                i = skipPast( i + 2, "?>" );
+            }
+            else if ( startsWith( i, "<!" ) )
+            {
+                i = skipDeclaration( i + 2 );
+            }
+            else if ( startsWith( i, "</" ) )
+            {
+                if ( depth == 0 )
+                {
+                    return false;
+                }
+                contentEnd[stack[--depth]] = i;
+                i = indexOf( '>', i );
+            }
+            else
+            {
+                if ( count == expected )
+                {
+                    return false;
+                }
+
+                int end = skipTag( i + 1 );
+                if ( end < 0 )
+                {
+                    return false;
+                }
+
+                if ( text[end - 1] == '/' )
+                {
+                    contentStart[count] = -1;
+                    contentEnd[count] = -1;
+                }
+                else
+                {
+                    contentStart[count] = end + 1;
+                    if ( depth == stack.length )
+                    {
+                        int[] larger = new int[depth * 2];
+                        System.arraycopy( stack, 0, larger, 0, depth );
+                        stack = larger;
+                    }
+                    stack[depth++] = count;
+                }
+                count++;
+                i = end;
+            }
+
+            if ( i < 0 )
+            {
+                return false;
+            }
+            i++;
+        }
+
+        return count == expected && depth == 0;
+    }
+
+    private int skipTag( int from )
+    {
+        char quote = 0;
+        for ( int i = from; i < text.length; i++ )
+        {
+            char c = text[i];
+            if ( quote != 0 )
+            {
+                if ( c == quote )
+                {
+                    quote = 0;
+                }
+            }
+            else if ( c == '"' || c == '\'' )
+            {
+                quote = c;
+            }
+            else if ( c == '>' )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int skipPast( int from, String terminator )
+    {
+        for ( int i = from; i < text.length; i++ )
+        {
+            if ( startsWith( i, terminator ) )
+            {
+                return i + terminator.length() - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int skipDeclaration( int from )
+    {
+        int depth = 0;
+        for ( int i = from; i < text.length; i++ )
+        {
+            char c = text[i];
+            if ( c == '[' )
+            {
+                depth++;
+            }
+            else if ( c == ']' )
+            {
+                depth--;
+            }
+            else if ( c == '>' && depth <= 0 )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf( char c, int from )
+    {
+        for ( int i = from; i < text.length; i++ )
+        {
+            if ( text[i] == c )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith( int offset, String s )
+    {
+        if ( offset + s.length() > text.length )
+        {
+            return false;
+        }
+        for ( int i = 0; i < s.length(); i++ )
+        {
+            if ( text[offset + i] != s.charAt( i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void escape( String value, StringBuffer buffer )
+    {
+        // the same escaping XMLOutputter applies to element text
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+                case '&':
+                    buffer.append( "&amp;" );
+                    break;
+                case '<':
+                    buffer.append( "&lt;" );
+                    break;
+                case '>':
+                    buffer.append( "&gt;" );
+                    break;
+                case '\r':
+                    buffer.append( "&#xD;" );
+                    break;
+                default:
+                    buffer.append( c );
+            }
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * The text of a POM, normalised in a single pass so that JDOM doesn't lose whitespace inside elements when the POM
+ * is rewritten. This is equivalent to replacing <code>&lt;([^!][^&gt;]*?)\s{2,}([^&gt;]*?)&gt;</code> with
+ * <code>&lt;$1 $2&gt;</code> and then <code>(\s{2,}|[^\s])/&gt;</code> with <code>$1 /&gt;</code>, without the
+ * regular expressions or the intermediate copies of the document.
+ */
+public class NormalisedPom
+{
+    private static final int TEXT = 0, AFTER_LT = 1, TAG = 2;
+
+    private char[] buffer = new char[8192];
+
+    private int length;
+
+    private int rootStart = -1;
+
+    // state for collapsing the first run of whitespace in a tag, which is held back until the tag is closed
+    private int state = TEXT;
+
+    private char[] tag = new char[64];
+
+    private int tagLength;
+
+    // state for spacing out "/>"
+    private boolean pendingSlash;
+
+    private int trailingWhitespace;
+
+    private boolean lastConsumed;
+
+    private NormalisedPom()
+    {
+    }
+
+    /**
+     * Read and normalise the text of a POM. The reader is not closed.
+     *
+     * @param reader the reader for the POM
+     * @return the normalised POM
+     * @throws IOException if the POM can't be read
+     */
+    public static NormalisedPom read( Reader reader )
+        throws IOException
+    {
+        NormalisedPom pom = new NormalisedPom();
+
+        char[] chunk = new char[8192];
+        int n;
+        while ( ( n = reader.read( chunk ) ) != -1 )
+        {
+            for ( int i = 0; i < n; i++ )
+            {
+                pom.accept( chunk[i] );
+            }
+        }
+        pom.finish();
+
+        return pom;
+    }
+
+    /**
+     * @return a reader over the normalised text
+     */
+    public Reader getReader()
+    {
+        return new CharArrayReader( buffer, 0, length );
+    }
+
+    /**
+     * Create a writer that checks whether the root element, as it is written to it, is identical to the normalised
+     * text. If it is, the text surrounding the root element (which JDOM does not track) can be retrieved from it.
+     *
+     * @return the writer
+     */
+    public RootMatcher createRootMatcher()
+    {
+        return new RootMatcher();
+    }
+
+    public String toString()
+    {
+        return new String( buffer, 0, length );
+    }
+
+    private void accept( char c )
+    {
+        switch ( state )
+        {
+            case TEXT:
+                emit( c );
+                if ( c == '<' )
+                {
+                    state = AFTER_LT;
+                }
+                break;
+            case AFTER_LT:
+                // the first character of the tag is never part of the collapsed whitespace, and may even be '>'
+                if ( c == '!' )
+                {
+                    emit( c );
+                    state = TEXT;
+                }
+                else
+                {
+                    appendToTag( c );
+                    state = TAG;
+                }
+                break;
+            default:
+                if ( c != '>' )
+                {
+                    appendToTag( c );
+                }
+                else if ( flushTag( true ) )
+                {
+                    emit( c );
+                    state = TEXT;
+                }
+                else if ( tag[tagLength - 1] == '<' )
+                {
+                    // "<>" inside an unmodified tag starts another tag that runs to the next '>'
+                    tagLength = 0;
+                    appendToTag( c );
+                }
+                else
+                {
+                    tagLength = 0;
+                    emit( c );
+                    state = TEXT;
+                }
+        }
+    }
+
+    private void appendToTag( char c )
+    {
+        if ( tagLength == tag.length )
+        {
+            tag = grow( tag, tagLength );
+        }
+        tag[tagLength++] = c;
+    }
+
+    /**
+     * Emit the held back tag, collapsing its first run of two or more whitespace characters if it is closed. Unless
+     * the tag is collapsed, the held back tag is left for the caller to reset.
+     */
+    private boolean flushTag( boolean closed )
+    {
+        int run = -1;
+        int runEnd = -1;
+        if ( closed )
+        {
+            for ( int i = 1; i < tagLength && run < 0; i++ )
+            {
+                if ( isWhitespace( tag[i] ) )
+                {
+                    int end = i + 1;
+                    while ( end < tagLength && isWhitespace( tag[end] ) )
+                    {
+                        end++;
+                    }
+                    if ( end - i >= 2 )
+                    {
+                        run = i;
+                        runEnd = end;
+                    }
+                    i = end;
+                }
+            }
+        }
+
+        if ( run < 0 )
+        {
+            for ( int i = 0; i < tagLength; i++ )
+            {
+                emit( tag[i] );
+            }
+            return false;
+        }
+
+        for ( int i = 0; i < run; i++ )
+        {
+            emit( tag[i] );
+        }
+        emit( ' ' );
+        for ( int i = runEnd; i < tagLength; i++ )
+        {
+            emit( tag[i] );
+        }
+        tagLength = 0;
+        return true;
+    }
+
+    private void finish()
+    {
+        // an unterminated tag is left alone
+        flushTag( false );
+        tagLength = 0;
+
+        if ( pendingSlash )
+        {
+            append( '/' );
+            pendingSlash = false;
+        }
+
+        rootStart = findRootStart();
+    }
+
+    private void emit( char c )
+    {
+        if ( pendingSlash )
+        {
+            pendingSlash = false;
+            if ( c == '>' )
+            {
+                // whitespace or a character not already consumed by the previous match gets a space
+                boolean match =
+                    trailingWhitespace >= 2 || ( trailingWhitespace == 0 && length > 0 && !lastConsumed );
+                if ( match )
+                {
+                    append( ' ' );
+                }
+                append( '/' );
+                append( '>' );
+                trailingWhitespace = 0;
+                lastConsumed = match;
+                return;
+            }
+
+            append( '/' );
+            trailingWhitespace = 0;
+            lastConsumed = false;
+        }
+
+        if ( c == '/' )
+        {
+            pendingSlash = true;
+        }
+        else
+        {
+            append( c );
+            if ( isWhitespace( c ) )
+            {
+                trailingWhitespace++;
+            }
+            else
+            {
+                trailingWhitespace = 0;
+                lastConsumed = false;
+            }
+        }
+    }
+
+    private void append( char c )
+    {
+        if ( length == buffer.length )
+        {
+            buffer = grow( buffer, length );
+        }
+        buffer[length++] = c;
+    }
+
+    private int findRootStart()
+    {
+        int i = 0;
+        while ( i < length - 1 )
+        {
+            if ( buffer[i] != '<' )
+            {
+                i++;
+            }
+            else if ( buffer[i + 1] == '?' )
+            {
+                i = skipPast( i + 2, "?>" );
+            }
+            else if ( buffer[i + 1] == '!' )
+            {
+                if ( startsWith( i, "<!--" ) )
+                {
+                    i = skipPast( i + 4, "-->" );
+                }
+                else
+                {
+                    i = skipDeclaration( i + 2 );
+                }
+            }
+            else
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int skipPast( int from, String terminator )
+    {
+        for ( int i = from; i < length; i++ )
+        {
+            if ( startsWith( i, terminator ) )
+            {
+                return i + terminator.length();
+            }
+        }
+        return length;
+    }
+
+    private int skipDeclaration( int from )
+    {
+        int depth = 0;
+        for ( int i = from; i < length; i++ )
+        {
+            char c = buffer[i];
+            if ( c == '[' )
+            {
+                depth++;
+            }
+            else if ( c == ']' )
+            {
+                depth--;
+            }
+            else if ( c == '>' && depth <= 0 )
+            {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private boolean startsWith( int offset, String s )
+    {
+        if ( offset + s.length() > length )
+        {
+            return false;
+        }
+        for ( int i = 0; i < s.length(); i++ )
+        {
+            if ( buffer[offset + i] != s.charAt( i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace( char c )
+    {
+        // the same characters as \s
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static char[] grow( char[] array, int used )
+    {
+        char[] larger = new char[array.length * 2];
+        System.arraycopy( array, 0, larger, 0, used );
+        return larger;
+    }
+
+    /**
+     * A writer that compares what is written to it with the normalised text, starting at the root element.
+     */
+    public class RootMatcher
+        extends Writer
+    {
+        private int position = rootStart;
+
+        private boolean match = rootStart >= 0;
+
+        public void write( char[] cbuf, int off, int len )
+        {
+            if ( match )
+            {
+                if ( position + len > length )
+                {
+                    match = false;
+                    return;
+                }
+                for ( int i = 0; i < len; i++ )
+                {
+                    if ( buffer[position + i] != cbuf[off + i] )
+                    {
+                        match = false;
+                        return;
+                    }
+                }
+                position += len;
+            }
+        }
+
+        public void write( String str, int off, int len )
+        {
+            if ( match )
+            {
+                if ( position + len > length )
+                {
+                    match = false;
+                    return;
+                }
+                for ( int i = 0; i < len; i++ )
+                {
+                    if ( buffer[position + i] != str.charAt( off + i ) )
+                    {
+                        match = false;
+                        return;
+                    }
+                }
+                position += len;
+            }
+        }
+
+        public void write( int c )
+        {
+            write( new char[]{(char) c}, 0, 1 );
+        }
+
+        public void flush()
+        {
+        }
+
+        public void close()
+        {
+        }
+
+        /**
+         * @return whether everything written so far was identical to the text of the root element
+         */
+        public boolean isMatch()
+        {
+            return match;
+        }
+
+        /**
+         * @return the text before the root element, or <code>null</code> if the root element didn't match
+         */
+        public String getIntro()
+        {
+            return match ? new String( buffer, 0, rootStart ) : null;
+        }
+
+        /**
+         * @return the text after the root element, or <code>null</code> if the root element didn't match
+         */
+        public String getOuttro()
+        {
+            return match ? new String( buffer, position, length - position ) : null;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+
+import java.util.List;
+
+/**
+ * Runs a list of independent tasks over a bounded number of worker threads. All tasks are always run to completion,
+ * and failures are reported in list order so that the outcome does not depend on thread scheduling.
+ */
+public class ParallelTaskRunner
+{
+    /**
+     * A unit of work to run.
+     */
+    public interface Task
+    {
+        void run()
+            throws Exception;
+    }
+
+    private final int threads;
+
+    /**
+     * @param threads the maximum number of worker threads to use. A value of 1 or less runs the tasks on the calling
+     *                thread.
+     */
+    public ParallelTaskRunner( int threads )
+    {
+        this.threads = threads;
+    }
+
+    /**
+     * Run all of the tasks, returning the failure of each task indexed the same as the list.
+     *
+     * @param tasks the tasks to run
+     * @return an array the size of the task list, holding the failure of each task, or <code>null</code> if the task
+     *         succeeded
+     */
+    public Throwable[] execute( List tasks )
+    {
+        final Task[] work = (Task[]) tasks.toArray( new Task[tasks.size()] );
+        final Throwable[] failures = new Throwable[work.length];
+
+        int workers = Math.min( threads, work.length );
+        if ( workers <= 1 )
+        {
+            for ( int i = 0; i < work.length; i++ )
+            {
+                failures[i] = runTask( work[i] );
+            }
+            return failures;
+        }
+
+        final int[] next = new int[]{0};
+        Runnable worker = new Runnable()
+        {
+            public void run()
+            {
+                while ( true )
+                {
+                    int index;
+                    synchronized ( next )
+                    {
+                        if ( next[0] >= work.length )
+                        {
+                            return;
+                        }
+                        index = next[0]++;
+                    }
+                    failures[index] = runTask( work[index] );
+                }
+            }
+        };
+
+        Thread[] pool = new Thread[workers];
+        for ( int i = 0; i < workers; i++ )
+        {
+            pool[i] = new Thread( worker, "release-worker-" + i );
+            pool[i].setDaemon( true );
+            pool[i].start();
+        }
+
+        for ( int i = 0; i < workers; i++ )
+        {
+            boolean joined = false;
+            while ( !joined )
+            {
+                try
+                {
+                    pool[i].join();
+                    joined = true;
+                }
+                catch ( InterruptedException e )
+                {
+                    // keep waiting - the tasks can't be abandoned half way through
+                }
+            }
+        }
+
+        // join() guarantees the workers' writes to the failures array are visible here
+        return failures;
+    }
+
+    /**
+     * Run all of the tasks, and then rethrow the failure of the first task in list order that failed, if any.
+     *
+     * @param tasks the tasks to run
+     * @throws ReleaseExecutionException if the first failed task threw an execution or unexpected exception
+     * @throws ReleaseFailureException   if the first failed task threw a release failure
+     */
+    public void run( List tasks )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        Throwable[] failures = execute( tasks );
+
+        for ( int i = 0; i < failures.length; i++ )
+        {
+            if ( failures[i] != null )
+            {
+                rethrow( failures[i] );
+            }
+        }
+    }
+
+    /**
+     * Rethrow a failure captured from a task as the closest matching release exception.
+     *
+     * @param t the failure
+     * @throws ReleaseExecutionException if the failure was an execution or unexpected exception
+     * @throws ReleaseFailureException   if the failure was a release failure
+     */
+    public static void rethrow( Throwable t )
+        throws ReleaseExecutionException, ReleaseFailureException
+    {
+        if ( t instanceof ReleaseExecutionException )
+        {
+            throw (ReleaseExecutionException) t;
+        }
+        if ( t instanceof ReleaseFailureException )
+        {
+            throw (ReleaseFailureException) t;
+        }
+        if ( t instanceof RuntimeException )
+        {
+            throw (RuntimeException) t;
+        }
+        if ( t instanceof Error )
+        {
+            throw (Error) t;
+        }
+        throw new ReleaseExecutionException( t.getMessage(), t );
+    }
+
+    private static Throwable runTask( Task task )
+    {
+        try
+        {
+            task.run();
+            return null;
+        }
+        catch ( Throwable t )
+        {
+            return t;
+        }
+    }
+}
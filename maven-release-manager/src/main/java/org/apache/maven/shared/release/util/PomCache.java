@@ -0,0 +1,65 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+/**
+ * A run-scoped cache of parsed POMs, so that phases which read the same POM don't each have to parse it again. The
+ * parsed form is only handed out while the content of the POM is the same as when it was parsed.
+ */
+public interface PomCache
+{
+    /**
+     * The Plexus role.
+     */
+    String ROLE = PomCache.class.getName();
+
+    /**
+     * Get the parsed form of a POM.
+     *
+     * @param file    the POM file
+     * @param content the current content of the POM file
+     * @return the parsed POM, or <code>null</code> if it isn't cached or was cached for different content
+     */
+    Object get( File file, byte[] content );
+
+    /**
+     * Cache the parsed form of a POM. The cached object is shared, so callers must not change it or anything that
+     * they borrow from it.
+     *
+     * @param file    the POM file
+     * @param content the content the POM was parsed from, or that it was written out as
+     * @param pom     the parsed POM
+     */
+    void put( File file, byte[] content, Object pom );
+
+    /**
+     * Forget the parsed form of a POM, for when the POM is written out by other means.
+     *
+     * @param file the POM file
+     */
+    void invalidate( File file );
+
+    /**
+     * Forget all parsed POMs, at the start and end of a run.
+     */
+    void clear();
+}
@@ -0,0 +1,186 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.jdom.Attribute;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.Namespace;
+import org.jdom.filter.ElementFilter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The elements of a POM document as they were when it was read, to find out what has been changed since. Elements
+ * are tracked in document order, along with the text of those without child elements.
+ */
+public class PomSnapshot
+{
+    private final Document document;
+
+    private final Element[] elements;
+
+    private final String[] text;
+
+    private final String[] namespaces;
+
+    private final String[] attributes;
+
+    /**
+     * Record the elements of the document.
+     *
+     * @param document the document, before it is changed
+     */
+    public PomSnapshot( Document document )
+    {
+        this.document = document;
+
+        List list = getElements( document );
+        int count = list.size();
+
+        elements = (Element[]) list.toArray( new Element[count] );
+        text = new String[count];
+        namespaces = new String[count];
+        attributes = new String[count];
+
+        for ( int i = 0; i < count; i++ )
+        {
+            Element element = elements[i];
+            if ( element.getChildren().isEmpty() )
+            {
+                text[i] = element.getText();
+            }
+            namespaces[i] = element.getNamespaceURI();
+            attributes[i] = describeAttributes( element );
+        }
+    }
+
+    /**
+     * @return whether anything in the document has been changed
+     */
+    public boolean isChanged()
+    {
+        if ( isStructureChanged() )
+        {
+            return true;
+        }
+
+        for ( int i = 0; i < elements.length; i++ )
+        {
+            if ( isTextChanged( i ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether elements have been added or removed, or had their namespace or attributes changed
+     */
+    public boolean isStructureChanged()
+    {
+        List list = getElements( document );
+        if ( list.size() != elements.length )
+        {
+            return true;
+        }
+
+        for ( int i = 0; i < elements.length; i++ )
+        {
+            Element element = (Element) list.get( i );
+            if ( element != elements[i] || !element.getNamespaceURI().equals( namespaces[i] ) )
+            {
+                return true;
+            }
+
+            String description = describeAttributes( element );
+            if ( description == null ? attributes[i] != null : !description.equals( attributes[i] ) )
+            {
+                return true;
+            }
+
+            if ( text[i] != null && !element.getChildren().isEmpty() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size()
+    {
+        return elements.length;
+    }
+
+    /**
+     * Check whether the text of an element has changed. Only elements that had no child elements are tracked.
+     */
+    boolean isTextChanged( int index )
+    {
+        return text[index] != null && !elements[index].getText().equals( text[index] );
+    }
+
+    Element getElement( int index )
+    {
+        return elements[index];
+    }
+
+    private static List getElements( Document document )
+    {
+        List list = new ArrayList();
+        if ( document.hasRootElement() )
+        {
+            list.add( document.getRootElement() );
+            for ( Iterator i = document.getRootElement().getDescendants( new ElementFilter() ); i.hasNext(); )
+            {
+                list.add( i.next() );
+            }
+        }
+        return list;
+    }
+
+    private static String describeAttributes( Element element )
+    {
+        List attributeList = element.getAttributes();
+        List namespaceList = element.getAdditionalNamespaces();
+        if ( attributeList.isEmpty() && namespaceList.isEmpty() )
+        {
+            return null;
+        }
+
+        StringBuffer buffer = new StringBuffer();
+        for ( Iterator i = attributeList.iterator(); i.hasNext(); )
+        {
+            Attribute attribute = (Attribute) i.next();
+            buffer.append( attribute.getNamespaceURI() ).append( ' ' ).append( attribute.getName() ).append( '=' );
+            buffer.append( attribute.getValue() ).append( '\n' );
+        }
+        for ( Iterator i = namespaceList.iterator(); i.hasNext(); )
+        {
+            Namespace namespace = (Namespace) i.next();
+            buffer.append( "xmlns:" ).append( namespace.getPrefix() ).append( '=' ).append( namespace.getURI() );
+            buffer.append( '\n' );
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Method;
+
+/**
+ * Measures the CPU time and memory allocation of the current thread, where the JVM supports it. The thread management
+ * interface only exists from Java 5, and allocation measurement only on JVMs that provide the Sun extension to it,
+ * so they are looked up reflectively.
+ */
+public final class ThreadUsage
+{
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static Object threadBean;
+
+    private static Method cpuTimeMethod;
+
+    private static Method allocatedBytesMethod;
+
+    private static Method threadIdMethod;
+
+    static
+    {
+        try
+        {
+            Class factory = Class.forName( "java.lang.management.ManagementFactory" );
+            Object bean = factory.getMethod( "getThreadMXBean", new Class[0] ).invoke( null, NO_ARGS );
+
+            Class beanClass = Class.forName( "java.lang.management.ThreadMXBean" );
+            Method supported = beanClass.getMethod( "isCurrentThreadCpuTimeSupported", new Class[0] );
+            if ( ( (Boolean) supported.invoke( bean, NO_ARGS ) ).booleanValue() )
+            {
+                cpuTimeMethod = beanClass.getMethod( "getCurrentThreadCpuTime", new Class[0] );
+            }
+
+            try
+            {
+                Class sunBeanClass = Class.forName( "com.sun.management.ThreadMXBean" );
+                if ( sunBeanClass.isInstance( bean ) )
+                {
+                    allocatedBytesMethod = sunBeanClass.getMethod( "getThreadAllocatedBytes", new Class[]{long.class} );
+                    threadIdMethod = Thread.class.getMethod( "getId", new Class[0] );
+                }
+            }
+            catch ( Exception e )
+            {
+                // no allocation measurement
+            }
+
+            threadBean = bean;
+        }
+        catch ( Exception e )
+        {
+            // no thread measurement before Java 5
+        }
+    }
+
+    private ThreadUsage()
+    {
+    }
+
+    /**
+     * @return the CPU time used by the current thread so far, in nanoseconds, or -1 if it can't be measured
+     */
+    public static long getCpuTime()
+    {
+        if ( cpuTimeMethod == null )
+        {
+            return -1;
+        }
+
+        try
+        {
+            return ( (Long) cpuTimeMethod.invoke( threadBean, NO_ARGS ) ).longValue();
+        }
+        catch ( Exception e )
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the memory allocated by the current thread so far, in bytes, or -1 if it can't be measured
+     */
+    public static long getAllocatedBytes()
+    {
+        if ( allocatedBytesMethod == null )
+        {
+            return -1;
+        }
+
+        try
+        {
+            Object id = threadIdMethod.invoke( Thread.currentThread(), NO_ARGS );
+            return ( (Long) allocatedBytesMethod.invoke( threadBean, new Object[]{id} ) ).longValue();
+        }
+        catch ( Exception e )
+        {
+            return -1;
+        }
+    }
+}
@@ -58,6 +58,7 @@ import org.jmock.core.stub.ThrowStub;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -102,6 +103,82 @@ public class DefaultReleaseManagerTest
         assertFalse( "step3 not simulated", phase.isSimulated() );
     }
 
+    public void testPrepareInParallel()
+        throws Exception
+    {
+        ReleaseManager releaseManager = (ReleaseManager) lookup( ReleaseManager.ROLE, "test" );
+
+        ReleaseDescriptor releaseDescriptor = configStore.getReleaseConfiguration();
+        releaseDescriptor.setCompletedPhase( null );
+
+        Map phases = container.lookupMap( ReleasePhase.ROLE );
+
+        ReleasePhaseStub step1 = (ReleasePhaseStub) phases.get( "step1" );
+        step1.setInputs( Collections.singleton( "a" ) );
+        step1.setOutputs( Collections.singleton( "b" ) );
+        ReleasePhaseStub step2 = (ReleasePhaseStub) phases.get( "step2" );
+        step2.setInputs( Collections.singleton( "a" ) );
+        step2.setOutputs( Collections.EMPTY_SET );
+        ReleasePhaseStub step3 = (ReleasePhaseStub) phases.get( "step3" );
+        step3.setInputs( Collections.singleton( "b" ) );
+        step3.setOutputs( Collections.EMPTY_SET );
+
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        descriptor.setWorkerThreads( 2 );
+        releaseManager.prepare( descriptor, null, null );
+
+        assertTrue( "step1 executed", step1.isExecuted() );
+        assertTrue( "step2 executed", step2.isExecuted() );
+        assertTrue( "step3 executed", step3.isExecuted() );
+        assertEquals( "completed phase", "step3", configStore.getReleaseConfiguration().getCompletedPhase() );
+    }
+
+    public void testPrepareMeasuresPhases()
+        throws Exception
+    {
+        ReleaseManager releaseManager = (ReleaseManager) lookup( ReleaseManager.ROLE, "test" );
+
+        ReleaseDescriptor releaseDescriptor = configStore.getReleaseConfiguration();
+        releaseDescriptor.setCompletedPhase( "step1" );
+
+        ReleaseResult result =
+            releaseManager.prepareWithResult( new ReleaseDescriptor(), null, null, true, false, null );
+
+        assertEquals( ReleaseResult.SUCCESS, result.getResultCode() );
+        List measurements = result.getPhaseMeasurements();
+        assertEquals( "skipped phases aren't measured", 2, measurements.size() );
+        PhaseMeasurement measurement = (PhaseMeasurement) measurements.get( 0 );
+        assertEquals( "step2", measurement.getPhase() );
+        assertTrue( measurement.getWallTime() >= 0 );
+        assertTrue( measurement.getStartTime() >= result.getStartTime() );
+        assertEquals( "step3", ( (PhaseMeasurement) measurements.get( 1 ) ).getPhase() );
+    }
+
+    public void testGetPhaseSteps()
+    {
+        ReleasePhaseStub checkA = new ReleasePhaseStub();
+        checkA.setInputs( Collections.singleton( "a" ) );
+        checkA.setOutputs( Collections.EMPTY_SET );
+        ReleasePhaseStub writeA = new ReleasePhaseStub();
+        writeA.setInputs( Collections.EMPTY_SET );
+        writeA.setOutputs( Collections.singleton( "a" ) );
+        ReleasePhaseStub checkB = new ReleasePhaseStub();
+        checkB.setInputs( Collections.singleton( "b" ) );
+        checkB.setOutputs( Collections.EMPTY_SET );
+        ReleasePhaseStub undeclared = new ReleasePhaseStub();
+
+        int[] steps = DefaultReleaseManager.getPhaseSteps(
+            new ReleasePhase[]{checkA, checkB, writeA, checkA, undeclared, checkB} );
+
+        assertEquals( 6, steps.length );
+        assertEquals( "independent checks run together", 0, steps[0] );
+        assertEquals( "independent checks run together", 0, steps[1] );
+        assertEquals( "writer waits for earlier reader", 1, steps[2] );
+        assertEquals( "reader waits for earlier writer", 2, steps[3] );
+        assertEquals( "undeclared phase runs on its own", 3, steps[4] );
+        assertEquals( "phases wait for undeclared phase", 4, steps[5] );
+    }
+
     public void testPrepareCompletedPhase()
         throws Exception
     {
@@ -231,6 +231,68 @@ public class PropertiesReleaseDescriptorStoreTest
         assertEquals( "compare configuration", config, rereadDescriptor );
     }
 
+    public void testWriteBuildSettings()
+        throws ReleaseDescriptorStoreException
+    {
+        File file = getTestFile( "target/test-classes/build-settings-release.properties" );
+        file.delete();
+
+        ReleaseDescriptor config = createReleaseConfigurationForWriting();
+        config.setBuildThreads( "1C" );
+        config.setParallelBuild( Boolean.TRUE );
+        config.setOfflineBuild( Boolean.FALSE );
+
+        store.write( config, file );
+
+        ReleaseDescriptor rereadDescriptor = store.read( null, file );
+
+        assertEquals( "Check build threads", "1C", rereadDescriptor.getBuildThreads() );
+        assertEquals( "Check parallel build", Boolean.TRUE, rereadDescriptor.getParallelBuild() );
+        assertEquals( "Check offline build", Boolean.FALSE, rereadDescriptor.getOfflineBuild() );
+
+        // a resumed release builds the same way unless its caller asks otherwise
+        ReleaseDescriptor mergeDescriptor = new ReleaseDescriptor();
+        mergeDescriptor.setOfflineBuild( Boolean.TRUE );
+        rereadDescriptor = store.read( mergeDescriptor, file );
+
+        assertEquals( "Check build threads", "1C", rereadDescriptor.getBuildThreads() );
+        assertTrue( "Check parallel build", rereadDescriptor.isParallelBuild() );
+        assertTrue( "Check offline build", rereadDescriptor.isOfflineBuild() );
+    }
+
+    public void testWriteNoBuildSettings()
+        throws ReleaseDescriptorStoreException
+    {
+        File file = getTestFile( "target/test-classes/no-build-settings-release.properties" );
+        file.delete();
+
+        store.write( createReleaseConfigurationForWriting(), file );
+
+        ReleaseDescriptor rereadDescriptor = store.read( null, file );
+
+        assertNull( "Check build threads", rereadDescriptor.getBuildThreads() );
+        assertNull( "Check parallel build", rereadDescriptor.getParallelBuild() );
+        assertNull( "Check offline build", rereadDescriptor.getOfflineBuild() );
+    }
+
+    public void testWriteCreatedScmTags()
+        throws ReleaseDescriptorStoreException
+    {
+        File file = getTestFile( "target/test-classes/created-tags-release.properties" );
+        file.delete();
+
+        ReleaseDescriptor config = createReleaseConfigurationForWriting();
+        config.getCreatedScmTags().put( "scm:svn:http://localhost/repo/trunk",
+                                        "http://localhost/repo/tags/release-label" );
+
+        store.write( config, file );
+
+        // the tags are kept for the rollback, whatever its caller asks for
+        ReleaseDescriptor rereadDescriptor = store.read( new ReleaseDescriptor(), file );
+
+        assertEquals( "Check created tags", config.getCreatedScmTags(), rereadDescriptor.getCreatedScmTags() );
+    }
+
     public void testDeleteFile()
         throws ReleaseDescriptorStoreException, IOException
     {
@@ -66,6 +66,40 @@ public class ReleaseUtilsTest
         assertEquals( "Check merge", expected, releaseDescriptor );
     }
 
+    public void testMergeKeepsStoredBuildSettings()
+    {
+        ReleaseDescriptor stored = new ReleaseDescriptor();
+        stored.setBuildThreads( "4" );
+        stored.setParallelBuild( Boolean.TRUE );
+        stored.setOfflineBuild( Boolean.TRUE );
+
+        // a resumed release that doesn't ask for any build settings
+        ReleaseDescriptor merged = ReleaseUtils.merge( stored, new ReleaseDescriptor() );
+
+        assertEquals( "Check build threads", "4", merged.getBuildThreads() );
+        assertTrue( "Check parallel build", merged.isParallelBuild() );
+        assertTrue( "Check offline build", merged.isOfflineBuild() );
+    }
+
+    public void testMergeBuildSettingsFromCaller()
+    {
+        ReleaseDescriptor stored = new ReleaseDescriptor();
+        stored.setBuildThreads( "4" );
+        stored.setParallelBuild( Boolean.TRUE );
+        stored.setOfflineBuild( Boolean.TRUE );
+
+        ReleaseDescriptor caller = new ReleaseDescriptor();
+        caller.setBuildThreads( "2" );
+        caller.setParallelBuild( Boolean.FALSE );
+        caller.setOfflineBuild( Boolean.FALSE );
+
+        ReleaseDescriptor merged = ReleaseUtils.merge( stored, caller );
+
+        assertEquals( "Check build threads", "2", merged.getBuildThreads() );
+        assertEquals( "Check parallel build", Boolean.FALSE, merged.getParallelBuild() );
+        assertEquals( "Check offline build", Boolean.FALSE, merged.getOfflineBuild() );
+    }
+
     public void testEquals()
     {
         ReleaseDescriptor originalReleaseDescriptor = createReleaseDescriptor();
@@ -0,0 +1,114 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Test capturing output with a bounded tail.
+ */
+public class BoundedOutputCaptureTest
+    extends PlexusTestCase
+{
+    public void testOutputWithinTail()
+        throws IOException
+    {
+        BoundedOutputCapture capture = new BoundedOutputCapture( "mvn clean", 16 );
+        capture.write( "[INFO] ".getBytes() );
+        capture.write( 'x' );
+        capture.close();
+
+        assertEquals( "[INFO] x", capture.getTail() );
+        assertEquals( 8, capture.getSize() );
+        assertTrue( capture.isComplete() );
+        assertNull( capture.getFile() );
+        assertEquals( "[INFO] x", read( capture ) );
+    }
+
+    public void testTailWrapsAround()
+        throws IOException
+    {
+        BoundedOutputCapture capture = new BoundedOutputCapture( "mvn clean", 8 );
+        capture.write( "0123456".getBytes() );
+        capture.write( "789ab".getBytes() );
+        capture.write( 'c' );
+
+        assertEquals( "56789abc", capture.getTail() );
+        assertEquals( 13, capture.getSize() );
+        assertFalse( capture.isComplete() );
+        assertEquals( "56789abc", read( capture ) );
+
+        capture.write( "defghijklmnop".getBytes(), 1, 10 );
+        assertEquals( "ghijklmn", capture.getTail() );
+        assertEquals( 23, capture.getSize() );
+    }
+
+    public void testSpillToFile()
+        throws IOException
+    {
+        File logFile = getTestFile( "target/release-output/spill.log" );
+        logFile.delete();
+
+        BoundedOutputCapture capture = new BoundedOutputCapture( "mvn deploy", 4 );
+        capture.spillTo( logFile );
+        capture.write( "[INFO] BUILD SUCCESSFUL".getBytes() );
+
+        assertTrue( capture.isComplete() );
+        assertEquals( "[INFO] BUILD SUCCESSFUL", read( capture ) );
+
+        capture.close();
+
+        assertEquals( logFile, capture.getFile() );
+        assertEquals( "[INFO] BUILD SUCCESSFUL", FileUtils.fileRead( logFile ) );
+        assertEquals( "SFUL", capture.getTail() );
+        assertEquals( "[INFO] BUILD SUCCESSFUL", read( capture ) );
+    }
+
+    public void testTailDecodedWithEncoding()
+        throws IOException
+    {
+        BoundedOutputCapture capture = new BoundedOutputCapture( "mvn deploy", 16, "UTF-8" );
+        capture.write( "[INFO] caf\u00e9".getBytes( "UTF-8" ) );
+        capture.close();
+
+        assertEquals( "UTF-8", capture.getEncoding() );
+        assertEquals( "[INFO] caf\u00e9", capture.getTail() );
+    }
+
+    private static String read( BoundedOutputCapture capture )
+        throws IOException
+    {
+        InputStream stream = capture.openStream();
+        try
+        {
+            return IOUtil.toString( stream );
+        }
+        finally
+        {
+            IOUtil.close( stream );
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.ReleaseResult;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Test the daemon Maven executor. There is no Maven installation to run here, so the daemon can only report that.
+ */
+public class DaemonMavenExecutorTest
+    extends PlexusTestCase
+{
+    private DaemonMavenExecutor executor;
+
+    private File daemonFile;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        executor = (DaemonMavenExecutor) lookup( MavenExecutor.ROLE, "daemon" );
+
+        daemonFile = getTestFile( "target/daemon/release-daemon.properties" );
+        daemonFile.delete();
+
+        executor.setDaemonFile( daemonFile );
+        executor.setMavenHome( getTestFile( "target/no-maven-home" ) );
+        executor.setIdleTimeout( 10000 );
+        executor.setSpillOutput( false );
+    }
+
+    public void testNoInstallation()
+        throws IOException
+    {
+        File workingDirectory = getTestFile( "target/working-directory" );
+
+        try
+        {
+            executor.executeGoals( workingDirectory, "clean integration-test", false, null, new ReleaseResult() );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( MavenExecutorException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().startsWith( "No Maven installation found" ) );
+        }
+
+        assertTrue( "Check daemon file", daemonFile.exists() );
+    }
+
+    public void testDaemonReused()
+        throws IOException
+    {
+        File workingDirectory = getTestFile( "target/working-directory" );
+
+        executeFailing( workingDirectory );
+        String port = readDaemonFile().getProperty( "port" );
+
+        executeFailing( workingDirectory );
+        assertEquals( "Check same daemon", port, readDaemonFile().getProperty( "port" ) );
+    }
+
+    public void testStaleDaemonFile()
+        throws IOException
+    {
+        Properties daemon = new Properties();
+        daemon.setProperty( "port", "1" );
+        daemon.setProperty( "secret", "stale" );
+        daemonFile.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream( daemonFile );
+        try
+        {
+            daemon.store( out, null );
+        }
+        finally
+        {
+            out.close();
+        }
+
+        executeFailing( getTestFile( "target/working-directory" ) );
+
+        assertFalse( "Check new daemon", "1".equals( readDaemonFile().getProperty( "port" ) ) );
+    }
+
+    public void testDaemonFileOwnerOnly()
+        throws Exception
+    {
+        if ( System.getProperty( "os.name" ).toLowerCase().startsWith( "windows" ) )
+        {
+            return;
+        }
+
+        executeFailing( getTestFile( "target/working-directory" ) );
+
+        Process process = Runtime.getRuntime().exec( new String[]{"ls", "-l", daemonFile.getAbsolutePath()} );
+        String listing = IOUtil.toString( process.getInputStream() );
+        process.waitFor();
+
+        assertTrue( listing, listing.startsWith( "-rw-------" ) );
+    }
+
+    private void executeFailing( File workingDirectory )
+    {
+        try
+        {
+            executor.executeGoals( workingDirectory, "clean", false, null, new ReleaseResult() );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( MavenExecutorException e )
+        {
+            // expected
+        }
+    }
+
+    private Properties readDaemonFile()
+        throws IOException
+    {
+        Properties daemon = new Properties();
+        InputStream in = new FileInputStream( daemonFile );
+        try
+        {
+            daemon.load( in );
+        }
+        finally
+        {
+            in.close();
+        }
+        return daemon;
+    }
+}
@@ -0,0 +1,120 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Test archiving and restoring build outputs.
+ */
+public class DefaultBuildOutputArchiveTest
+    extends PlexusTestCase
+{
+    private BuildOutputArchive archive;
+
+    private File archiveDirectory;
+
+    private File workingCopy;
+
+    private File checkout;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        archive = (BuildOutputArchive) lookup( BuildOutputArchive.ROLE );
+
+        File base = getTestFile( "target/build-output-archive" );
+        FileUtils.deleteDirectory( base );
+
+        workingCopy = new File( base, "working-copy" );
+        archiveDirectory = new File( workingCopy, BuildOutputArchive.DIRECTORY );
+        writeSources( workingCopy );
+        write( new File( workingCopy, "target/app-1.0.jar" ), "jar" );
+        write( new File( workingCopy, "target/classes/App.class" ), "class" );
+        write( new File( workingCopy, "release.properties" ), "scm.tag=app-1.0" );
+
+        checkout = new File( base, "checkout" );
+        writeSources( checkout );
+    }
+
+    public void testRestore()
+        throws IOException
+    {
+        archive.archive( workingCopy, Collections.singletonList( new File( workingCopy, "target" ) ), "app-1.0",
+                         archiveDirectory );
+
+        assertNull( archive.restore( archiveDirectory, "app-1.0", checkout ) );
+
+        assertEquals( "jar", read( new File( checkout, "target/app-1.0.jar" ) ) );
+        assertEquals( "class", read( new File( checkout, "target/classes/App.class" ) ) );
+        assertFalse( "Check archive not archived", new File( checkout, "target/release-build-outputs" ).exists() );
+        assertTrue( "Check outputs newer than sources", new File( checkout, "target/classes/App.class" )
+            .lastModified() >= new File( checkout, "src/main/java/App.java" ).lastModified() );
+    }
+
+    public void testChangedSources()
+        throws IOException
+    {
+        archive.archive( workingCopy, Collections.singletonList( new File( workingCopy, "target" ) ), "app-1.0",
+                         archiveDirectory );
+
+        write( new File( checkout, "src/main/java/App.java" ), "class App { }" );
+
+        assertNotNull( archive.restore( archiveDirectory, "app-1.0", checkout ) );
+        assertFalse( "Check not restored", new File( checkout, "target" ).exists() );
+    }
+
+    public void testOtherTag()
+        throws IOException
+    {
+        archive.archive( workingCopy, Collections.singletonList( new File( workingCopy, "target" ) ), "app-1.0",
+                         archiveDirectory );
+
+        assertNotNull( archive.restore( archiveDirectory, "app-1.1", checkout ) );
+        assertFalse( "Check not restored", new File( checkout, "target" ).exists() );
+    }
+
+    private static void writeSources( File directory )
+        throws IOException
+    {
+        write( new File( directory, "pom.xml" ), "<project/>" );
+        write( new File( directory, "src/main/java/App.java" ), "class App {}" );
+    }
+
+    private static String read( File file )
+        throws IOException
+    {
+        return FileUtils.fileRead( file.getAbsolutePath() );
+    }
+
+    private static void write( File file, String content )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getAbsolutePath(), content );
+    }
+}
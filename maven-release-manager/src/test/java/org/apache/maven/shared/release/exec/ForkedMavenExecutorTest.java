@@ -30,6 +30,7 @@ import org.jmock.core.matcher.InvokeOnceMatcher;
 import org.jmock.core.stub.ReturnStub;
 import org.jmock.core.stub.ThrowStub;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 
 /**
@@ -125,6 +126,32 @@ public class ForkedMavenExecutorTest
         assertTrue( true );
     }
 
+    public void testExecutionRecordsErrorOutput()
+        throws MavenExecutorException
+    {
+        File workingDirectory = getTestFile( "target/working-directory" );
+
+        Process process = createMockProcess( 0, "[INFO] BUILD SUCCESSFUL", "Picked up JAVA_TOOL_OPTIONS" );
+
+        Mock commandLineMock = createMockCommandLine( workingDirectory, process );
+        expectDefaultArguments( commandLineMock );
+
+        Mock mock = new Mock( CommandLineFactory.class );
+
+        mock.expects( new InvokeOnceMatcher() ).method( "createCommandLine" ).with( new IsEqual( "mvn" ) ).will(
+            new ReturnStub( commandLineMock.proxy() ) );
+
+        executor.setCommandLineFactory( (CommandLineFactory) mock.proxy() );
+        executor.setSpillOutput( false );
+
+        ReleaseResult result = new ReleaseResult();
+        executor.executeGoals( workingDirectory, "clean integration-test", false, null, result );
+
+        assertTrue( "Check output", result.getOutput().indexOf( "[INFO] BUILD SUCCESSFUL" ) >= 0 );
+        assertTrue( "Check error output", result.getOutput().indexOf( "Picked up JAVA_TOOL_OPTIONS" ) >= 0 );
+        assertEquals( 2, result.getCapturedOutputs().size() );
+    }
+
     public void testExecutionWithNonZeroExitCode()
         throws MavenExecutorException
     {
@@ -226,12 +253,19 @@ public class ForkedMavenExecutorTest
     }
 
     private static Process createMockProcess( int exitCode )
+    {
+        return createMockProcess( exitCode, "", "" );
+    }
+
+    private static Process createMockProcess( int exitCode, String output, String errorOutput )
     {
         Mock mockProcess = new Mock( Process.class );
+        mockProcess.expects( new InvokeOnceMatcher() ).method( "getOutputStream" ).will(
+            new ReturnStub( new ByteArrayOutputStream() ) );
         mockProcess.expects( new InvokeOnceMatcher() ).method( "getInputStream" ).will(
-            new ReturnStub( new StringInputStream( "" ) ) );
+            new ReturnStub( new StringInputStream( output ) ) );
         mockProcess.expects( new InvokeOnceMatcher() ).method( "getErrorStream" ).will(
-            new ReturnStub( new StringInputStream( "" ) ) );
+            new ReturnStub( new StringInputStream( errorOutput ) ) );
         mockProcess.expects( new InvokeOnceMatcher() ).method( "waitFor" ).will(
             new ReturnStub( new Integer( exitCode ) ) );
         if ( exitCode != 0 )
@@ -0,0 +1,104 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.ReleaseResult;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Test the in-process Maven executor. The Maven installations here only have an empty launcher jar, so they can't be
+ * started.
+ */
+public class InProcessMavenExecutorTest
+    extends PlexusTestCase
+{
+    private InProcessMavenExecutor executor;
+
+    private String mavenHomeProperty;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        executor = (InProcessMavenExecutor) lookup( MavenExecutor.ROLE, "in-process" );
+        executor.setSpillOutput( false );
+
+        mavenHomeProperty = System.getProperty( "maven.home" );
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        if ( mavenHomeProperty != null )
+        {
+            System.setProperty( "maven.home", mavenHomeProperty );
+        }
+
+        super.tearDown();
+    }
+
+    public void testLauncherReused()
+        throws Exception
+    {
+        File mavenHome = createMavenHome( "target/in-process/maven-home" );
+
+        MavenLauncher launcher = executor.getLauncher( mavenHome );
+
+        assertSame( "Check launcher reused", launcher, executor.getLauncher( mavenHome ) );
+        assertNotSame( "Check launcher for each installation", launcher,
+                       executor.getLauncher( createMavenHome( "target/in-process/other-maven-home" ) ) );
+    }
+
+    public void testSystemPropertiesRestored()
+        throws Exception
+    {
+        System.getProperties().remove( "maven.home" );
+        executor.setMavenHome( createMavenHome( "target/in-process/maven-home" ) );
+
+        try
+        {
+            executor.executeGoals( getTestFile( "target/working-directory" ), "clean", false, "-Dx=y", null,
+                                   new ReleaseResult() );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( MavenExecutorException e )
+        {
+            // expected
+        }
+
+        assertNull( "Check maven.home removed", System.getProperty( "maven.home" ) );
+    }
+
+    private static File createMavenHome( String path )
+        throws IOException
+    {
+        File mavenHome = getTestFile( path );
+        File jar = new File( mavenHome, "boot/classworlds.jar" );
+        jar.getParentFile().mkdirs();
+        FileUtils.fileWrite( jar.getAbsolutePath(), "" );
+        return mavenHome;
+    }
+}
@@ -0,0 +1,105 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Test copying streams.
+ */
+public class RawStreamPumperTest
+    extends TestCase
+{
+    public void testPumpCopiesEverything()
+        throws Exception
+    {
+        byte[] data = new byte[300 * 1024 + 17];
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = (byte) i;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RawStreamPumper pumper = new RawStreamPumper( new ByteArrayInputStream( data ), out, false, 1024 );
+        pumper.start();
+        pumper.join( 10000 );
+
+        assertFalse( pumper.isAlive() );
+        assertTrue( Arrays.equals( data, out.toByteArray() ) );
+    }
+
+    public void testPollCopiesAvailableInput()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RawStreamPumper pumper = new RawStreamPumper( new ByteArrayInputStream( "yes\n".getBytes() ), out, true );
+        pumper.start();
+        for ( int i = 0; i < 100 && out.size() == 0; i++ )
+        {
+            Thread.sleep( 100 );
+        }
+
+        // polling never blocks for more input, so it only stops when told to
+        assertTrue( pumper.isAlive() );
+        pumper.setDone();
+        pumper.join( 10000 );
+
+        assertFalse( pumper.isAlive() );
+        assertEquals( "yes\n", out.toString() );
+    }
+
+    public void testPollStopsWithoutInput()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RawStreamPumper pumper = new RawStreamPumper( new NoInputStream(), out, true );
+        pumper.start();
+
+        pumper.setDone();
+        pumper.join( 10000 );
+
+        assertFalse( pumper.isAlive() );
+        assertEquals( 0, out.size() );
+    }
+
+    /**
+     * A stream like the console, where there's never anything available and reads block.
+     */
+    private static class NoInputStream
+        extends InputStream
+    {
+        public int read()
+            throws IOException
+        {
+            throw new IOException( "A read would block" );
+        }
+
+        public int available()
+        {
+            return 0;
+        }
+    }
+}
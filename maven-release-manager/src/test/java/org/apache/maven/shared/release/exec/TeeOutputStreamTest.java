@@ -0,0 +1,139 @@
+package org.apache.maven.shared.release.exec;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Test the stream that indents output and captures it.
+ */
+public class TeeOutputStreamTest
+    extends TestCase
+{
+    private ByteArrayOutputStream out;
+
+    private TeeOutputStream tee;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        out = new ByteArrayOutputStream();
+        tee = new TeeOutputStream( out, "xx" );
+    }
+
+    public void testLineFeeds()
+        throws IOException
+    {
+        tee.write( "[INFO] one\n[INFO] two\n".getBytes() );
+
+        assertOutput( "[INFO] one\nxx[INFO] two\nxx" );
+    }
+
+    public void testConsecutiveLineEnds()
+        throws IOException
+    {
+        tee.write( "\n\n\r\n\r\n\r\r".getBytes() );
+        tee.write( "a".getBytes() );
+
+        assertOutput( "\nxx\nxx\r\nxx\r\nxx\rxx\rxxa" );
+    }
+
+    public void testWindowsBuildLog()
+        throws IOException
+    {
+        String log = "[INFO] Scanning for projects...\r\n" + "[INFO] ------------------------------------\r\n" +
+            "[INFO] Building Maven Release Manager\r\n" + "\r\n" + "[INFO] BUILD SUCCESSFUL\r\n";
+        tee.write( log.getBytes() );
+
+        assertOutput( "[INFO] Scanning for projects...\r\nxx[INFO] ------------------------------------\r\nxx" +
+            "[INFO] Building Maven Release Manager\r\nxx\r\nxx[INFO] BUILD SUCCESSFUL\r\nxx" );
+    }
+
+    public void testLineEndSplitAcrossWrites()
+        throws IOException
+    {
+        tee.write( "one\r".getBytes() );
+        tee.write( "\ntwo\r".getBytes() );
+        tee.write( "three\r".getBytes() );
+        tee.close();
+
+        assertOutput( "one\r\nxxtwo\rxxthree\rxx" );
+    }
+
+    public void testSameOutputForAnyWriteSize()
+        throws IOException
+    {
+        StringBuffer buffer = new StringBuffer();
+        for ( int i = 0; i < 200; i++ )
+        {
+            buffer.append( "[INFO] line " ).append( i ).append( i % 3 == 0 ? "\n" : i % 3 == 1 ? "\r\n" : "\r" );
+        }
+        byte[] log = buffer.toString().getBytes();
+
+        tee.write( log );
+        tee.close();
+        String expected = out.toString();
+
+        int[] sizes = { 1, 2, 3, 7, 64, 8191, 8193 };
+        for ( int s = 0; s < sizes.length; s++ )
+        {
+            out = new ByteArrayOutputStream();
+            tee = new TeeOutputStream( out, "xx" );
+            for ( int offset = 0; offset < log.length; offset += sizes[s] )
+            {
+                if ( sizes[s] == 1 )
+                {
+                    tee.write( log[offset] );
+                }
+                else
+                {
+                    tee.write( log, offset, Math.min( sizes[s], log.length - offset ) );
+                }
+            }
+            tee.close();
+
+            assertOutput( "Check writes of " + sizes[s], expected );
+        }
+    }
+
+    public void testWriteWithOffset()
+        throws IOException
+    {
+        tee.write( "skip\r\n[INFO] line\r\nskip".getBytes(), 6, 13 );
+
+        assertOutput( "[INFO] line\r\nxx" );
+    }
+
+    private void assertOutput( String expected )
+    {
+        assertOutput( "Check output", expected );
+    }
+
+    private void assertOutput( String message, String expected )
+    {
+        assertEquals( message, expected, out.toString() );
+        assertEquals( message, expected, tee.toString() );
+    }
+}
@@ -19,12 +19,15 @@ package org.apache.maven.shared.release.phase;
  * under the License.
  */
 
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.command.edit.EditScmResult;
 import org.apache.maven.scm.manager.ScmManagerStub;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderStub;
 import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.scm.DefaultScmRepositoryConfigurator;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
@@ -33,6 +36,7 @@ import org.jmock.Mock;
 import org.jmock.core.matcher.InvokeAtLeastOnceMatcher;
 import org.jmock.core.stub.ThrowStub;
 
+import java.io.File;
 import java.util.List;
 
 /**
@@ -113,4 +117,75 @@ public abstract class AbstractEditModeRewritingReleasePhaseTestCase
             assertEquals( "Check cause", ScmException.class, e.getCause().getClass() );
         }
     }
+
+    public void testRewriteBasicPomWithLosslessEditor()
+        throws Exception
+    {
+        List reactorProjects = createReactorProjectsFromBasicPom();
+        ReleaseDescriptor config = createDescriptorFromBasicPom( reactorProjects );
+        mapNextVersion( config, "groupId:artifactId" );
+        config.setPomEditor( ReleaseDescriptor.POM_EDITOR_LOSSLESS );
+
+        phase.execute( config, null, reactorProjects );
+
+        assertTrue( comparePomFiles( reactorProjects ) );
+    }
+
+    public void testRewriteBasicPomWithUnknownEditor()
+        throws Exception
+    {
+        List reactorProjects = createReactorProjectsFromBasicPom();
+        ReleaseDescriptor config = createDescriptorFromBasicPom( reactorProjects );
+        mapNextVersion( config, "groupId:artifactId" );
+        config.setPomEditor( "unknown" );
+
+        try
+        {
+            phase.execute( config, null, reactorProjects );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( true );
+        }
+    }
+
+    public void testRewritePomWithChangedInheritedVersionWithLosslessEditor()
+        throws Exception
+    {
+        List reactorProjects = createReactorProjects( "pom-with-inherited-version" );
+        ReleaseDescriptor config = createConfigurationForPomWithParentAlternateNextVersion( reactorProjects );
+        config.setPomEditor( ReleaseDescriptor.POM_EDITOR_LOSSLESS );
+
+        // the version element has to be added, so the whole document is written instead
+        phase.execute( config, null, reactorProjects );
+
+        MavenProject project = (MavenProject) getProjectsAsMap( reactorProjects ).get( "groupId:subproject1" );
+        comparePomFiles( project, "-version-changed" );
+    }
+
+    public void testRewriteUnchangedPomNotWritten()
+        throws Exception
+    {
+        List reactorProjects = createReactorProjects( "pom-with-released-parent" );
+        ReleaseDescriptor config = createDescriptorFromProjects( reactorProjects );
+        config.setScmUseEditMode( true );
+
+        mapAlternateNextVersion( config, "groupId:subproject1" );
+        config.mapReleaseVersion( "groupId:artifactId", "1" );
+        config.mapDevelopmentVersion( "groupId:artifactId", "1" );
+
+        MavenProject parent = (MavenProject) getProjectsAsMap( reactorProjects ).get( "groupId:artifactId" );
+        File parentPom = parent.getFile();
+        long lastModified = 1000000000000L;
+        parentPom.setLastModified( lastModified );
+
+        ReleaseResult result = phase.execute( config, null, reactorProjects );
+
+        assertEquals( "Check parent POM not written", lastModified, parentPom.lastModified() );
+        assertEquals( "Check changed POMs", 1, result.getChangedPomCount() );
+        assertEquals( "Check unchanged POMs", 1, result.getUnchangedPomCount() );
+        assertTrue( comparePomFiles( reactorProjects ) );
+    }
 }
@@ -167,6 +167,38 @@ public abstract class AbstractRewritingReleasePhaseTestCase
         assertTrue( comparePomFiles( reactorProjects ) );
     }
 
+    public void testRewritePomDependenciesWithWorkerThreads()
+        throws Exception
+    {
+        List reactorProjects = createReactorProjects( "internal-snapshot-dependencies" );
+        ReleaseDescriptor config = createDefaultConfiguration( reactorProjects );
+        mapNextVersion( config, "groupId:subsubproject" );
+        config.setWorkerThreads( 3 );
+
+        phase.execute( config, null, reactorProjects );
+
+        assertTrue( comparePomFiles( reactorProjects ) );
+    }
+
+    public void testRewritePomUnmappedDependenciesWithWorkerThreads()
+        throws Exception
+    {
+        List reactorProjects = createReactorProjects( "internal-snapshot-dependencies" );
+        ReleaseDescriptor config = createUnmappedConfiguration( reactorProjects );
+        config.setWorkerThreads( 3 );
+
+        try
+        {
+            phase.execute( config, null, reactorProjects );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( true );
+        }
+    }
+
     public void testRewritePomUnmappedDependencies()
         throws Exception
     {
@@ -107,6 +107,15 @@ public class CheckDependencySnapshotsPhaseTest
         }
     }
 
+    public void testOrderedWithScmConfigurationChanges()
+        throws Exception
+    {
+        ReleasePhase phase = (ReleasePhase) lookup( ReleasePhase.ROLE, "check-dependency-snapshots" );
+
+        assertTrue( "Check ordered with the POM check",
+                    phase.getInputs().contains( ReleasePhase.STATE_SCM_CONFIGURATION ) );
+    }
+
     public void testSnapshotReleasePluginInteractiveDeclined()
         throws Exception
     {
@@ -552,6 +561,39 @@ public class CheckDependencySnapshotsPhaseTest
         }
     }
 
+    public void testSnapshotDependenciesInProjectOnlyWithWorkerThreads()
+        throws Exception
+    {
+        ReleaseDescriptor releaseDescriptor = new ReleaseDescriptor();
+        releaseDescriptor.setWorkerThreads( 3 );
+        List reactorProjects = createDescriptorFromProjects( "internal-snapshot-dependencies" );
+
+        phase.execute( releaseDescriptor, null, reactorProjects );
+
+        // successful execution is verification enough
+        assertTrue( true );
+    }
+
+    public void testSnapshotDependenciesInsideAndOutsideProjectWithWorkerThreads()
+        throws Exception
+    {
+        ReleaseDescriptor releaseDescriptor = new ReleaseDescriptor();
+        releaseDescriptor.setInteractive( false );
+        releaseDescriptor.setWorkerThreads( 3 );
+        List reactorProjects = createDescriptorFromProjects( "internal-and-external-snapshot-dependencies" );
+
+        try
+        {
+            phase.execute( releaseDescriptor, null, reactorProjects );
+
+            fail( "Should have failed execution" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( true );
+        }
+    }
+
     public void testNoSnapshotReportPlugins()
         throws Exception
     {
@@ -0,0 +1,297 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.NoSuchCommandScmException;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.command.export.ExportScmResult;
+import org.apache.maven.scm.command.status.StatusScmResult;
+import org.apache.maven.scm.command.update.UpdateScmResult;
+import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.manager.ScmManagerStub;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.shared.release.ReleaseExecutionException;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.jmock.Mock;
+import org.jmock.core.matcher.InvokeOnceMatcher;
+import org.jmock.core.matcher.TestFailureMatcher;
+import org.jmock.core.stub.ReturnStub;
+import org.jmock.core.stub.ThrowStub;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test checking out the tag with the different checkout strategies.
+ */
+public class CheckoutProjectFromScmTest
+    extends PlexusTestCase
+{
+    private ReleasePhase phase;
+
+    private Mock scmProviderMock;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        phase = (ReleasePhase) lookup( ReleasePhase.ROLE, "checkout-project-from-scm" );
+
+        scmProviderMock = new Mock( ScmProvider.class );
+
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.ROLE );
+        stub.setScmProvider( (ScmProvider) scmProviderMock.proxy() );
+    }
+
+    public void testFullCheckout()
+        throws Exception
+    {
+        expectCheckOut();
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't export" ) ).method( "export" );
+
+        phase.execute( createReleaseDescriptor( null ), null, Collections.EMPTY_LIST );
+
+        assertTrue( true );
+    }
+
+    public void testShallowCheckout()
+        throws Exception
+    {
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "export" ).will(
+            new ReturnStub( new ExportScmResult( "...", Collections.EMPTY_LIST ) ) );
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't check out" ) ).method( "checkOut" );
+
+        phase.execute( createReleaseDescriptor( "shallow" ), null, Collections.EMPTY_LIST );
+
+        assertTrue( true );
+    }
+
+    public void testShallowCheckoutNotSupported()
+        throws Exception
+    {
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "export" ).will(
+            new ThrowStub( new NoSuchCommandScmException( "export" ) ) );
+        expectCheckOut();
+
+        phase.execute( createReleaseDescriptor( "shallow" ), null, Collections.EMPTY_LIST );
+
+        assertTrue( true );
+    }
+
+    public void testSparseCheckoutOtherScm()
+        throws Exception
+    {
+        expectCheckOut();
+
+        ReleaseDescriptor descriptor = createReleaseDescriptor( "sparse" );
+        descriptor.setCheckoutPaths( "modules/core" );
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertTrue( true );
+    }
+
+    public void testReferenceCheckoutOtherScm()
+        throws Exception
+    {
+        expectCheckOut();
+
+        ReleaseDescriptor descriptor = createReleaseDescriptor( "reference" );
+        descriptor.setCheckoutReference( getTestFile( "target/reference" ).getAbsolutePath() );
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertTrue( true );
+    }
+
+    public void testUnknownStrategy()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor( "unknown" );
+
+        File checkoutDirectory = new File( descriptor.getCheckoutDirectory() );
+        FileUtils.deleteDirectory( checkoutDirectory );
+        File previous = createFile( checkoutDirectory, "pom.xml" );
+
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't check out" ) ).method( "checkOut" );
+
+        try
+        {
+            phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( ReleaseExecutionException e )
+        {
+            assertNull( "Check no cause", e.getCause() );
+        }
+
+        assertTrue( "Check earlier checkout kept", previous.exists() );
+    }
+
+    public void testIncrementalCheckout()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor( null );
+        descriptor.setIncrementalCheckout( true );
+
+        File checkoutDirectory = new File( descriptor.getCheckoutDirectory() );
+        FileUtils.deleteDirectory( checkoutDirectory );
+        File tracked = createFile( checkoutDirectory, "pom.xml" );
+        File untracked = createFile( checkoutDirectory, "notes.txt" );
+        createFile( checkoutDirectory, "module/pom.xml" );
+        File output = createFile( checkoutDirectory, "module/target/module.jar" );
+        recordCheckout( checkoutDirectory, "module" );
+
+        List status = Collections.singletonList( new ScmFile( "notes.txt", ScmFileStatus.UNKNOWN ) );
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "status" ).will(
+            new ReturnStub( new StatusScmResult( "...", status ) ) );
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "update" ).will(
+            new ReturnStub( new UpdateScmResult( "...", Collections.EMPTY_LIST ) ) );
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't check out" ) ).method( "checkOut" );
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertTrue( "Check tracked file kept", tracked.exists() );
+        assertFalse( "Check untracked file removed", untracked.exists() );
+        assertFalse( "Check build output removed", output.exists() );
+        assertEquals( "Check project directory", "module", descriptor.getScmRelativePathProjectDirectory() );
+    }
+
+    public void testIncrementalCheckoutWithLocalChanges()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor( null );
+        descriptor.setIncrementalCheckout( true );
+
+        File checkoutDirectory = new File( descriptor.getCheckoutDirectory() );
+        FileUtils.deleteDirectory( checkoutDirectory );
+        File modified = createFile( checkoutDirectory, "pom.xml" );
+        recordCheckout( checkoutDirectory, "" );
+
+        List status = Collections.singletonList( new ScmFile( "pom.xml", ScmFileStatus.MODIFIED ) );
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "status" ).will(
+            new ReturnStub( new StatusScmResult( "...", status ) ) );
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't update" ) ).method( "update" );
+        expectCheckOut();
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertFalse( "Check checkout removed", modified.exists() );
+    }
+
+    public void testIncrementalCheckoutNotAWorkingCopy()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor( null );
+        descriptor.setIncrementalCheckout( true );
+
+        File checkoutDirectory = new File( descriptor.getCheckoutDirectory() );
+        FileUtils.deleteDirectory( checkoutDirectory );
+        createFile( checkoutDirectory, "pom.xml" );
+        recordCheckout( checkoutDirectory, "" );
+
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "status" ).will(
+            new ReturnStub( new StatusScmResult( "...", "not a working copy", "...", false ) ) );
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't update" ) ).method( "update" );
+        expectCheckOut();
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertTrue( true );
+    }
+
+    public void testIncrementalCheckoutNotRecorded()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor( null );
+        descriptor.setIncrementalCheckout( true );
+
+        File checkoutDirectory = new File( descriptor.getCheckoutDirectory() );
+        FileUtils.deleteDirectory( checkoutDirectory );
+        File previous = createFile( checkoutDirectory, "pom.xml" );
+        new File( checkoutDirectory.getParentFile(), checkoutDirectory.getName() + ".properties" ).delete();
+
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't check status" ) ).method( "status" );
+        expectCheckOut();
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertFalse( "Check checkout removed", previous.exists() );
+    }
+
+    public void testIncrementalCheckoutWithoutCheckout()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor( null );
+        descriptor.setIncrementalCheckout( true );
+
+        File checkoutDirectory = new File( descriptor.getCheckoutDirectory() );
+        FileUtils.deleteDirectory( checkoutDirectory );
+        File record = new File( checkoutDirectory.getParentFile(), checkoutDirectory.getName() + ".properties" );
+        record.delete();
+
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't check status" ) ).method( "status" );
+        expectCheckOut();
+
+        phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertTrue( "Check checkout recorded", record.exists() );
+    }
+
+    private static File createFile( File directory, String path )
+        throws IOException
+    {
+        File file = new File( directory, path );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getAbsolutePath(), path );
+        return file;
+    }
+
+    private static void recordCheckout( File checkoutDirectory, String relativePath )
+        throws IOException
+    {
+        File record = new File( checkoutDirectory.getParentFile(), checkoutDirectory.getName() + ".properties" );
+        FileUtils.fileWrite( record.getAbsolutePath(), "relativePathProjectDirectory=" + relativePath );
+    }
+
+    private void expectCheckOut()
+    {
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "checkOut" ).will(
+            new ReturnStub( new CheckOutScmResult( "...", Collections.EMPTY_LIST ) ) );
+    }
+
+    private ReleaseDescriptor createReleaseDescriptor( String checkoutStrategy )
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        descriptor.setScmSourceUrl( "scm-url" );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setCheckoutDirectory( getTestFile( "target/checkout-strategy-test" ).getAbsolutePath() );
+        descriptor.setCheckoutStrategy( checkoutStrategy );
+        return descriptor;
+    }
+}
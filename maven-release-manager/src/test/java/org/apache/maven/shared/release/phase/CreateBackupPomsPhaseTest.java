@@ -67,6 +67,12 @@ public class CreateBackupPomsPhaseTest
         runSimulateOnProjects( projectPath );
     }
 
+    public void testChangesWorkingCopy()
+    {
+        assertTrue( "Check ordered with the modification check",
+                    phase.getOutputs().contains( ReleasePhase.STATE_WORKING_COPY ) );
+    }
+
     private void runExecuteOnProjects( String path )
         throws Exception
     {
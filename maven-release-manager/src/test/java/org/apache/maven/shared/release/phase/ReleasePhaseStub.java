@@ -24,6 +24,7 @@ import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Test stub for testing if a phase is executed.
@@ -48,6 +49,16 @@ public class ReleasePhaseStub
      */
     private boolean cleaned;
 
+    /**
+     * The state the phase declares it reads.
+     */
+    private Set inputs;
+
+    /**
+     * The state the phase declares it writes.
+     */
+    private Set outputs;
+
     public ReleaseResult execute( ReleaseDescriptor releaseDescriptor, Settings settings, List reactorProjects )
     {
         ReleaseResult result = new ReleaseResult();
@@ -95,4 +106,24 @@ public class ReleasePhaseStub
     {
         return cleaned;
     }
+
+    public Set getInputs()
+    {
+        return inputs;
+    }
+
+    public Set getOutputs()
+    {
+        return outputs;
+    }
+
+    public void setInputs( Set inputs )
+    {
+        this.inputs = inputs;
+    }
+
+    public void setOutputs( Set outputs )
+    {
+        this.outputs = outputs;
+    }
 }
@@ -0,0 +1,98 @@
+package org.apache.maven.shared.release.phase;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.shared.release.ReleaseResult;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.scm.DefaultScmRepositoryConfigurator;
+import org.apache.maven.shared.release.scm.ScmRepositoryConfigurator;
+import org.codehaus.plexus.PlexusTestCase;
+import org.jmock.Mock;
+import org.jmock.core.matcher.TestFailureMatcher;
+
+import java.util.Collections;
+
+/**
+ * Test removing the tags created for a release.
+ */
+public class RemoveScmTagPhaseTest
+    extends PlexusTestCase
+{
+    private ReleasePhase phase;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        phase = (ReleasePhase) lookup( ReleasePhase.ROLE, "remove-scm-tag" );
+    }
+
+    public void testRollbackBeforeTagging()
+        throws Exception
+    {
+        // the prepare stopped before scm-tag, but the tag may already exist from somewhere else
+        ReleaseDescriptor descriptor = createReleaseDescriptor();
+        descriptor.setCompletedPhase( "create-backup-poms" );
+
+        Mock scmManagerMock = new Mock( ScmManager.class );
+        scmManagerMock.expects( new TestFailureMatcher( "Shouldn't configure a repository" ) ).method(
+            "makeScmRepository" );
+        DefaultScmRepositoryConfigurator configurator =
+            (DefaultScmRepositoryConfigurator) lookup( ScmRepositoryConfigurator.ROLE );
+        configurator.setScmManager( (ScmManager) scmManagerMock.proxy() );
+
+        ReleaseResult result = phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertEquals( ReleaseResult.SUCCESS, result.getResultCode() );
+        assertTrue( "Check nothing removed", result.getOutput().indexOf( "No tags were created" ) >= 0 );
+    }
+
+    public void testRemoveCreatedTagOtherScm()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = createReleaseDescriptor();
+        descriptor.setCompletedPhase( "scm-tag" );
+        descriptor.getCreatedScmTags().put( "scm-url", "release-label" );
+
+        ReleaseResult result = phase.execute( descriptor, null, Collections.EMPTY_LIST );
+
+        assertTrue( "Check reported", result.getOutput().indexOf( "must be removed by hand" ) >= 0 );
+        assertTrue( "Check no longer recorded", descriptor.getCreatedScmTags().isEmpty() );
+    }
+
+    public void testSimulateRollbackBeforeTagging()
+        throws Exception
+    {
+        ReleaseResult result = phase.simulate( createReleaseDescriptor(), null, Collections.EMPTY_LIST );
+
+        assertTrue( "Check nothing removed", result.getOutput().indexOf( "Full run would be removing" ) < 0 );
+    }
+
+    private static ReleaseDescriptor createReleaseDescriptor()
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        descriptor.setScmSourceUrl( "scm-url" );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setScmCommentPrefix( "[my prefix]" );
+        return descriptor;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.maven.shared.release.phase;
 
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.util.PomCache;
 import org.codehaus.plexus.util.FileUtils;
 
 import java.io.File;
@@ -71,6 +72,25 @@ public class RestoreBackupPomsPhaseTest
         runExecuteOnProjects( testPath );
     }
 
+    public void testInvalidatesCachedPoms()
+        throws Exception
+    {
+        String projectPath = "/projects/restore-backup-poms/basic-pom";
+
+        File sourceDir = getTestFile( "src/test/resources" + projectPath );
+        File testDir = getTestFile( "target/test-classes" + projectPath );
+        FileUtils.copyDirectoryStructure( sourceDir, testDir );
+
+        File pomFile = new File( testDir, "pom.xml" );
+        byte[] content = "<project/>".getBytes();
+        PomCache pomCache = (PomCache) lookup( PomCache.ROLE );
+        pomCache.put( pomFile, content, new Object() );
+
+        runExecuteOnProjects( "target/test-classes" + projectPath );
+
+        assertNull( "Check restored POM not cached", pomCache.get( pomFile, content ) );
+    }
+
     private void runExecuteOnProjects( String path )
         throws Exception
     {
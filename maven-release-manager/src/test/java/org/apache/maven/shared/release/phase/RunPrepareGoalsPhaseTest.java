@@ -78,6 +78,57 @@ public class RunPrepareGoalsPhaseTest
         assertTrue( true );
     }
 
+    public void testExecuteParallelOffline()
+        throws ReleaseExecutionException
+    {
+        File testFile = getTestFile( "target/working-directory" );
+
+        ReleaseDescriptor config = new ReleaseDescriptor();
+        config.setPreparationGoals( "clean integration-test" );
+        config.setWorkingDirectory( testFile.getAbsolutePath() );
+        config.setAdditionalArguments( "-Dx=y" );
+        config.setBuildThreads( "4" );
+        config.setParallelBuild( Boolean.TRUE );
+        config.setOfflineBuild( Boolean.TRUE );
+
+        Mock mock = new Mock( MavenExecutor.class );
+        Constraint[] constraints = new Constraint[]{new IsEqual( testFile ), new IsEqual( "clean integration-test" ),
+            new IsEqual( Boolean.TRUE ), new IsEqual( "-T 4 --offline -Dx=y" ), new IsAnything()};
+
+        mock.expects( new InvokeOnceMatcher() ).method( "executeGoals" ).with( constraints );
+
+        phase.setMavenExecutor( (MavenExecutor) mock.proxy() );
+
+        phase.execute( config, (Settings) null, (List) null );
+
+        // just needs to survive the mock
+        assertTrue( true );
+    }
+
+    public void testExecuteBuildThreadsWithoutParallel()
+        throws ReleaseExecutionException
+    {
+        File testFile = getTestFile( "target/working-directory" );
+
+        ReleaseDescriptor config = new ReleaseDescriptor();
+        config.setPreparationGoals( "clean integration-test" );
+        config.setWorkingDirectory( testFile.getAbsolutePath() );
+        config.setBuildThreads( "2" );
+
+        Mock mock = new Mock( MavenExecutor.class );
+        Constraint[] constraints = new Constraint[]{new IsEqual( testFile ), new IsEqual( "clean integration-test" ),
+            new IsEqual( Boolean.TRUE ), new IsEqual( "-T 2" ), new IsAnything()};
+
+        mock.expects( new InvokeOnceMatcher() ).method( "executeGoals" ).with( constraints );
+
+        phase.setMavenExecutor( (MavenExecutor) mock.proxy() );
+
+        phase.execute( config, (Settings) null, (List) null );
+
+        // just needs to survive the mock
+        assertTrue( true );
+    }
+
     public void testSimulate()
         throws ReleaseExecutionException
     {
@@ -175,4 +226,30 @@ public class RunPrepareGoalsPhaseTest
         // just needs to survive the mock
         assertTrue( true );
     }
+
+    public void testUnknownMavenExecutor()
+    {
+        File testFile = getTestFile( "target/working-directory" );
+
+        ReleaseDescriptor config = new ReleaseDescriptor();
+        config.setPreparationGoals( "clean integration-test" );
+        config.setWorkingDirectory( testFile.getAbsolutePath() );
+        config.setMavenExecutorId( "unknown" );
+
+        Mock mock = new Mock( MavenExecutor.class );
+        mock.expects( new TestFailureMatcher( "Shouldn't invoke executeGoals" ) ).method( "executeGoals" );
+
+        phase.setMavenExecutor( (MavenExecutor) mock.proxy() );
+
+        try
+        {
+            phase.execute( config, (Settings) null, (List) null );
+
+            fail( "Should have thrown an exception" );
+        }
+        catch ( ReleaseExecutionException e )
+        {
+            assertNull( "Check no cause", e.getCause() );
+        }
+    }
 }
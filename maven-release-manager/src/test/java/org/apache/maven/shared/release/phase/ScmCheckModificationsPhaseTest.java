@@ -337,6 +337,28 @@ public class ScmCheckModificationsPhaseTest
         }
     }
 
+    public void testFilteredStatusWithoutFilteredCommand()
+        throws Exception
+    {
+        ReleaseDescriptor releaseDescriptor = createReleaseDescriptor();
+        releaseDescriptor.setFilteredStatus( true );
+
+        setChangedFiles( releaseDescriptor, Arrays.asList( new String[] { "release.properties", "module/pom.xml.tag",
+            "something.txt" } ) );
+
+        try
+        {
+            phase.execute( releaseDescriptor, null, null );
+
+            fail( "Status check should have failed" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( "Check included file reported", e.getMessage().indexOf( "something.txt" ) >= 0 );
+            assertTrue( "Check excluded file not reported", e.getMessage().indexOf( "release.properties" ) < 0 );
+        }
+    }
+
     private void setChangedFiles( ReleaseDescriptor releaseDescriptor, List changedFiles )
         throws Exception
     {
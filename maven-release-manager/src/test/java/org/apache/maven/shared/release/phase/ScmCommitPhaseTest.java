@@ -29,8 +29,10 @@ import org.apache.maven.scm.manager.ScmManagerStub;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderStub;
 import org.apache.maven.scm.repository.ScmRepositoryException;
+import org.apache.maven.shared.release.CommitMeasurement;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
+import org.apache.maven.shared.release.ReleaseResult;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
 import org.apache.maven.shared.release.scm.DefaultScmRepositoryConfigurator;
 import org.apache.maven.shared.release.scm.ReleaseScmCommandException;
@@ -132,6 +134,44 @@ public class ScmCommitPhaseTest
         assertTrue( true );
     }
 
+    public void testCommitByProjectInBatches()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        List reactorProjects = createReactorProjects( "scm-commit/", "multiple-poms", false );
+        descriptor.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        descriptor.setWorkingDirectory( rootProject.getFile().getParentFile().getAbsolutePath() );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setCommitByProject( true );
+        descriptor.setCommitBatchSize( 3 );
+
+        List poms = new ArrayList();
+        for ( Iterator i = reactorProjects.iterator(); i.hasNext(); )
+        {
+            MavenProject project = (MavenProject) i.next();
+            poms.add( project.getFile() );
+        }
+        ScmFileSet fileSet =
+            new ScmFileSet( rootProject.getFile().getParentFile(), (File[]) poms.toArray( EMPTY_FILE_ARRAY ) );
+
+        Mock scmProviderMock = new Mock( ScmProvider.class );
+        Constraint[] arguments = new Constraint[]{new IsAnything(), new IsScmFileSetEquals( fileSet ), new IsNull(),
+            new IsEqual( PREFIX + "release-label" )};
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "checkIn" ).with( arguments ).will(
+            new ReturnStub( new CheckInScmResult( "...", Collections.singletonList( rootProject.getFile() ) ) ) );
+
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.ROLE );
+        stub.setScmProvider( (ScmProvider) scmProviderMock.proxy() );
+
+        ReleaseResult result = phase.execute( descriptor, null, reactorProjects );
+
+        assertEquals( "Check one commit measured", 1, result.getCommitMeasurements().size() );
+        CommitMeasurement measurement = (CommitMeasurement) result.getCommitMeasurements().get( 0 );
+        assertEquals( "Check projects", 3, measurement.getProjectCount() );
+        assertEquals( "Check files", 3, measurement.getFileCount() );
+    }
+
     public void testCommitDevelopment()
         throws Exception
     {
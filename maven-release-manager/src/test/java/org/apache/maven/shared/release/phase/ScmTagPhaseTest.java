@@ -19,6 +19,7 @@ package org.apache.maven.shared.release.phase;
  * under the License.
  */
 
+import org.apache.maven.model.Scm;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
@@ -28,6 +29,8 @@ import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.manager.ScmManagerStub;
 import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderStub;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
 import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
@@ -41,12 +44,14 @@ import org.jmock.Mock;
 import org.jmock.core.Constraint;
 import org.jmock.core.constraint.IsAnything;
 import org.jmock.core.constraint.IsEqual;
+import org.jmock.core.matcher.InvokeAtLeastOnceMatcher;
 import org.jmock.core.matcher.InvokeOnceMatcher;
 import org.jmock.core.matcher.TestFailureMatcher;
 import org.jmock.core.stub.ReturnStub;
 import org.jmock.core.stub.ThrowStub;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -89,7 +94,8 @@ public class ScmTagPhaseTest
 
         phase.execute( descriptor, null, reactorProjects );
 
-        assertTrue( true );
+        assertEquals( "Check tag recorded", Collections.singletonMap( "scm-url", "release-label" ),
+                      descriptor.getCreatedScmTags() );
     }
 
     public void testCommitMultiModule()
@@ -119,6 +125,152 @@ public class ScmTagPhaseTest
         assertTrue( true );
     }
 
+    public void testTagMultipleScmRoots()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        List reactorProjects = createReactorProjects( "scm-commit/", "multiple-poms", false );
+        descriptor.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        descriptor.setWorkingDirectory( rootProject.getFile().getParentFile().getAbsolutePath() );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setScmCommentPrefix( "[my prefix]" );
+        descriptor.setTagScmRoots( true );
+        MavenProject otherProject = setOtherScmRoot( reactorProjects );
+
+        Mock scmProviderMock = new Mock( ScmProvider.class );
+        ScmFileSet fileSet = new ScmFileSet( rootProject.getFile().getParentFile() );
+        Constraint[] arguments = new Constraint[]{new IsAnything(), new IsScmFileSetEquals( fileSet ),
+            new IsEqual( "release-label" ), new IsEqual( "[my prefix] copy for tag release-label" )};
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "tag" ).with( arguments ).will(
+            new ReturnStub( new TagScmResult( "...", Collections.singletonList( rootProject.getFile() ) ) ) );
+        ScmFileSet otherFileSet = new ScmFileSet( otherProject.getFile().getParentFile() );
+        arguments = new Constraint[]{new IsAnything(), new IsScmFileSetEquals( otherFileSet ),
+            new IsEqual( "release-label" ), new IsEqual( "[my prefix] copy for tag release-label" )};
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "tag" ).with( arguments ).will(
+            new ReturnStub( new TagScmResult( "...", Collections.singletonList( otherProject.getFile() ) ) ) );
+
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.ROLE );
+        stub.setScmProvider( (ScmProvider) scmProviderMock.proxy() );
+
+        phase.execute( descriptor, null, reactorProjects );
+
+        assertEquals( "Check tags recorded", 2, descriptor.getCreatedScmTags().size() );
+    }
+
+    public void testTagMultipleScmRootsFailure()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        List reactorProjects = createReactorProjects( "scm-commit/", "multiple-poms", false );
+        descriptor.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        descriptor.setWorkingDirectory( rootProject.getFile().getParentFile().getAbsolutePath() );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setScmCommentPrefix( "[my prefix]" );
+        descriptor.setTagScmRoots( true );
+        MavenProject otherProject = setOtherScmRoot( reactorProjects );
+
+        Mock scmProviderMock = new Mock( ScmProvider.class );
+        ScmFileSet fileSet = new ScmFileSet( rootProject.getFile().getParentFile() );
+        Constraint[] arguments =
+            new Constraint[]{new IsAnything(), new IsScmFileSetEquals( fileSet ), new IsAnything(), new IsAnything()};
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "tag" ).with( arguments ).will(
+            new ReturnStub( new TagScmResult( "...", Collections.singletonList( rootProject.getFile() ) ) ) );
+        ScmFileSet otherFileSet = new ScmFileSet( otherProject.getFile().getParentFile() );
+        arguments = new Constraint[]{new IsAnything(), new IsScmFileSetEquals( otherFileSet ), new IsAnything(),
+            new IsAnything()};
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "tag" ).with( arguments ).will(
+            new ReturnStub( new TagScmResult( "", "", "", false ) ) );
+
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.ROLE );
+        stub.setScmProvider( (ScmProvider) scmProviderMock.proxy() );
+
+        try
+        {
+            phase.execute( descriptor, null, reactorProjects );
+
+            fail( "Tag should have failed" );
+        }
+        catch ( ReleaseScmCommandException e )
+        {
+            assertTrue( "check the failed root is reported", e.getMessage().indexOf( "scm:svn:other-url" ) >= 0 );
+        }
+
+        assertTrue( "Check created tag removed again", descriptor.getCreatedScmTags().isEmpty() );
+    }
+
+    public void testOtherScmRootsNotTaggedByDefault()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        List reactorProjects = createReactorProjects( "scm-commit/", "multiple-poms", false );
+        descriptor.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        descriptor.setWorkingDirectory( rootProject.getFile().getParentFile().getAbsolutePath() );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setScmCommentPrefix( "[my prefix]" );
+        setOtherScmRoot( reactorProjects );
+
+        ScmFileSet fileSet = new ScmFileSet( rootProject.getFile().getParentFile() );
+
+        Mock scmProviderMock = new Mock( ScmProvider.class );
+        Constraint[] arguments = new Constraint[]{new IsAnything(), new IsScmFileSetEquals( fileSet ),
+            new IsEqual( "release-label" ), new IsEqual( "[my prefix] copy for tag release-label" )};
+        scmProviderMock.expects( new InvokeOnceMatcher() ).method( "tag" ).with( arguments ).will(
+            new ReturnStub( new TagScmResult( "...", Collections.singletonList( rootProject.getFile() ) ) ) );
+
+        ScmManagerStub stub = (ScmManagerStub) lookup( ScmManager.ROLE );
+        stub.setScmProvider( (ScmProvider) scmProviderMock.proxy() );
+
+        phase.execute( descriptor, null, reactorProjects );
+
+        assertTrue( true );
+    }
+
+    public void testTagMultipleScmRootsSameTagUrl()
+        throws Exception
+    {
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        List reactorProjects = createReactorProjects( "scm-commit/", "multiple-poms", false );
+        descriptor.setScmSourceUrl( "scm-url" );
+        MavenProject rootProject = ReleaseUtil.getRootProject( reactorProjects );
+        descriptor.setWorkingDirectory( rootProject.getFile().getParentFile().getAbsolutePath() );
+        descriptor.setScmReleaseLabel( "release-label" );
+        descriptor.setTagScmRoots( true );
+        setOtherScmRoot( reactorProjects );
+
+        // the siblings of a flat layout share the same tags directory
+        Mock scmManagerMock = new Mock( ScmManager.class );
+        scmManagerMock.expects( new InvokeOnceMatcher() ).method( "makeScmRepository" ).with(
+            new IsEqual( "scm-url" ) ).will( new ReturnStub(
+            new ScmRepository( "svn", new SvnScmProviderRepository( "http://localhost/repo/trunk/parent" ) ) ) );
+        scmManagerMock.expects( new InvokeOnceMatcher() ).method( "makeScmRepository" ).with(
+            new IsEqual( "scm:svn:other-url" ) ).will( new ReturnStub(
+            new ScmRepository( "svn", new SvnScmProviderRepository( "http://localhost/repo/trunk/module" ) ) ) );
+
+        Mock scmProviderMock = new Mock( ScmProvider.class );
+        scmProviderMock.expects( new TestFailureMatcher( "Shouldn't have called tag" ) ).method( "tag" );
+        scmManagerMock.expects( new InvokeAtLeastOnceMatcher() ).method( "getProviderByRepository" ).will(
+            new ReturnStub( scmProviderMock.proxy() ) );
+
+        DefaultScmRepositoryConfigurator configurator =
+            (DefaultScmRepositoryConfigurator) lookup( ScmRepositoryConfigurator.ROLE );
+        configurator.setScmManager( (ScmManager) scmManagerMock.proxy() );
+
+        try
+        {
+            phase.execute( descriptor, null, reactorProjects );
+
+            fail( "Tag should have failed" );
+        }
+        catch ( ReleaseFailureException e )
+        {
+            assertTrue( "check the tag URL is reported",
+                        e.getMessage().indexOf( "http://localhost/repo/tags/release-label" ) >= 0 );
+        }
+    }
+
     public void testTagNoReleaseLabel()
         throws Exception
     {
@@ -277,6 +429,22 @@ public class ScmTagPhaseTest
         }
     }
 
+    private static MavenProject setOtherScmRoot( List reactorProjects )
+    {
+        for ( Iterator i = reactorProjects.iterator(); i.hasNext(); )
+        {
+            MavenProject project = (MavenProject) i.next();
+            if ( "subproject2".equals( project.getArtifactId() ) )
+            {
+                Scm scm = new Scm();
+                scm.setDeveloperConnection( "scm:svn:other-url" );
+                project.setScm( scm );
+                return project;
+            }
+        }
+        throw new IllegalStateException( "No subproject2 in the reactor" );
+    }
+
     private List createReactorProjects()
         throws Exception
     {
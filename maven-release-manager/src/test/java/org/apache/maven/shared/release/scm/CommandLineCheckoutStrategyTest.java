@@ -0,0 +1,237 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.checkout.CheckOutScmResult;
+import org.apache.maven.scm.provider.hg.repository.HgScmProviderRepository;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Test the checkout strategies that run the SCM's command line tool against repositories in the local file system.
+ * The tests are skipped if the tool isn't installed.
+ */
+public class CommandLineCheckoutStrategyTest
+    extends PlexusTestCase
+{
+    private static final ScmTag TAG = new ScmTag( "release-label" );
+
+    public void testSparseCheckout()
+        throws Exception
+    {
+        if ( !isAvailable( "svn" ) || !isAvailable( "svnadmin" ) )
+        {
+            return;
+        }
+
+        File checkoutDirectory = sparseCheckOut( "target/sparse-checkout-test", "modules/core" );
+
+        assertTrue( "Check top POM", new File( checkoutDirectory, "pom.xml" ).exists() );
+        assertTrue( "Check parent POM", new File( checkoutDirectory, "modules/pom.xml" ).exists() );
+        assertTrue( "Check module", new File( checkoutDirectory, "modules/core/src/main/java/Core.java" ).exists() );
+        assertFalse( "Check other module", new File( checkoutDirectory, "modules/other" ).exists() );
+    }
+
+    public void testSparseCheckoutParentAfterModule()
+        throws Exception
+    {
+        if ( !isAvailable( "svn" ) || !isAvailable( "svnadmin" ) )
+        {
+            return;
+        }
+
+        File checkoutDirectory = sparseCheckOut( "target/sparse-checkout-parent-test", "modules/core,modules" );
+
+        assertTrue( "Check module", new File( checkoutDirectory, "modules/core/src/main/java/Core.java" ).exists() );
+        assertTrue( "Check other module", new File( checkoutDirectory, "modules/other/pom.xml" ).exists() );
+    }
+
+    public void testSparseCheckoutModuleAfterParent()
+        throws Exception
+    {
+        if ( !isAvailable( "svn" ) || !isAvailable( "svnadmin" ) )
+        {
+            return;
+        }
+
+        File checkoutDirectory = sparseCheckOut( "target/sparse-checkout-module-test", "modules,modules/core/src" );
+
+        assertTrue( "Check module", new File( checkoutDirectory, "modules/core/src/main/java/Core.java" ).exists() );
+        assertTrue( "Check other module", new File( checkoutDirectory, "modules/other/pom.xml" ).exists() );
+    }
+
+    public void testReferenceCheckout()
+        throws Exception
+    {
+        if ( !isAvailable( "hg" ) )
+        {
+            return;
+        }
+
+        File directory = createDirectory( "target/reference-checkout-test" );
+        File origin = new File( directory, "origin" );
+        run( directory, new String[]{"hg", "init", origin.getAbsolutePath()} );
+        createFile( origin, "pom.xml" );
+        hg( origin, new String[]{"add", "pom.xml"} );
+        hg( origin, new String[]{"commit", "-m", "first"} );
+
+        File reference = new File( directory, "reference" );
+        run( directory, new String[]{"hg", "clone", origin.getAbsolutePath(), reference.getAbsolutePath()} );
+
+        createFile( origin, "module/pom.xml" );
+        hg( origin, new String[]{"add", "module/pom.xml"} );
+        hg( origin, new String[]{"commit", "-m", "second"} );
+        hg( origin, new String[]{"tag", "release-label"} );
+
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        descriptor.setCheckoutReference( reference.getAbsolutePath() );
+        ScmRepository repository =
+            new ScmRepository( "hg", new HgScmProviderRepository( toUrl( origin ) ) );
+
+        File checkoutDirectory = new File( directory, "checkout" );
+        CheckOutScmResult result = getStrategy( "reference" ).checkOut( null, repository, checkoutDirectory, TAG,
+                                                                        descriptor );
+
+        assertTrue( result.getProviderMessage(), result.isSuccess() );
+        assertTrue( "Check command lines", result.getCommandLine().indexOf( "clone --noupdate" ) > 0 );
+        assertTrue( "Check command lines",
+                    result.getCommandLine().indexOf( "update --clean --rev release-label" ) > 0 );
+        assertTrue( "Check tagged file", new File( checkoutDirectory, "module/pom.xml" ).exists() );
+        assertFalse( "Check tag not in working copy", new File( checkoutDirectory, ".hgtags" ).exists() );
+    }
+
+    private CheckoutStrategy getStrategy( String roleHint )
+        throws Exception
+    {
+        return (CheckoutStrategy) lookup( CheckoutStrategy.ROLE, roleHint );
+    }
+
+    /**
+     * Check out the given paths of a new repository with the sparse strategy.
+     *
+     * @return the checkout directory
+     */
+    private File sparseCheckOut( String path, String checkoutPaths )
+        throws Exception
+    {
+        File directory = createDirectory( path );
+        File repositoryDirectory = new File( directory, "repository" );
+        run( directory, new String[]{"svnadmin", "create", repositoryDirectory.getAbsolutePath()} );
+
+        File project = new File( directory, "project" );
+        createFile( project, "pom.xml" );
+        createFile( project, "modules/pom.xml" );
+        createFile( project, "modules/core/pom.xml" );
+        createFile( project, "modules/core/src/main/java/Core.java" );
+        createFile( project, "modules/other/pom.xml" );
+        String url = toUrl( repositoryDirectory );
+        run( directory, new String[]{"svn", "import", "--non-interactive", "-m", "import", project.getAbsolutePath(),
+            url + "/tags/release-label"} );
+
+        ReleaseDescriptor descriptor = new ReleaseDescriptor();
+        descriptor.setCheckoutPaths( checkoutPaths );
+        ScmRepository repository = new ScmRepository( "svn", new SvnScmProviderRepository( url + "/trunk" ) );
+
+        File checkoutDirectory = new File( directory, "checkout" );
+        CheckOutScmResult result = getStrategy( "sparse" ).checkOut( null, repository, checkoutDirectory, TAG,
+                                                                     descriptor );
+
+        assertTrue( result.getProviderMessage(), result.isSuccess() );
+        assertTrue( "Check command lines", result.getCommandLine().indexOf( "--depth files" ) > 0 );
+        assertTrue( "Check command lines", result.getCommandLine().indexOf( "--set-depth infinity" ) > 0 );
+        return checkoutDirectory;
+    }
+
+    private static String toUrl( File directory )
+    {
+        String path = directory.getAbsolutePath().replace( '\\', '/' );
+        return "file://" + ( path.startsWith( "/" ) ? "" : "/" ) + path;
+    }
+
+    private static boolean isAvailable( String executable )
+    {
+        Commandline cl = new Commandline();
+        cl.setExecutable( executable );
+        cl.createArgument().setValue( "--version" );
+        try
+        {
+            return CommandLineUtils.executeCommandLine( cl, new CommandLineUtils.StringStreamConsumer(),
+                                                        new CommandLineUtils.StringStreamConsumer() ) == 0;
+        }
+        catch ( CommandLineException e )
+        {
+            return false;
+        }
+    }
+
+    private static void hg( File workingDirectory, String[] arguments )
+        throws CommandLineException
+    {
+        String[] command = new String[arguments.length + 3];
+        command[0] = "hg";
+        command[1] = "--config";
+        command[2] = "ui.username=test";
+        System.arraycopy( arguments, 0, command, 3, arguments.length );
+        run( workingDirectory, command );
+    }
+
+    private static void run( File workingDirectory, String[] command )
+        throws CommandLineException
+    {
+        Commandline cl = new Commandline();
+        cl.setExecutable( command[0] );
+        cl.setWorkingDirectory( workingDirectory.getAbsolutePath() );
+        for ( int i = 1; i < command.length; i++ )
+        {
+            cl.createArgument().setValue( command[i] );
+        }
+
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+        int exitCode = CommandLineUtils.executeCommandLine( cl, new CommandLineUtils.StringStreamConsumer(), stderr );
+        assertEquals( cl + ": " + stderr.getOutput(), 0, exitCode );
+    }
+
+    private File createDirectory( String path )
+        throws IOException
+    {
+        File directory = getTestFile( path );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+        return directory;
+    }
+
+    private static void createFile( File directory, String path )
+        throws IOException
+    {
+        File file = new File( directory, path );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getAbsolutePath(), path );
+    }
+}
@@ -178,6 +178,42 @@ public class DefaultScmRepositoryConfiguratorTest
         assertEquals( "Check SCM provider", "cvs", provider.getScmType() );
     }
 
+    public void testGetConfiguredRepositoryCached()
+        throws ScmRepositoryException, NoSuchScmProviderException
+    {
+        ScmRepository repository = scmRepositoryConfigurator.getConfiguredRepository( createReleaseDescriptor(), null );
+
+        assertSame( "check repository is shared", repository,
+                    scmRepositoryConfigurator.getConfiguredRepository( createReleaseDescriptor(), null ) );
+        assertSame( "check provider is shared", scmRepositoryConfigurator.getRepositoryProvider( repository ),
+                    scmRepositoryConfigurator.getRepositoryProvider( repository ) );
+    }
+
+    public void testGetConfiguredRepositoryCachedByConfiguration()
+        throws ScmRepositoryException, NoSuchScmProviderException
+    {
+        ScmRepository repository = scmRepositoryConfigurator.getConfiguredRepository( createReleaseDescriptor(), null );
+
+        ReleaseDescriptor otherDescriptor = createReleaseDescriptor( "username", "password" );
+        ScmRepository otherRepository = scmRepositoryConfigurator.getConfiguredRepository( otherDescriptor, null );
+        assertNotSame( "check other credentials", repository, otherRepository );
+        assertEquals( "check username", "username", otherRepository.getProviderRepository().getUser() );
+
+        assertNotSame( "check other settings", repository,
+                       scmRepositoryConfigurator.getConfiguredRepository( createReleaseDescriptor(), new Settings() ) );
+    }
+
+    public void testClear()
+        throws ScmRepositoryException, NoSuchScmProviderException
+    {
+        ReleaseDescriptor releaseDescriptor = createReleaseDescriptor();
+        ScmRepository repository = scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, null );
+
+        scmRepositoryConfigurator.clear();
+
+        assertNotSame( repository, scmRepositoryConfigurator.getConfiguredRepository( releaseDescriptor, null ) );
+    }
+
     private static ReleaseDescriptor createReleaseDescriptor()
     {
         ReleaseDescriptor releaseDescriptor = new ReleaseDescriptor();
@@ -0,0 +1,68 @@
+package org.apache.maven.shared.release.scm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.scm.ScmFile;
+import org.apache.maven.scm.ScmFileStatus;
+
+import java.util.Arrays;
+
+/**
+ * Test reading the changes reported by <code>svn status</code> and collecting the files that weren't excluded.
+ */
+public class SvnFilteredStatusCommandTest
+    extends TestCase
+{
+    public void testParseStatusLine()
+    {
+        assertFile( "pom.xml", ScmFileStatus.MODIFIED, "M      pom.xml" );
+        assertFile( "module/pom.xml", ScmFileStatus.ADDED, "A       module/pom.xml" );
+        assertFile( "notes.txt", ScmFileStatus.UNKNOWN, "?      notes.txt" );
+        assertFile( "module", ScmFileStatus.MODIFIED, " M     module" );
+
+        assertNull( SvnFilteredStatusCommand.parseStatusLine( "X      external" ) );
+        assertNull( SvnFilteredStatusCommand.parseStatusLine( "Performing status on external item at 'external'" ) );
+        assertNull( SvnFilteredStatusCommand.parseStatusLine( "" ) );
+    }
+
+    public void testCollectExcludedFiles()
+    {
+        ModifiedFileCollector collector =
+            new ModifiedFileCollector( Arrays.asList( new String[]{"release.properties", "pom.xml.tag"} ), 1 );
+
+        collector.add( new ScmFile( "release.properties", ScmFileStatus.UNKNOWN ) );
+        collector.add( new ScmFile( "module\\pom.xml.tag", ScmFileStatus.UNKNOWN ) );
+        collector.add( new ScmFile( "module/release.properties.txt", ScmFileStatus.UNKNOWN ) );
+        collector.add( new ScmFile( "pom.xml", ScmFileStatus.MODIFIED ) );
+
+        assertEquals( 2, collector.getCount() );
+        assertEquals( 1, collector.getFiles().size() );
+        assertEquals( "module/release.properties.txt", ( (ScmFile) collector.getFiles().get( 0 ) ).getPath() );
+    }
+
+    private static void assertFile( String path, ScmFileStatus status, String line )
+    {
+        ScmFile file = SvnFilteredStatusCommand.parseStatusLine( line );
+
+        assertEquals( path, file.getPath() );
+        assertEquals( status, file.getStatus() );
+    }
+}
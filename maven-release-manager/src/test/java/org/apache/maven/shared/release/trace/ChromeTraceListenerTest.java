@@ -0,0 +1,119 @@
+package org.apache.maven.shared.release.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.shared.release.PhaseMeasurement;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Test the Chrome trace listener.
+ */
+public class ChromeTraceListenerTest
+    extends PlexusTestCase
+{
+    private File traceFile;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        traceFile = getTestFile( "target/test-classes/trace/trace.json" );
+        traceFile.delete();
+    }
+
+    public void testTrace()
+        throws Exception
+    {
+        ActivityTracer tracer = (ActivityTracer) lookup( ActivityTracer.ROLE );
+        assertFalse( tracer.isTracing() );
+
+        ChromeTraceListener listener = new ChromeTraceListener( traceFile );
+        tracer.addListener( listener );
+        assertTrue( tracer.isTracing() );
+
+        long startTime = System.currentTimeMillis();
+        listener.goalStart( "prepare", Collections.EMPTY_LIST );
+        listener.phaseSkip( "check-poms" );
+        listener.phaseMeasured( new PhaseMeasurement( "run-preparation-goals", startTime, 20, 5000000, 1024 ) );
+        listener.phaseMeasured( new PhaseMeasurement( "check-dependency-snapshots", startTime + 5, 10, -1, -1 ) );
+        tracer.activityFinished( ActivityTracer.MAVEN, "mvn clean \"verify\"", startTime + 1, 15 );
+        listener.goalEnd();
+
+        tracer.removeListener( listener );
+        assertFalse( tracer.isTracing() );
+        tracer.activityFinished( ActivityTracer.SCM, "svn checkin", startTime, 1 );
+
+        listener.close();
+
+        String trace = FileUtils.fileRead( traceFile );
+        assertTrue( trace.startsWith( "{\"traceEvents\":[" ) );
+        assertTrue( trace.indexOf( "{\"name\":\"prepare\",\"cat\":\"goal\",\"ph\":\"X\"" ) >= 0 );
+        assertTrue( trace.indexOf(
+            "{\"name\":\"run-preparation-goals\",\"cat\":\"phase\",\"ph\":\"X\",\"dur\":20000,\"ts\":" ) >= 0 );
+        assertTrue( trace.indexOf( "\"args\":{\"cpuTimeMillis\":5,\"allocatedBytes\":1024}" ) >= 0 );
+        assertTrue( trace.indexOf( "{\"name\":\"check-poms (skipped)\",\"cat\":\"phase\",\"ph\":\"i\"" ) >= 0 );
+        assertTrue( trace.indexOf( "{\"name\":\"mvn clean \\\"verify\\\"\",\"cat\":\"maven\",\"ph\":\"X\"" ) >= 0 );
+        assertTrue( "activity after removing the listener", trace.indexOf( "svn checkin" ) < 0 );
+    }
+
+    public void testOverlappingPhasesOnSeparateRows()
+        throws Exception
+    {
+        ChromeTraceListener listener = new ChromeTraceListener( traceFile );
+
+        long startTime = System.currentTimeMillis();
+        listener.phaseMeasured( new PhaseMeasurement( "first", startTime, 20, -1, -1 ) );
+        listener.phaseMeasured( new PhaseMeasurement( "second", startTime + 5, 10, -1, -1 ) );
+        listener.activityFinished( ActivityTracer.SCM, "svn status", startTime + 1, 5 );
+        listener.phaseMeasured( new PhaseMeasurement( "third", startTime + 30, 10, -1, -1 ) );
+        listener.close();
+
+        String trace = FileUtils.fileRead( traceFile );
+        assertEquals( 1, getRow( trace, "first" ) );
+        assertEquals( 2, getRow( trace, "second" ) );
+        assertEquals( "nested in the first phase", 1, getRow( trace, "svn status" ) );
+        assertEquals( 1, getRow( trace, "third" ) );
+    }
+
+    public void testFailedGoalIsEnded()
+        throws Exception
+    {
+        ChromeTraceListener listener = new ChromeTraceListener( traceFile );
+        listener.goalStart( "perform", Collections.EMPTY_LIST );
+        listener.error( "Unable to checkout" );
+        listener.close();
+
+        String trace = FileUtils.fileRead( traceFile );
+        assertTrue( trace.indexOf( "{\"name\":\"perform\",\"cat\":\"goal\",\"ph\":\"X\"" ) >= 0 );
+        assertTrue( trace.indexOf( "\"args\":{\"reason\":\"Unable to checkout\"}" ) >= 0 );
+    }
+
+    private static int getRow( String trace, String name )
+    {
+        String event = trace.substring( trace.indexOf( "{\"name\":\"" + name + "\"" ) );
+        event = event.substring( 0, event.indexOf( '}' ) );
+        return Integer.parseInt( event.substring( event.indexOf( "\"tid\":" ) + 6 ) );
+    }
+}
@@ -0,0 +1,103 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.PlexusTestCase;
+
+/**
+ * Test the artifact coordinate cache.
+ */
+public class DefaultCoordinateCacheTest
+    extends PlexusTestCase
+{
+    private CoordinateCache coordinateCache;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        coordinateCache = (CoordinateCache) lookup( CoordinateCache.ROLE );
+        coordinateCache.clear();
+    }
+
+    public void testVersionlessKey()
+    {
+        String key = coordinateCache.versionlessKey( "groupId", "artifactId" );
+
+        assertEquals( "groupId:artifactId", key );
+        assertSame( key, coordinateCache.versionlessKey( new String( "groupId" ), new String( "artifactId" ) ) );
+        assertEquals( "groupId:other", coordinateCache.versionlessKey( "groupId", "other" ) );
+    }
+
+    public void testIsSnapshot()
+    {
+        assertTrue( coordinateCache.isSnapshot( "1.0-SNAPSHOT" ) );
+        assertTrue( coordinateCache.isSnapshot( "1.0-20070101.120000-1" ) );
+        assertFalse( coordinateCache.isSnapshot( "1.0" ) );
+        assertFalse( coordinateCache.isSnapshot( null ) );
+
+        // cached the second time
+        assertTrue( coordinateCache.isSnapshot( "1.0-SNAPSHOT" ) );
+        assertFalse( coordinateCache.isSnapshot( "1.0" ) );
+    }
+
+    public void testConcurrentLookups()
+        throws InterruptedException
+    {
+        final String[] results = new String[8];
+        Thread[] threads = new Thread[results.length];
+        for ( int i = 0; i < threads.length; i++ )
+        {
+            final int index = i;
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    for ( int j = 0; j < 1000; j++ )
+                    {
+                        coordinateCache.versionlessKey( "groupId" + j, "artifactId" );
+                        coordinateCache.isSnapshot( j + "-SNAPSHOT" );
+                    }
+                    results[index] = coordinateCache.versionlessKey( "groupId", "artifactId" );
+                }
+            };
+            threads[i].start();
+        }
+        for ( int i = 0; i < threads.length; i++ )
+        {
+            threads[i].join();
+        }
+
+        String key = coordinateCache.versionlessKey( "groupId", "artifactId" );
+        for ( int i = 0; i < results.length; i++ )
+        {
+            assertSame( "Check same key for each thread", key, results[i] );
+        }
+    }
+
+    public void testClear()
+    {
+        String key = coordinateCache.versionlessKey( "groupId", "artifactId" );
+        coordinateCache.clear();
+
+        assertNotSame( key, coordinateCache.versionlessKey( new String( "groupId" ), new String( "artifactId" ) ) );
+    }
+}
@@ -0,0 +1,83 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.PlexusTestCase;
+
+import java.io.File;
+
+/**
+ * Test the parsed POM cache.
+ */
+public class DefaultPomCacheTest
+    extends PlexusTestCase
+{
+    private static final File POM = new File( "pom.xml" );
+
+    private PomCache pomCache;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        pomCache = (PomCache) lookup( PomCache.ROLE );
+        pomCache.clear();
+    }
+
+    public void testSameContent()
+    {
+        Object pom = new Object();
+        pomCache.put( POM, "<project/>".getBytes(), pom );
+
+        assertSame( pom, pomCache.get( POM, "<project/>".getBytes() ) );
+        assertSame( pom, pomCache.get( POM.getAbsoluteFile(), "<project/>".getBytes() ) );
+    }
+
+    public void testChangedContent()
+    {
+        pomCache.put( POM, "<project/>".getBytes(), new Object() );
+
+        assertNull( pomCache.get( POM, "<project></project>".getBytes() ) );
+    }
+
+    public void testOtherFile()
+    {
+        pomCache.put( POM, "<project/>".getBytes(), new Object() );
+
+        assertNull( pomCache.get( new File( "other-pom.xml" ), "<project/>".getBytes() ) );
+    }
+
+    public void testInvalidate()
+    {
+        pomCache.put( POM, "<project/>".getBytes(), new Object() );
+        pomCache.invalidate( POM );
+
+        assertNull( pomCache.get( POM, "<project/>".getBytes() ) );
+    }
+
+    public void testClear()
+    {
+        pomCache.put( POM, "<project/>".getBytes(), new Object() );
+        pomCache.clear();
+
+        assertNull( pomCache.get( POM, "<project/>".getBytes() ) );
+    }
+}
@@ -0,0 +1,109 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Test splicing changes into the original text of a POM.
+ */
+public class LosslessPomEditorTest
+    extends TestCase
+{
+    private static final String POM = "<?xml version='1.0'?>\r\n<!-- <header> -->\r\n" +
+        "<project   xmlns='http://maven.apache.org/POM/4.0.0'>\r\n" + "  <artifactId>a</artifactId>\r\n" +
+        "  <version>1.0-SNAPSHOT</version>\r\n" + "  <packaging/>\r\n" + "  <properties>\r\n" +
+        "    <dep.version><![CDATA[2.0-SNAPSHOT]]></dep.version>\r\n" + "  </properties>\r\n" + "</project>\r\n";
+
+    public void testUnchanged()
+        throws Exception
+    {
+        Document document = parse( POM );
+        LosslessPomEditor editor = new LosslessPomEditor( POM, new PomSnapshot( document ) );
+
+        assertEquals( POM, editor.edit() );
+    }
+
+    public void testChangedText()
+        throws Exception
+    {
+        Document document = parse( POM );
+        LosslessPomEditor editor = new LosslessPomEditor( POM, new PomSnapshot( document ) );
+
+        Element project = document.getRootElement();
+        project.getChild( "version", project.getNamespace() ).setText( "1.0" );
+        Element properties = project.getChild( "properties", project.getNamespace() );
+        properties.getChild( "dep.version", project.getNamespace() ).setText( "2.0 & <more>" );
+
+        String expected = "<?xml version='1.0'?>\r\n<!-- <header> -->\r\n" +
+            "<project   xmlns='http://maven.apache.org/POM/4.0.0'>\r\n" + "  <artifactId>a</artifactId>\r\n" +
+            "  <version>1.0</version>\r\n" + "  <packaging/>\r\n" + "  <properties>\r\n" +
+            "    <dep.version>2.0 &amp; &lt;more&gt;</dep.version>\r\n" + "  </properties>\r\n" + "</project>\r\n";
+        assertEquals( expected, editor.edit() );
+    }
+
+    public void testAddedElement()
+        throws Exception
+    {
+        Document document = parse( POM );
+        LosslessPomEditor editor = new LosslessPomEditor( POM, new PomSnapshot( document ) );
+
+        Element project = document.getRootElement();
+        project.addContent( new Element( "name", project.getNamespace() ) );
+
+        assertNull( editor.edit() );
+    }
+
+    public void testChangedEmptyElement()
+        throws Exception
+    {
+        Document document = parse( POM );
+        LosslessPomEditor editor = new LosslessPomEditor( POM, new PomSnapshot( document ) );
+
+        Element project = document.getRootElement();
+        project.getChild( "packaging", project.getNamespace() ).setText( "jar" );
+
+        assertNull( editor.edit() );
+    }
+
+    public void testAddedAttribute()
+        throws Exception
+    {
+        Document document = parse( POM );
+        LosslessPomEditor editor = new LosslessPomEditor( POM, new PomSnapshot( document ) );
+
+        document.getRootElement().setAttribute( "id", "a" );
+
+        assertNull( editor.edit() );
+    }
+
+    private static Document parse( String text )
+        throws JDOMException, IOException
+    {
+        return new SAXBuilder().build( new StringReader( text ) );
+    }
+}
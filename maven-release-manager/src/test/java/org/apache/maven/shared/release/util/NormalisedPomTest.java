@@ -0,0 +1,132 @@
+package org.apache.maven.shared.release.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Test the single pass POM normalisation.
+ */
+public class NormalisedPomTest
+    extends PlexusTestCase
+{
+    public void testCollapseFirstWhitespaceRunInTag()
+        throws IOException
+    {
+        assertEquals( "<project a=\"1\"  b=\"2\">", normalise( "<project   a=\"1\"  b=\"2\">" ) );
+        assertEquals( "<a\tb>", normalise( "<a\tb>" ) );
+        assertEquals( "<  a>", normalise( "<  a>" ) );
+    }
+
+    public void testCommentsAndDeclarationsNotCollapsed()
+        throws IOException
+    {
+        assertEquals( "<!--  comment  -->", normalise( "<!--  comment  -->" ) );
+        assertEquals( "<!DOCTYPE  project>", normalise( "<!DOCTYPE  project>" ) );
+    }
+
+    public void testUnterminatedTagNotCollapsed()
+        throws IOException
+    {
+        assertEquals( "<a  b", normalise( "<a  b" ) );
+    }
+
+    public void testEmptyTagTerminator()
+        throws IOException
+    {
+        assertEquals( "<a />", normalise( "<a/>" ) );
+        assertEquals( "<a />", normalise( "<a />" ) );
+        assertEquals( "<a />", normalise( "<a\t\n\t/>" ) );
+        assertEquals( "<a />", normalise( "<a  />" ) );
+        assertEquals( "/>", normalise( "/>" ) );
+        assertEquals( "a /> />", normalise( "a/> />" ) );
+        assertEquals( "a />/>", normalise( "a/>/>" ) );
+    }
+
+    public void testRootMatched()
+        throws IOException
+    {
+        String intro = "<?xml version=\"1.0\"?>\n<!-- <header> -->\n";
+        NormalisedPom pom = NormalisedPom.read( new StringReader( intro + "<project></project>\n" ) );
+
+        NormalisedPom.RootMatcher matcher = pom.createRootMatcher();
+        matcher.write( "<project>" );
+        matcher.write( "</project>" );
+
+        assertTrue( matcher.isMatch() );
+        assertEquals( intro, matcher.getIntro() );
+        assertEquals( "\n", matcher.getOuttro() );
+    }
+
+    public void testRootNotMatched()
+        throws IOException
+    {
+        NormalisedPom pom = NormalisedPom.read( new StringReader( "<project a='1'></project>" ) );
+
+        NormalisedPom.RootMatcher matcher = pom.createRootMatcher();
+        matcher.write( "<project a=\"1\"></project>" );
+
+        assertFalse( matcher.isMatch() );
+        assertNull( matcher.getIntro() );
+        assertNull( matcher.getOuttro() );
+    }
+
+    public void testEquivalentToRegularExpressions()
+        throws IOException
+    {
+        List files = FileUtils.getFiles( getTestFile( "src/test/resources/projects" ), "**/*.xml", null );
+        for ( Iterator i = files.iterator(); i.hasNext(); )
+        {
+            File file = (File) i.next();
+
+            Reader reader = ReaderFactory.newXmlReader( file );
+            String content;
+            try
+            {
+                content = IOUtil.toString( reader );
+            }
+            finally
+            {
+                IOUtil.close( reader );
+            }
+
+            String expected = content.replaceAll( "<([^!][^>]*?)\\s{2,}([^>]*?)>", "<$1 $2>" );
+            expected = expected.replaceAll( "(\\s{2,}|[^\\s])/>", "$1 />" );
+
+            assertEquals( "Check " + file, expected, normalise( content ) );
+        }
+    }
+
+    private static String normalise( String content )
+        throws IOException
+    {
+        return NormalisedPom.read( new StringReader( content ) ).toString();
+    }
+}
@@ -28,9 +28,12 @@ import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.release.ReleaseManager;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.trace.ActivityTracer;
+import org.apache.maven.shared.release.trace.ChromeTraceListener;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -120,6 +123,49 @@ public abstract class AbstractReleaseMojo
      */
     private String scmCommentPrefix;
 
+    /**
+     * The number of worker threads to use for work that can be done independently for each project in the reactor,
+     * such as rewriting the POMs.
+     *
+     * @parameter expression="${workerThreads}" default-value="1"
+     */
+    private int workerThreads;
+
+    /**
+     * How rewritten POMs are written out: <code>jdom</code> writes out the whole parsed POM, while
+     * <code>lossless</code> only changes the values that were rewritten and leaves the rest of the POM untouched.
+     *
+     * @parameter expression="${pomEditor}" default-value="jdom"
+     */
+    private String pomEditor;
+
+    /**
+     * Whether to check for local modifications in only the directories of the projects being released, reading the
+     * changes as the SCM reports them. This is only done for Subversion - other SCMs check the whole working copy.
+     * The release is usually run from the top project, whose directory holds all the others, so this mostly saves
+     * holding all the changes in memory for a large working copy rather than checking fewer files.
+     *
+     * @parameter expression="${filteredStatus}" default-value="false"
+     */
+    private boolean filteredStatus;
+
+    /**
+     * How to run the Maven goals of the release: <code>in-process</code> runs them in the JVM running the release,
+     * instead of forking a new Maven for each, and <code>daemon</code> runs them in a JVM that is kept running between
+     * goals and releases, so that Maven is only started once. If not set, Maven is forked.
+     *
+     * @parameter expression="${mavenExecutorId}"
+     */
+    private String mavenExecutorId;
+
+    /**
+     * A file to write a trace of the release to, in the Chrome trace event format, showing how long each goal, phase,
+     * Maven execution and SCM command took. Nothing is traced if it isn't set.
+     *
+     * @parameter expression="${traceFile}"
+     */
+    private File traceFile;
+
     /**
      * @parameter expression="${reactorProjects}"
      * @required
@@ -141,6 +187,13 @@ public abstract class AbstractReleaseMojo
      */
     private ScmManager scmManager;
 
+    /**
+     * Reports the Maven executions and SCM commands of the release.
+     *
+     * @component
+     */
+    private ActivityTracer activityTracer;
+
     public void execute()
         throws MojoExecutionException, MojoFailureException
     {
@@ -173,6 +226,14 @@ public abstract class AbstractReleaseMojo
 
         descriptor.setPomFileName( pomFileName );
 
+        descriptor.setWorkerThreads( workerThreads );
+
+        descriptor.setPomEditor( pomEditor );
+
+        descriptor.setFilteredStatus( filteredStatus );
+
+        descriptor.setMavenExecutorId( mavenExecutorId );
+
         List profiles = project.getActiveProfiles();
 
         String arguments = this.arguments;
@@ -203,6 +264,45 @@ public abstract class AbstractReleaseMojo
         return descriptor;
     }
 
+    /**
+     * Start tracing the release, if a trace file was given.
+     *
+     * @return the listener to pass to the release manager, or <code>null</code> if the release isn't traced
+     */
+    protected ChromeTraceListener startTrace()
+    {
+        if ( traceFile == null )
+        {
+            return null;
+        }
+
+        ChromeTraceListener trace = new ChromeTraceListener( traceFile );
+        activityTracer.addListener( trace );
+        return trace;
+    }
+
+    /**
+     * Stop tracing the release and write out the trace file.
+     *
+     * @param trace the listener returned by {@link #startTrace()}
+     */
+    protected void endTrace( ChromeTraceListener trace )
+    {
+        if ( trace != null )
+        {
+            activityTracer.removeListener( trace );
+            try
+            {
+                trace.close();
+                getLog().info( "Release trace written to " + traceFile );
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "Unable to write the release trace to " + traceFile + ": " + e.getMessage() );
+            }
+        }
+    }
+
     void setReleaseManager( ReleaseManager releaseManager )
     {
         this.releaseManager = releaseManager;
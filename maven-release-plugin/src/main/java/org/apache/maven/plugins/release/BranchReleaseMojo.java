@@ -24,6 +24,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.trace.ChromeTraceListener;
 import org.codehaus.plexus.util.StringUtils;
 
 /**
@@ -125,9 +126,17 @@ public class BranchReleaseMojo
         config.setUpdateWorkingCopyVersions( updateWorkingCopyVersions );
         config.setUpdateVersionsToSnapshot( updateVersionsToSnapshot );
 
+        ChromeTraceListener trace = startTrace();
         try
         {
-            releaseManager.branch( config, settings, reactorProjects, dryRun );
+            if ( trace != null )
+            {
+                releaseManager.branch( config, settings, reactorProjects, dryRun, trace );
+            }
+            else
+            {
+                releaseManager.branch( config, settings, reactorProjects, dryRun );
+            }
         }
         catch ( ReleaseExecutionException e )
         {
@@ -138,5 +147,9 @@ public class BranchReleaseMojo
             e.printStackTrace();
             throw new MojoFailureException( e.getMessage() );
         }
+        finally
+        {
+            endTrace( trace );
+        }
     }
 }
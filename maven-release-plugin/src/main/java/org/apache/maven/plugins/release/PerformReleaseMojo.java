@@ -24,6 +24,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.trace.ChromeTraceListener;
 
 import java.io.File;
 
@@ -70,11 +71,79 @@ public class PerformReleaseMojo
      */
     private boolean useReleaseProfile;
 
+    /**
+     * The number of threads to build the modules of the reactor with in a parallel build, such as <code>4</code>, or
+     * <code>1C</code> for one thread per core. Setting it builds in parallel even if <code>parallelBuild</code> isn't
+     * set. Parallel builds need Maven 3 or later to run the goals. If not set, the threads stored with the release are
+     * used.
+     *
+     * @parameter expression="${buildThreads}"
+     */
+    private String buildThreads;
+
+    /**
+     * Whether to build the modules of the reactor in parallel when running the perform goals. If not set, the
+     * setting stored with the release is used.
+     *
+     * @parameter expression="${parallelBuild}"
+     */
+    private Boolean parallelBuild;
+
+    /**
+     * Whether to run the perform goals offline. If not set, the setting stored with the release is used.
+     *
+     * @parameter expression="${offlineBuild}"
+     */
+    private Boolean offlineBuild;
+
+    /**
+     * Whether to deploy the outputs archived by <code>release:prepare</code> when the sources of the tag are the same,
+     * rather than compiling and testing them again. Also used if it was set when preparing the release.
+     *
+     * @parameter expression="${reuseBuildOutputs}" default-value="false"
+     */
+    private boolean reuseBuildOutputs;
+
+    /**
+     * How to check out the tag: <code>full</code>, <code>shallow</code> to export it without history or working copy
+     * metadata, <code>sparse</code> to check out only the <code>checkoutPaths</code> of a Subversion tag, or
+     * <code>reference</code> to clone the <code>checkoutReference</code> of a Mercurial repository first. Everything
+     * is checked out for repositories the strategy can't be used with.
+     *
+     * @parameter expression="${checkoutStrategy}" default-value="full"
+     */
+    private String checkoutStrategy;
+
+    /**
+     * The comma separated directories of the tag to check out with the <code>sparse</code> checkout strategy.
+     *
+     * @parameter expression="${checkoutPaths}"
+     */
+    private String checkoutPaths;
+
+    /**
+     * The local repository to clone with the <code>reference</code> checkout strategy.
+     *
+     * @parameter expression="${checkoutReference}"
+     */
+    private String checkoutReference;
+
+    /**
+     * Whether to update the checkout left by an earlier attempt to the tag, rather than checking it out again. The
+     * checkout is only reused if it has no local changes to the files it tracks, and if it was itself checked out
+     * with this option, which records it in a <code>.properties</code> file beside the checkout directory. Its
+     * untracked files and build directories are removed first.
+     *
+     * @parameter expression="${incrementalCheckout}" default-value="false"
+     */
+    private boolean incrementalCheckout;
+
     public void execute()
         throws MojoExecutionException, MojoFailureException
     {
         super.execute();
 
+        ChromeTraceListener trace = startTrace();
         try
         {
             // Note that the working directory here is not the same as in the release configuration, so don't reuse that
@@ -86,6 +155,14 @@ public class PerformReleaseMojo
 
             releaseDescriptor.setCheckoutDirectory( workingDirectory.getAbsolutePath() );
             releaseDescriptor.setUseReleaseProfile( useReleaseProfile );
+            releaseDescriptor.setBuildThreads( buildThreads );
+            releaseDescriptor.setParallelBuild( parallelBuild );
+            releaseDescriptor.setOfflineBuild( offlineBuild );
+            releaseDescriptor.setReuseBuildOutputs( reuseBuildOutputs );
+            releaseDescriptor.setCheckoutStrategy( checkoutStrategy );
+            releaseDescriptor.setCheckoutPaths( checkoutPaths );
+            releaseDescriptor.setCheckoutReference( checkoutReference );
+            releaseDescriptor.setIncrementalCheckout( incrementalCheckout );
 
             if ( goals == null )
             {
@@ -99,7 +176,14 @@ public class PerformReleaseMojo
             }
             releaseDescriptor.setPerformGoals( goals );
 
-            releaseManager.perform( releaseDescriptor, settings, reactorProjects );
+            if ( trace != null )
+            {
+                releaseManager.perform( releaseDescriptor, settings, reactorProjects, trace );
+            }
+            else
+            {
+                releaseManager.perform( releaseDescriptor, settings, reactorProjects );
+            }
         }
         catch ( ReleaseExecutionException e )
         {
@@ -109,5 +193,9 @@ public class PerformReleaseMojo
         {
             throw new MojoFailureException( e.getMessage() );
         }
+        finally
+        {
+            endTrace( trace );
+        }
     }
 }
@@ -24,6 +24,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.trace.ChromeTraceListener;
 
 /**
  * Prepare for a release in SCM.
@@ -110,13 +111,62 @@ public class PrepareReleaseMojo
      */
     private boolean commitByProject;
 
+    /**
+     * When committing by project, the number of projects whose POMs are committed together, from the closest
+     * directory they have in common. Only use more than 1 if the SCM can commit the POMs of those projects at once.
+     *
+     * @parameter expression="${commitBatchSize}" default-value="1"
+     */
+    private int commitBatchSize;
+
     /**
      * Whether to timestamped SNAPSHOT dependencies.  Default is to fail when finding any SNAPSHOT.
      *
      * @parameter expression="${ignoreSnapshots}" default-value="false"
      */
     private boolean allowTimestampedSnapshots;
-    
+
+    /**
+     * The number of threads to build the modules of the reactor with in a parallel build, such as <code>4</code>, or
+     * <code>1C</code> for one thread per core. Setting it builds in parallel even if <code>parallelBuild</code> isn't
+     * set. Parallel builds need Maven 3 or later to run the goals. If not set, the threads stored with the release are
+     * used.
+     *
+     * @parameter expression="${buildThreads}"
+     */
+    private String buildThreads;
+
+    /**
+     * Whether to build the modules of the reactor in parallel when running the preparation goals. If not set, the
+     * setting stored with the release is used.
+     *
+     * @parameter expression="${parallelBuild}"
+     */
+    private Boolean parallelBuild;
+
+    /**
+     * Whether to run the preparation goals offline. If not set, the setting stored with the release is used.
+     *
+     * @parameter expression="${offlineBuild}"
+     */
+    private Boolean offlineBuild;
+
+    /**
+     * Whether to archive the outputs of the build run with the preparation goals, so that <code>release:perform</code>
+     * can deploy them without compiling and testing the same sources again.
+     *
+     * @parameter expression="${reuseBuildOutputs}" default-value="false"
+     */
+    private boolean reuseBuildOutputs;
+
+    /**
+     * Whether to also tag the projects of the reactor that are checked out from a different SCM location than the
+     * root project, rather than from below it. Each location must resolve to a tag of its own.
+     *
+     * @parameter expression="${tagScmRoots}" default-value="false"
+     */
+    private boolean tagScmRoots;
+
     public void execute()
         throws MojoExecutionException, MojoFailureException
     {
@@ -128,12 +178,27 @@ public class PrepareReleaseMojo
         config.setScmUseEditMode( useEditMode );
         config.setPreparationGoals( preparationGoals );
         config.setCommitByProject( commitByProject );
+        config.setCommitBatchSize( commitBatchSize );
         config.setUpdateDependencies( updateDependencies );
         config.setAutoVersionSubmodules( autoVersionSubmodules );
         config.setAllowTimestampedSnapshots( allowTimestampedSnapshots );
+        config.setBuildThreads( buildThreads );
+        config.setParallelBuild( parallelBuild );
+        config.setOfflineBuild( offlineBuild );
+        config.setReuseBuildOutputs( reuseBuildOutputs );
+        config.setTagScmRoots( tagScmRoots );
+
+        ChromeTraceListener trace = startTrace();
         try
         {
-            releaseManager.prepare( config, settings, reactorProjects, resume, dryRun );
+            if ( trace != null )
+            {
+                releaseManager.prepare( config, settings, reactorProjects, resume, dryRun, trace );
+            }
+            else
+            {
+                releaseManager.prepare( config, settings, reactorProjects, resume, dryRun );
+            }
         }
         catch ( ReleaseExecutionException e )
         {
@@ -143,6 +208,10 @@ public class PrepareReleaseMojo
         {
             throw new MojoFailureException( e.getMessage() );
         }
+        finally
+        {
+            endTrace( trace );
+        }
     }
 
 }
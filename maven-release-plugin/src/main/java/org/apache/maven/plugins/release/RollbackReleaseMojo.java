@@ -22,6 +22,7 @@ package org.apache.maven.plugins.release;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.shared.release.config.ReleaseDescriptor;
+import org.apache.maven.shared.release.trace.ChromeTraceListener;
 import org.apache.maven.shared.release.ReleaseExecutionException;
 import org.apache.maven.shared.release.ReleaseFailureException;
 
@@ -44,9 +45,17 @@ public class RollbackReleaseMojo
 
         ReleaseDescriptor config = createReleaseDescriptor();
 
+        ChromeTraceListener trace = startTrace();
         try
         {
-            releaseManager.rollback( config, settings, reactorProjects );
+            if ( trace != null )
+            {
+                releaseManager.rollback( config, settings, reactorProjects, trace );
+            }
+            else
+            {
+                releaseManager.rollback( config, settings, reactorProjects );
+            }
         }
         catch ( ReleaseExecutionException e )
         {
@@ -56,5 +65,9 @@ public class RollbackReleaseMojo
         {
             throw new MojoFailureException( e.getMessage() );
         }
+        finally
+        {
+            endTrace( trace );
+        }
     }
 }